@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.cli;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parses the command line arguments.
+ * <p>
+ * Arguments are parsed by hand rather than with a library, to keep the number of classes that are loaded on startup low. The first argument
+ * that is not an option is the command. Options are given as {@code --name value}, {@code --name=value} or {@code -n value}.
+ * </p>
+ */
+final class Arguments
+{
+    private static final Set<String> FLAGS = new HashSet<>(Arrays.asList("help"));
+    private static final Set<String> OPTIONS = new HashSet<>(Arrays.asList(
+            "directory",
+            "number-of-versions",
+            "version-tag-prefix",
+            "next-version",
+            "output",
+            "template-directory",
+            "repository-url",
+            "types",
+            "scopes",
+            "root",
+            "bind",
+            "port",
+            "threads",
+            "debounce",
+            "timeout"));
+    private static final Map<String, String> ALIASES = new HashMap<>();
+
+    static
+    {
+        ALIASES.put("d", "directory");
+        ALIASES.put("n", "number-of-versions");
+        ALIASES.put("p", "version-tag-prefix");
+        ALIASES.put("o", "output");
+        ALIASES.put("t", "template-directory");
+        ALIASES.put("h", "help");
+    }
+
+    private final String command;
+    private final Map<String, String> options;
+    private final List<String> positionals;
+
+    private Arguments(String command, Map<String, String> options, List<String> positionals)
+    {
+        this.command = command;
+        this.options = options;
+        this.positionals = positionals;
+    }
+
+    /**
+     * Parses the given arguments.
+     *
+     * @param args the arguments to parse
+     * @return the parsed arguments
+     * @throws IllegalArgumentException if the arguments are not valid
+     */
+    static Arguments parse(String... args)
+    {
+        String command = null;
+        Map<String, String> options = new HashMap<>();
+        List<String> positionals = new ArrayList<>();
+
+        for (int index = 0; index < args.length; index++)
+        {
+            String arg = args[index];
+            if (!arg.startsWith("-") || arg.equals("-"))
+            {
+                if (command == null)
+                {
+                    command = arg;
+                }
+                else
+                {
+                    positionals.add(arg);
+                }
+                continue;
+            }
+
+            String name = arg.startsWith("--") ? arg.substring(2) : arg.substring(1);
+            String value = null;
+            int separator = name.indexOf('=');
+            if (separator >= 0)
+            {
+                value = name.substring(separator + 1);
+                name = name.substring(0, separator);
+            }
+            name = ALIASES.getOrDefault(name, name);
+
+            if (FLAGS.contains(name))
+            {
+                if (value != null)
+                {
+                    throw new IllegalArgumentException("Option '" + name + "' does not take a value");
+                }
+                options.put(name, "true");
+            }
+            else if (OPTIONS.contains(name))
+            {
+                if (value == null)
+                {
+                    if (index + 1 >= args.length)
+                    {
+                        throw new IllegalArgumentException("Option '" + name + "' requires a value");
+                    }
+                    value = args[++index];
+                }
+                options.put(name, value);
+            }
+            else
+            {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        return new Arguments(command == null ? "generate" : command, options, Collections.unmodifiableList(positionals));
+    }
+
+    /**
+     * Gets the command to run. Defaults to {@code generate}.
+     *
+     * @return the command
+     */
+    String getCommand()
+    {
+        return command;
+    }
+
+    /**
+     * Gets the arguments that are neither the command nor options.
+     *
+     * @return the positional arguments
+     */
+    List<String> getPositionals()
+    {
+        return positionals;
+    }
+
+    /**
+     * Gets whether or not the given flag is set.
+     *
+     * @param name the name of the flag
+     * @return {@code true} if the flag is set
+     */
+    boolean isSet(String name)
+    {
+        return options.containsKey(name);
+    }
+
+    /**
+     * Gets the value of an option.
+     *
+     * @param name the name of the option
+     * @param defaultValue the value to use if the option is not given
+     * @return the value
+     */
+    String getString(String name, String defaultValue)
+    {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Gets the value of an option as an integer.
+     *
+     * @param name the name of the option
+     * @param defaultValue the value to use if the option is not given
+     * @return the value
+     * @throws IllegalArgumentException if the value is not an integer
+     */
+    int getInt(String name, int defaultValue)
+    {
+        String value = options.get(name);
+        if (value == null)
+        {
+            return defaultValue;
+        }
+
+        try
+        {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Option '" + name + "' must be an integer, but was: " + value);
+        }
+    }
+
+    /**
+     * Gets the value of an option as a file.
+     *
+     * @param name the name of the option
+     * @return the file, or {@code null} if the option is not given
+     */
+    File getFile(String name)
+    {
+        String value = options.get(name);
+        return value == null ? null : new File(value);
+    }
+}
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.cli;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.antonjohansson.conventionalcommits.core.batch.BatchGenerator;
+import com.antonjohansson.conventionalcommits.core.batch.BatchResult;
+
+/**
+ * Generates changelogs for many repositories at once, given either as arguments or as the repositories of a root directory.
+ */
+class BatchCommand
+{
+    /**
+     * Runs the command.
+     *
+     * @param arguments the command line arguments
+     * @return the exit code, which is {@code 1} if any repository failed
+     */
+    int run(Arguments arguments) throws Exception
+    {
+        List<File> repositories = new ArrayList<>();
+        File root = arguments.getFile("root");
+        if (root != null)
+        {
+            repositories.addAll(BatchGenerator.findRepositories(root));
+        }
+        for (String path : arguments.getPositionals())
+        {
+            repositories.add(new File(path));
+        }
+        if (repositories.isEmpty())
+        {
+            throw new IllegalArgumentException("Expected repositories as arguments, or a root directory with --root");
+        }
+
+        File output = arguments.getFile("output");
+        if (output == null)
+        {
+            throw new IllegalArgumentException("The 'output' option is required, and is the directory to write changelogs to");
+        }
+
+        BatchGenerator generator = new BatchGenerator(repositories, output)
+                .threads(arguments.getInt("threads", Runtime.getRuntime().availableProcessors()))
+                .timeout(Duration.ofSeconds(arguments.getInt("timeout", 300)))
+                .numberOfVersions(arguments.getInt("number-of-versions", 1))
+                .versionTagPrefix(arguments.getString("version-tag-prefix", "v"));
+        String nextVersion = arguments.getString("next-version", null);
+        if (nextVersion != null)
+        {
+            generator.nextVersion(nextVersion);
+        }
+        File templateDirectory = arguments.getFile("template-directory");
+        if (templateDirectory != null)
+        {
+            generator.templateDirectory(templateDirectory);
+        }
+
+        List<BatchResult> results = generator.run();
+        System.out.print(BatchGenerator.format(results));
+        return results.stream().allMatch(result -> result.getStatus() == BatchResult.Status.SUCCEEDED) ? 0 : 1;
+    }
+}
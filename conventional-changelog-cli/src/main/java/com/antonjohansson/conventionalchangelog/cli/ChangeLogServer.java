@@ -0,0 +1,244 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.antonjohansson.conventionalcommits.core.git.ChangeSetCollector;
+import com.antonjohansson.conventionalcommits.core.git.RepositoryHandle;
+import com.antonjohansson.conventionalcommits.core.git.RepositoryRegistry;
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.writer.ChangeLogWriter;
+import com.antonjohansson.conventionalcommits.core.writer.JsonSink;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves changelogs of the repositories in a root directory over HTTP.
+ * <p>
+ * Repositories are opened on first use and kept open, along with their tag indexes and parsed commits, for as long as the server runs. Each
+ * request checks whether the refs of the repository have changed, so only new tags cause the tag index to be rebuilt, and only new commits
+ * are parsed.
+ * </p>
+ * <ul>
+ * <li>{@code GET /changelog?repository=<name>&from=<tag>} renders the changes between the tag and {@code HEAD}. Without {@code from}, the
+ * {@code versions} most recent versions are rendered (defaults to {@code 1}). {@code version} sets the name of the unreleased version
+ * (defaults to {@code HEAD}), {@code prefix} the version tag prefix, {@code repositoryUrl} the URL used to link commits and {@code format}
+ * either {@code markdown} (default) or {@code json}.</li>
+ * <li>{@code GET /metrics} reports the number of requests, errors and latency percentiles.</li>
+ * </ul>
+ */
+class ChangeLogServer implements AutoCloseable
+{
+    private final File root;
+    private final RepositoryRegistry registry = new RepositoryRegistry();
+    private final LatencyMetrics metrics = new LatencyMetrics();
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Instantiates a new instance of {@link ChangeLogServer}.
+     *
+     * @param root the directory that contains the repositories to serve
+     * @param address the address to listen on
+     * @param port the port to listen on, or {@code 0} for any free port
+     * @param threads the number of threads that handle requests
+     */
+    ChangeLogServer(File root, InetAddress address, int port, int threads) throws IOException
+    {
+        this.root = root.getCanonicalFile();
+        this.server = HttpServer.create(new InetSocketAddress(address, port), 0);
+        this.executor = Executors.newFixedThreadPool(threads);
+        server.setExecutor(executor);
+        server.createContext("/changelog", this::handleChangeLog);
+        server.createContext("/metrics", exchange -> respond(exchange, 200, "text/plain", metrics.format()));
+    }
+
+    /**
+     * Starts listening for requests.
+     */
+    void start()
+    {
+        server.start();
+    }
+
+    /**
+     * Gets the address that the server listens on.
+     *
+     * @return the address
+     */
+    InetSocketAddress getAddress()
+    {
+        return server.getAddress();
+    }
+
+    /**
+     * Gets the port that the server listens on.
+     *
+     * @return the port
+     */
+    int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+    private void handleChangeLog(HttpExchange exchange) throws IOException
+    {
+        long start = System.nanoTime();
+        int status;
+        String contentType = "text/plain";
+        String body;
+        try
+        {
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            body = render(query);
+            status = 200;
+            contentType = "json".equals(query.get("format")) ? "application/json" : "text/markdown";
+        }
+        catch (IllegalArgumentException e)
+        {
+            status = 400;
+            body = e.getMessage() + "\n";
+        }
+        catch (Exception e)
+        {
+            status = 500;
+            body = "Could not render changelog: " + e.getMessage() + "\n";
+        }
+
+        // Recorded before responding, so that the metrics include the request once the client has the response
+        metrics.record(System.nanoTime() - start, status == 200);
+        respond(exchange, status, contentType, body);
+    }
+
+    private String render(Map<String, String> query) throws Exception
+    {
+        File directory = resolveRepository(query.get("repository"));
+        List<ChangeSet> changeSets;
+        try (RepositoryHandle handle = registry.acquire(directory))
+        {
+            handle.refresh();
+
+            ChangeSetCollector collector = new ChangeSetCollector(handle, directory)
+                    .nextVersion(query.getOrDefault("version", "HEAD"))
+                    .versionTagPrefix(query.getOrDefault("prefix", "v"))
+                    .numberOfVersions(parseInt(query.getOrDefault("versions", "1"), "versions"));
+            if (query.containsKey("from"))
+            {
+                collector.untilTag(query.get("from"));
+            }
+            changeSets = collector.collect();
+        }
+
+        StringWriter output = new StringWriter();
+        try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+        {
+            writer.projectDirectory(directory);
+            if (query.containsKey("repositoryUrl"))
+            {
+                writer.repositoryURL(query.get("repositoryUrl"));
+            }
+            if ("json".equals(query.get("format")))
+            {
+                writer.sink(new JsonSink(output));
+            }
+            else
+            {
+                writer.writer(output);
+            }
+            writer.write();
+        }
+        return output.toString();
+    }
+
+    private File resolveRepository(String name) throws IOException
+    {
+        if (name == null || name.isEmpty())
+        {
+            throw new IllegalArgumentException("The 'repository' parameter is required");
+        }
+
+        File directory = new File(root, name).getCanonicalFile();
+        if (!directory.toPath().startsWith(root.toPath()) || !directory.isDirectory())
+        {
+            throw new IllegalArgumentException("Unknown repository: " + name);
+        }
+        return directory;
+    }
+
+    private static int parseInt(String value, String name)
+    {
+        try
+        {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("The '" + name + "' parameter must be an integer, but was: " + value);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) throws UnsupportedEncodingException
+    {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null)
+        {
+            return query;
+        }
+
+        for (String parameter : rawQuery.split("&"))
+        {
+            int separator = parameter.indexOf('=');
+            String key = separator >= 0 ? parameter.substring(0, separator) : parameter;
+            String value = separator >= 0 ? parameter.substring(separator + 1) : "";
+            query.put(URLDecoder.decode(key, "UTF-8"), URLDecoder.decode(value, "UTF-8"));
+        }
+        return query;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException
+    {
+        byte[] bytes = body.getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream output = exchange.getResponseBody())
+        {
+            output.write(bytes);
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        server.stop(0);
+        executor.shutdownNow();
+        registry.close();
+    }
+}
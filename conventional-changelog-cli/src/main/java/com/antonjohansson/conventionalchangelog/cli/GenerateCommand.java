@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.antonjohansson.conventionalcommits.core.git.ChangeSetCollector;
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.writer.ChangeLogWriter;
+
+/**
+ * Generates a changelog.
+ * <p>
+ * The Maven model is only loaded if the next version or the repository URL has to be read from the POM. Passing {@code --next-version} and
+ * {@code --repository-url} avoids it.
+ * </p>
+ */
+class GenerateCommand
+{
+    /**
+     * Runs the command.
+     *
+     * @param arguments the command line arguments
+     * @return the exit code
+     */
+    int run(Arguments arguments) throws Exception
+    {
+        File directory = new File(arguments.getString("directory", ".")).getAbsoluteFile();
+        List<ChangeSet> changeSets = collect(arguments, directory);
+
+        File output = arguments.getFile("output");
+        Writer writer = output == null
+            ? new BufferedWriter(new OutputStreamWriter(System.out, UTF_8))
+            : Files.newBufferedWriter(output.toPath(), UTF_8);
+
+        try (ChangeLogWriter changeLogWriter = new ChangeLogWriter(changeSets))
+        {
+            changeLogWriter
+                    .projectDirectory(directory)
+                    .writer(writer);
+
+            File templateDirectory = arguments.getFile("template-directory");
+            if (templateDirectory != null)
+            {
+                changeLogWriter.templateDirectory(templateDirectory);
+            }
+            String repositoryURL = arguments.getString("repository-url", null);
+            if (repositoryURL != null)
+            {
+                changeLogWriter.repositoryURL(repositoryURL);
+            }
+
+            changeLogWriter.write();
+        }
+        return 0;
+    }
+
+    private List<ChangeSet> collect(Arguments arguments, File directory) throws Exception
+    {
+        try (ChangeSetCollector collector = new ChangeSetCollector(directory))
+        {
+            collector
+                    .numberOfVersions(arguments.getInt("number-of-versions", 1))
+                    .versionTagPrefix(arguments.getString("version-tag-prefix", "v"));
+
+            String nextVersion = arguments.getString("next-version", null);
+            if (nextVersion != null)
+            {
+                collector.nextVersion(nextVersion);
+            }
+            return collector.collect();
+        }
+    }
+}
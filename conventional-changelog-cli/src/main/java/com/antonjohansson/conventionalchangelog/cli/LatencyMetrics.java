@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.cli;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records request latencies and reports percentiles over the most recent requests.
+ */
+class LatencyMetrics
+{
+    private static final int WINDOW = 1024;
+
+    private final long[] latencies = new long[WINDOW];
+    private long requests;
+    private long errors;
+    private long max;
+
+    /**
+     * Records a request.
+     *
+     * @param nanos the latency of the request, in nanoseconds
+     * @param success whether or not the request succeeded
+     */
+    synchronized void record(long nanos, boolean success)
+    {
+        latencies[(int) (requests % WINDOW)] = nanos;
+        requests++;
+        if (!success)
+        {
+            errors++;
+        }
+        max = Math.max(max, nanos);
+    }
+
+    /**
+     * Formats the metrics as {@code name value} lines. Latencies are given in milliseconds.
+     *
+     * @return the formatted metrics
+     */
+    String format()
+    {
+        long[] window;
+        long requests;
+        long errors;
+        long max;
+        synchronized (this)
+        {
+            window = Arrays.copyOf(latencies, (int) Math.min(this.requests, WINDOW));
+            requests = this.requests;
+            errors = this.errors;
+            max = this.max;
+        }
+        Arrays.sort(window);
+
+        return new StringBuilder()
+                .append("requests ").append(requests).append('\n')
+                .append("errors ").append(errors).append('\n')
+                .append("latency_p50_ms ").append(millis(percentile(window, 50))).append('\n')
+                .append("latency_p90_ms ").append(millis(percentile(window, 90))).append('\n')
+                .append("latency_p99_ms ").append(millis(percentile(window, 99))).append('\n')
+                .append("latency_max_ms ").append(millis(max)).append('\n')
+                .toString();
+    }
+
+    private static long percentile(long[] sorted, int percentile)
+    {
+        if (sorted.length == 0)
+        {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)];
+    }
+
+    private static String millis(long nanos)
+    {
+        return String.format(Locale.ROOT, "%.3f", nanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.cli;
+
+/**
+ * Entry point of the command line tool.
+ * <p>
+ * Startup time matters, since the tool runs from release scripts and Git hooks. This class only parses arguments. Commands live in their own
+ * classes, so that JGit, Handlebars and the Maven model are only loaded by the commands that need them.
+ * </p>
+ */
+public final class Main
+{
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: conventional-changelog [command] [options]",
+            "",
+            "Commands:",
+            "  generate                        Generates a changelog (default)",
+            "  validate <file>                 Validates a commit message file, for commit-msg hooks",
+            "  serve                           Serves changelogs of the repositories in a directory over HTTP",
+            "  watch                           Keeps a changelog up to date while the repository changes",
+            "  batch [repositories...]         Generates changelogs for many repositories into the --output directory",
+            "",
+            "Options:",
+            "  -d, --directory <dir>           The project directory (default: .)",
+            "  -n, --number-of-versions <n>    The number of versions to include, 0 for all (default: 1)",
+            "  -p, --version-tag-prefix <p>    The prefix of version tags (default: v)",
+            "      --next-version <version>    The version being worked on (default: read from pom.xml)",
+            "  -o, --output <file>             The output file (default: standard output)",
+            "  -t, --template-directory <dir>  A directory with custom templates",
+            "      --repository-url <url>      The URL used to link commits (default: read from pom.xml)",
+            "      --types <types>             Comma separated types to allow when validating (default: the Angular types)",
+            "      --scopes <scopes>           Comma separated scopes to allow when validating (default: any)",
+            "      --root <dir>                The directory with repositories to serve or to batch (default for serve: .)",
+            "      --bind <address>            The address to serve on, such as 0.0.0.0 for all interfaces (default: 127.0.0.1)",
+            "      --port <port>               The port to serve on (default: 8080)",
+            "      --threads <n>               The number of threads that serve requests or process repositories (default: number of processors)",
+            "      --timeout <seconds>         The maximum time to spend on a single repository in a batch (default: 300)",
+            "      --debounce <ms>             How long the repository must be quiet before updating when watching (default: 200)",
+            "  -h, --help                      Shows this help");
+
+    private Main()
+    {
+    }
+
+    public static void main(String[] args)
+    {
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs the tool.
+     *
+     * @param args the command line arguments
+     * @return the exit code
+     */
+    static int run(String... args)
+    {
+        Arguments arguments;
+        try
+        {
+            arguments = Arguments.parse(args);
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 2;
+        }
+
+        if (arguments.isSet("help"))
+        {
+            System.out.println(USAGE);
+            return 0;
+        }
+
+        try
+        {
+            switch (arguments.getCommand())
+            {
+                case "generate":
+                    return new GenerateCommand().run(arguments);
+                case "validate":
+                    return new ValidateCommand().run(arguments);
+                case "serve":
+                    return new ServeCommand().run(arguments);
+                case "watch":
+                    return new WatchCommand().run(arguments);
+                case "batch":
+                    return new BatchCommand().run(arguments);
+                default:
+                    System.err.println("Unknown command: " + arguments.getCommand());
+                    System.err.println(USAGE);
+                    return 2;
+            }
+        }
+        catch (IllegalArgumentException e)
+        {
+            System.err.println(e.getMessage());
+            return 2;
+        }
+        catch (Exception e)
+        {
+            System.err.println("Could not run '" + arguments.getCommand() + "': " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.cli;
+
+import java.io.File;
+import java.net.InetAddress;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Runs a server that keeps repositories warm and renders changelogs on request. See {@link ChangeLogServer} for the endpoints.
+ */
+class ServeCommand
+{
+    /**
+     * Runs the command. Blocks until the process is terminated.
+     *
+     * @param arguments the command line arguments
+     * @return the exit code
+     */
+    int run(Arguments arguments) throws Exception
+    {
+        File root = new File(arguments.getString("root", "."));
+        // Only local clients can connect unless an address is given, since the server exposes the history of every repository in the root
+        InetAddress address = InetAddress.getByName(arguments.getString("bind", "127.0.0.1"));
+        int port = arguments.getInt("port", 8080);
+        int threads = arguments.getInt("threads", Runtime.getRuntime().availableProcessors());
+
+        ChangeLogServer server = new ChangeLogServer(root, address, port, threads);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() ->
+        {
+            server.close();
+            stopped.countDown();
+        }));
+
+        server.start();
+        System.err.println("Serving changelogs of " + root.getCanonicalPath() + " on " + server.getAddress().getAddress().getHostAddress() + ":" + server.getPort());
+        stopped.await();
+        return 0;
+    }
+}
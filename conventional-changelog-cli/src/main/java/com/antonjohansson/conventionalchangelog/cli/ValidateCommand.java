@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import com.antonjohansson.conventionalcommits.core.git.parser.CommitMessageValidator;
+
+/**
+ * Validates a commit message file, for use as a {@code commit-msg} hook. Only the commit parser is loaded, not JGit, Handlebars or the Maven
+ * model.
+ */
+class ValidateCommand
+{
+    /**
+     * Runs the command.
+     *
+     * @param arguments the command line arguments
+     * @return the exit code
+     */
+    int run(Arguments arguments) throws Exception
+    {
+        if (arguments.getPositionals().size() != 1)
+        {
+            throw new IllegalArgumentException("Expected exactly one message file");
+        }
+
+        CommitMessageValidator validator = new CommitMessageValidator();
+        String types = arguments.getString("types", null);
+        if (types != null)
+        {
+            validator.types(split(types));
+        }
+        String scopes = arguments.getString("scopes", null);
+        if (scopes != null)
+        {
+            validator.scopes(split(scopes));
+        }
+
+        File file = new File(arguments.getPositionals().get(0));
+        List<String> problems = validator.validate(new String(Files.readAllBytes(file.toPath()), UTF_8));
+        if (problems.isEmpty())
+        {
+            return 0;
+        }
+
+        System.err.println("The commit message does not follow the conventional commits format:");
+        for (String problem : problems)
+        {
+            System.err.println("  " + problem);
+        }
+        return 1;
+    }
+
+    private List<String> split(String value)
+    {
+        return asList(value.trim().split("\\s*,\\s*"));
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.cli;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.antonjohansson.conventionalcommits.core.watch.ChangeLogWatcher;
+
+/**
+ * Keeps a changelog up to date while the repository changes. Blocks until the process is terminated.
+ */
+class WatchCommand
+{
+    /**
+     * Runs the command.
+     *
+     * @param arguments the command line arguments
+     * @return the exit code
+     */
+    int run(Arguments arguments) throws Exception
+    {
+        File directory = new File(arguments.getString("directory", ".")).getAbsoluteFile();
+        File output = arguments.getFile("output");
+        if (output == null)
+        {
+            output = new File(directory, "CHANGELOG.md");
+        }
+
+        ChangeLogWatcher watcher = new ChangeLogWatcher(directory, output)
+                .numberOfVersions(arguments.getInt("number-of-versions", 1))
+                .versionTagPrefix(arguments.getString("version-tag-prefix", "v"))
+                .debounce(Duration.ofMillis(arguments.getInt("debounce", 200)));
+        String nextVersion = arguments.getString("next-version", null);
+        if (nextVersion != null)
+        {
+            watcher.nextVersion(nextVersion);
+        }
+        String repositoryURL = arguments.getString("repository-url", null);
+        if (repositoryURL != null)
+        {
+            watcher.repositoryURL(repositoryURL);
+        }
+        File templateDirectory = arguments.getFile("template-directory");
+        if (templateDirectory != null)
+        {
+            watcher.templateDirectory(templateDirectory);
+        }
+
+        File file = output;
+        watcher.listener(new ChangeLogWatcher.Listener()
+        {
+            @Override
+            public void updated(boolean incremental, long nanos)
+            {
+                System.err.println("Updated " + file + " in " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms" + (incremental ? " (incremental)" : ""));
+            }
+
+            @Override
+            public void failed(Exception e)
+            {
+                System.err.println("Could not update " + file + ": " + e.getMessage());
+            }
+        });
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() ->
+        {
+            try
+            {
+                watcher.close();
+            }
+            catch (Exception e)
+            {
+                // Shutting down anyway
+            }
+            stopped.countDown();
+        }));
+
+        watcher.start();
+        stopped.await();
+        return 0;
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.cli;
+
+import static java.util.Arrays.asList;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests of {@link Arguments}.
+ */
+public class ArgumentsTest extends Assertions
+{
+    @Test
+    public void testDefaults()
+    {
+        Arguments arguments = Arguments.parse();
+
+        assertEquals("generate", arguments.getCommand());
+        assertEquals(1, arguments.getInt("number-of-versions", 1));
+        assertNull(arguments.getFile("output"));
+        assertFalse(arguments.isSet("help"));
+    }
+
+    @Test
+    public void testOptions()
+    {
+        Arguments arguments = Arguments.parse("generate", "-n", "0", "--version-tag-prefix=release-", "--output", "CHANGELOG.md", "extra", "-h");
+
+        assertEquals("generate", arguments.getCommand());
+        assertEquals(0, arguments.getInt("number-of-versions", 1));
+        assertEquals("release-", arguments.getString("version-tag-prefix", "v"));
+        assertEquals(new File("CHANGELOG.md"), arguments.getFile("output"));
+        assertEquals(asList("extra"), arguments.getPositionals());
+        assertTrue(arguments.isSet("help"));
+    }
+
+    @Test
+    public void testInvalid()
+    {
+        assertThrows(IllegalArgumentException.class, () -> Arguments.parse("--unknown"));
+        assertThrows(IllegalArgumentException.class, () -> Arguments.parse("--output"));
+        assertThrows(IllegalArgumentException.class, () -> Arguments.parse("--help=yes"));
+        assertThrows(IllegalArgumentException.class, () -> Arguments.parse("-n", "many").getInt("number-of-versions", 1));
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests of {@link ChangeLogServer}.
+ */
+public class ChangeLogServerTest extends Assertions
+{
+    private File root;
+    private Git git;
+    private ChangeLogServer server;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        root = Files.createTempDirectory("changelog-server").toFile();
+        git = Git.init().setDirectory(new File(root, "project")).call();
+        server = new ChangeLogServer(root, InetAddress.getLoopbackAddress(), 0, 2);
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception
+    {
+        server.close();
+        git.close();
+        FileUtils.deleteDirectory(root);
+    }
+
+    @Test
+    public void testChangesSinceTag() throws Exception
+    {
+        commit("feat: First feature");
+        git.tag().setName("v1.0.0").call();
+        commit("fix: First fix");
+
+        String changelog = get("/changelog?repository=project&from=v1.0.0&version=1.1.0&repositoryUrl=https://example.com");
+        assertTrue(changelog.contains("1.1.0"), changelog);
+        assertTrue(changelog.contains("First fix"), changelog);
+        assertFalse(changelog.contains("First feature"), changelog);
+
+        // Tags and commits that are added while the server runs are picked up
+        git.tag().setName("v1.1.0").call();
+        commit("feat: Second feature");
+
+        changelog = get("/changelog?repository=project&from=v1.1.0&version=1.2.0&repositoryUrl=https://example.com&format=json");
+        assertTrue(changelog.startsWith("[{\"version\":\"1.2.0\""), changelog);
+        assertTrue(changelog.contains("Second feature"), changelog);
+        assertFalse(changelog.contains("First fix"), changelog);
+
+        String metrics = get("/metrics");
+        assertTrue(metrics.contains("requests 2\n"), metrics);
+        assertTrue(metrics.contains("errors 0\n"), metrics);
+    }
+
+    @Test
+    public void testBadRequests() throws Exception
+    {
+        commit("feat: First feature");
+
+        assertEquals(400, status("/changelog"));
+        assertEquals(400, status("/changelog?repository=../outside"));
+        assertEquals(400, status("/changelog?repository=project&from=v9.9.9"));
+        assertTrue(get("/metrics").contains("errors 3\n"));
+    }
+
+    private void commit(String message) throws Exception
+    {
+        File file = new File(git.getRepository().getWorkTree(), "file.txt");
+        Files.write(file.toPath(), message.getBytes(UTF_8));
+        git.add().addFilepattern(".").call();
+        git.commit().setMessage(message).call();
+    }
+
+    private String get(String path) throws IOException
+    {
+        HttpURLConnection connection = open(path);
+        assertEquals(200, connection.getResponseCode());
+        try (InputStream input = connection.getInputStream())
+        {
+            return IOUtils.toString(input, UTF_8);
+        }
+    }
+
+    private int status(String path) throws IOException
+    {
+        return open(path).getResponseCode();
+    }
+
+    private HttpURLConnection open(String path) throws IOException
+    {
+        return (HttpURLConnection) new URL("http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getPort() + path).openConnection();
+    }
+}
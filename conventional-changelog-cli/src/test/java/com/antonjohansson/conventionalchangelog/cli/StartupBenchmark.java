@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.cli;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Measures the cold start time of the packaged command line tool, with and without the class data sharing archive. Both generating a
+ * changelog and validating a commit message, as the {@code commit-msg} hook does, are measured.
+ * <p>
+ * This is not a unit test. Package the module first, then run it as a regular Java application from the module directory. The optional
+ * arguments are the repository to generate a changelog for (defaults to the current directory) and the number of runs (defaults to
+ * {@code 10}). The goal is a median below 300 ms for a single version.
+ * </p>
+ */
+public final class StartupBenchmark
+{
+    private StartupBenchmark()
+    {
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        File repository = new File(args.length > 0 ? args[0] : ".").getAbsoluteFile();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        File jar = new File("target/conventional-changelog.jar").getAbsoluteFile();
+        File archive = new File("target/conventional-changelog.jsa").getAbsoluteFile();
+        if (!jar.isFile())
+        {
+            throw new IllegalStateException("Could not find " + jar + ", package the module first");
+        }
+
+        String java = new File(System.getProperty("java.home"), "bin/java").getPath();
+        List<String> command = new ArrayList<>(Arrays.asList(java, "-XX:TieredStopAtLevel=1", "-XX:+UseSerialGC", "-Xshare:auto"));
+
+        File output = File.createTempFile("startup-benchmark", ".md");
+        File message = File.createTempFile("startup-benchmark", ".txt");
+        Files.write(message.toPath(), "feat(cli): validate messages\n\n# A comment\n".getBytes(UTF_8));
+        try
+        {
+            List<String> generate = Arrays.asList("generate",
+                    "--directory", repository.getPath(),
+                    "--number-of-versions", "1",
+                    "--next-version", "0.0.0",
+                    "--repository-url", "https://example.com",
+                    "--output", output.getPath());
+            List<String> validate = Arrays.asList("validate", message.getPath());
+
+            report("generate", command, jar, generate, runs);
+            report("validate", command, jar, validate, runs);
+            if (archive.isFile())
+            {
+                command.add("-XX:SharedArchiveFile=" + archive.getPath());
+                report("generate (CDS)", command, jar, generate, runs);
+                report("validate (CDS)", command, jar, validate, runs);
+            }
+        }
+        finally
+        {
+            output.delete();
+            message.delete();
+        }
+    }
+
+    private static void report(String name, List<String> jvm, File jar, List<String> arguments, int runs) throws Exception
+    {
+        List<String> command = new ArrayList<>(jvm);
+        command.add("-jar");
+        command.add(jar.getPath());
+        command.addAll(arguments);
+
+        List<Long> times = new ArrayList<>();
+        for (int run = 0; run < runs; run++)
+        {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command).inheritIO().start();
+            int exitCode = process.waitFor();
+            if (exitCode != 0)
+            {
+                throw new IllegalStateException("The command line tool exited with " + exitCode);
+            }
+            times.add((System.nanoTime() - start) / 1_000_000);
+        }
+
+        Collections.sort(times);
+        System.out.println(String.format("%-16s min %5d ms, median %5d ms", name, times.get(0), times.get(times.size() / 2)));
+    }
+}
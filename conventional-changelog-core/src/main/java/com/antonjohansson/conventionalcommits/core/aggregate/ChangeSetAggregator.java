@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.aggregate;
+
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.antonjohansson.conventionalcommits.core.git.ChangeSetCollector;
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.utils.TimeUtils;
+
+/**
+ * Collects the changes of several repositories into a single change set, for example to describe a release of a platform that consists of
+ * many components.
+ * <p>
+ * Each repository is walked on its own thread, newest commit first, and hands its changes to a k-way merge by commit time through a bounded
+ * buffer. Neither the walks nor the merge hold more than their frontier and buffers, so only the merged change set grows with the number of
+ * changes. Each change carries the name of its component, which is rendered next to it and used by
+ * {@link com.antonjohansson.conventionalcommits.core.writer.ChangeLogWriter#repositoryURL(String, String)} to link it to the right
+ * repository.
+ * </p>
+ * <p>
+ * The changes of a component keep the order of its walk, which follows commit time except where clocks were skewed. Such commits are not
+ * moved, so the changes of the other components are merged around them.
+ * </p>
+ */
+public class ChangeSetAggregator
+{
+    // The walks visit the newest commits first, so the merge does too, and its result is reversed into chronological order
+    private static final Comparator<Change> NEWEST_FIRST = Comparator.comparing((Change change) -> change.getTime().orElse(Instant.EPOCH)).reversed();
+    private static final int BUFFER_SIZE = 256;
+
+    private final String version;
+    private final String previousVersion;
+    private final List<Component> components = new ArrayList<>();
+    private String versionTagPrefix = "v";
+
+    /**
+     * Instantiates a new instance of {@link ChangeSetAggregator}.
+     *
+     * @param version the version of the aggregated release
+     * @param previousVersion the version of the previous aggregated release
+     */
+    public ChangeSetAggregator(String version, String previousVersion)
+    {
+        this.version = requireNonNull(version);
+        this.previousVersion = requireNonNull(previousVersion);
+    }
+
+    /**
+     * Adds a component to collect changes from. The names of the components must be unique.
+     *
+     * @param component the component
+     * @return the aggregator itself, used for chaining
+     */
+    public ChangeSetAggregator component(Component component)
+    {
+        requireNonNull(component);
+        if (components.stream().anyMatch(existing -> existing.getName().equals(component.getName())))
+        {
+            throw new IllegalArgumentException("Component '" + component.getName() + "' is already added");
+        }
+        components.add(component);
+        return this;
+    }
+
+    /**
+     * Sets the prefix of version tags, both of the components and of the aggregated release. The default prefix is {@code v}.
+     *
+     * @param prefix the prefix
+     * @return the aggregator itself, used for chaining
+     */
+    public ChangeSetAggregator versionTagPrefix(String prefix)
+    {
+        this.versionTagPrefix = requireNonNull(prefix);
+        return this;
+    }
+
+    /**
+     * Collects the changes of all components.
+     *
+     * @return an unmodifiable list with a single change set, whose changes are in chronological order
+     */
+    public List<ChangeSet> collect() throws Exception
+    {
+        List<Change> changes = new ArrayList<>();
+        // Every walk must run at the same time, since the merge needs the next change of each of them
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, components.size()));
+        try
+        {
+            List<ComponentWalk> walks = new ArrayList<>();
+            for (Component component : components)
+            {
+                ComponentWalk walk = new ComponentWalk(component);
+                executor.execute(walk);
+                walks.add(walk);
+            }
+            // Changes at the same time are taken from the later component first, so that they end up after the earlier one once reversed
+            Collections.reverse(walks);
+            new MergingIterator<>(walks, NEWEST_FIRST).forEachRemaining(changes::add);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+
+        Collections.reverse(changes);
+        ChangeSet changeSet = new ChangeSet(version, versionTagPrefix + version, versionTagPrefix + previousVersion, TimeUtils.now(), changes);
+        return unmodifiableList(singletonList(changeSet));
+    }
+
+    /**
+     * Walks the changes of a component on a thread of its own, and hands them to the merge through a bounded buffer.
+     */
+    private class ComponentWalk implements Runnable, Iterator<Change>
+    {
+        private final Object end = new Object();
+        private final BlockingQueue<Object> buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+        private final Component component;
+        private Object next;
+
+        ComponentWalk(Component component)
+        {
+            this.component = component;
+        }
+
+        @Override
+        public void run()
+        {
+            Object last = null;
+            try (ChangeSetCollector collector = new ChangeSetCollector(component.getDirectory()))
+            {
+                collector.versionTagPrefix(versionTagPrefix);
+                component.getUntilTag().ifPresent(collector::untilTag);
+
+                Iterator<Change> changes = collector.changes();
+                while (changes.hasNext())
+                {
+                    buffer.put(changes.next().withComponent(component.getName()));
+                }
+                last = end;
+            }
+            catch (InterruptedException e)
+            {
+                // The merge has stopped, so nothing waits for the rest of the changes
+                Thread.currentThread().interrupt();
+            }
+            catch (Exception e)
+            {
+                last = new RuntimeException("Could not collect changes of component '" + component.getName() + "'", e);
+            }
+            finally
+            {
+                // The merge waits until each walk has ended, even if it failed unexpectedly
+                put(last != null
+                    ? last
+                    : new IllegalStateException("Could not collect changes of component '" + component.getName() + "'"));
+            }
+        }
+
+        private void put(Object value)
+        {
+            try
+            {
+                buffer.put(value);
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public boolean hasNext()
+        {
+            if (next == null)
+            {
+                try
+                {
+                    next = buffer.take();
+                }
+                catch (InterruptedException e)
+                {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while merging the changes of component '" + component.getName() + "'", e);
+                }
+            }
+            if (next instanceof RuntimeException)
+            {
+                throw (RuntimeException) next;
+            }
+            return next != end;
+        }
+
+        @Override
+        public Change next()
+        {
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            Change change = (Change) next;
+            next = null;
+            return change;
+        }
+    }
+}
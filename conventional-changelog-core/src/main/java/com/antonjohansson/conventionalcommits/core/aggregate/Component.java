@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.aggregate;
+
+import static java.util.Objects.requireNonNull;
+import static org.apache.commons.lang3.builder.ToStringBuilder.reflectionToString;
+import static org.apache.commons.lang3.builder.ToStringStyle.SHORT_PREFIX_STYLE;
+
+import java.io.File;
+import java.util.Optional;
+
+/**
+ * Defines a repository that takes part in an aggregated changelog.
+ */
+public final class Component
+{
+    private final String name;
+    private final File directory;
+    private String untilTag;
+
+    /**
+     * Instantiates a new instance of {@link Component}.
+     *
+     * @param name the name of the component, which is shown next to each of its commits
+     * @param directory the directory of the repository
+     */
+    public Component(String name, File directory)
+    {
+        this.name = requireNonNull(name);
+        this.directory = requireNonNull(directory);
+    }
+
+    /**
+     * Sets the tag to collect changes since. By default, the changes since the latest version tag of the repository are collected.
+     *
+     * @param untilTag the name of the tag, without the {@code refs/tags/} prefix
+     * @return the component itself, used for chaining
+     */
+    public Component untilTag(String untilTag)
+    {
+        this.untilTag = requireNonNull(untilTag);
+        return this;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    public Optional<String> getUntilTag()
+    {
+        return Optional.ofNullable(untilTag);
+    }
+
+    @Override
+    public String toString()
+    {
+        return reflectionToString(this, SHORT_PREFIX_STYLE);
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.aggregate;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Merges sorted iterators into one sorted iterator. The merge itself only holds the next element of each source, so its own memory is
+ * bounded by the number of sources rather than by the number of elements. Elements that compare as equal are taken from the earlier source
+ * first.
+ * <p>
+ * Each source must be sorted by the comparator. The result is not sorted otherwise, and this is not checked.
+ * </p>
+ *
+ * @param <T> the type of the elements
+ */
+class MergingIterator<T> implements Iterator<T>
+{
+    private final PriorityQueue<Head<T>> frontier;
+
+    /**
+     * Instantiates a new instance of {@link MergingIterator}.
+     *
+     * @param sources the sources, each sorted by the given comparator
+     * @param comparator the comparator that the sources are sorted by
+     */
+    MergingIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> comparator)
+    {
+        requireNonNull(comparator);
+        Comparator<Head<T>> byValue = (a, b) -> comparator.compare(a.value, b.value);
+        this.frontier = new PriorityQueue<>(Math.max(1, sources.size()), byValue.thenComparingInt(head -> head.source));
+        for (int source = 0; source < sources.size(); source++)
+        {
+            advance(new Head<>(sources.get(source), source));
+        }
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+        return !frontier.isEmpty();
+    }
+
+    @Override
+    public T next()
+    {
+        Head<T> head = frontier.poll();
+        if (head == null)
+        {
+            throw new NoSuchElementException();
+        }
+        T value = head.value;
+        advance(head);
+        return value;
+    }
+
+    private void advance(Head<T> head)
+    {
+        if (head.iterator.hasNext())
+        {
+            head.value = head.iterator.next();
+            frontier.add(head);
+        }
+    }
+
+    /**
+     * Defines the next element of a source.
+     */
+    private static class Head<T>
+    {
+        final Iterator<? extends T> iterator;
+        final int source;
+        T value;
+
+        Head(Iterator<? extends T> iterator, int source)
+        {
+            this.iterator = iterator;
+            this.source = source;
+        }
+    }
+}
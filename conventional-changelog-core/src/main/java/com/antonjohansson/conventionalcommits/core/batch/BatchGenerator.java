@@ -0,0 +1,395 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.batch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Objects.requireNonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.lib.RepositoryCache.FileKey;
+import org.eclipse.jgit.util.FS;
+
+import com.antonjohansson.conventionalcommits.core.batch.BatchResult.Status;
+import com.antonjohansson.conventionalcommits.core.git.ChangeSetCollector;
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.utils.CancellationToken;
+import com.antonjohansson.conventionalcommits.core.writer.ChangeLogWriter;
+
+/**
+ * Generates changelogs for many repositories in a single JVM.
+ * <p>
+ * Repositories are processed on a bounded pool of workers, which share the compiled templates and the JIT-compiled code. Each repository has
+ * its own timeout, which starts when a worker picks it up. A repository that fails or times out does not affect the others.
+ * </p>
+ * <p>
+ * Changelogs are named after their repositories, without any {@code .git} suffix. A repository whose changelog would overwrite the one of an
+ * earlier repository, such as {@code foo.git} after {@code foo}, fails.
+ * </p>
+ */
+public class BatchGenerator
+{
+    private final List<File> repositories;
+    private final File outputDirectory;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Duration timeout = Duration.ofMinutes(5);
+    private int numberOfVersions = 1;
+    private String versionTagPrefix = "v";
+    private String nextVersion;
+    private File templateDirectory;
+
+    /**
+     * Instantiates a new instance of {@link BatchGenerator}.
+     *
+     * @param repositories the repositories, either working directories or bare repositories
+     * @param outputDirectory the directory to write changelogs to, named after each repository
+     */
+    public BatchGenerator(List<File> repositories, File outputDirectory)
+    {
+        this.repositories = new ArrayList<>(requireNonNull(repositories));
+        this.outputDirectory = requireNonNull(outputDirectory);
+    }
+
+    /**
+     * Finds the repositories directly below a directory, such as a directory of bare mirrors. Hidden directories are skipped.
+     *
+     * @param root the directory to search
+     * @return the repositories, sorted by name
+     */
+    public static List<File> findRepositories(File root)
+    {
+        File[] children = root.listFiles(file -> file.isDirectory() && !file.isHidden());
+        if (children == null)
+        {
+            return Collections.emptyList();
+        }
+
+        List<File> repositories = new ArrayList<>();
+        for (File child : children)
+        {
+            if (FileKey.isGitRepository(child, FS.DETECTED) || FileKey.isGitRepository(new File(child, ".git"), FS.DETECTED))
+            {
+                repositories.add(child);
+            }
+        }
+        Collections.sort(repositories);
+        return repositories;
+    }
+
+    /**
+     * Sets the number of repositories to process at the same time. Defaults to the number of processors.
+     *
+     * @param threads the number of workers
+     * @return the generator itself, used for chaining
+     */
+    public BatchGenerator threads(int threads)
+    {
+        if (threads < 1)
+        {
+            throw new IllegalArgumentException("The number of threads must be at least 1");
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Sets the maximum time to spend on a single repository. Defaults to five minutes.
+     *
+     * @param timeout the timeout
+     * @return the generator itself, used for chaining
+     */
+    public BatchGenerator timeout(Duration timeout)
+    {
+        this.timeout = requireNonNull(timeout);
+        return this;
+    }
+
+    /**
+     * Sets the number of versions to collect for each repository. A value of {@code 0} collects all versions. Defaults to {@code 1}.
+     *
+     * @param numberOfVersions the number of versions
+     * @return the generator itself, used for chaining
+     */
+    public BatchGenerator numberOfVersions(int numberOfVersions)
+    {
+        this.numberOfVersions = numberOfVersions;
+        return this;
+    }
+
+    /**
+     * Sets the prefix of version tags. The default prefix is {@code v}.
+     *
+     * @param versionTagPrefix the prefix
+     * @return the generator itself, used for chaining
+     */
+    public BatchGenerator versionTagPrefix(String versionTagPrefix)
+    {
+        this.versionTagPrefix = requireNonNull(versionTagPrefix);
+        return this;
+    }
+
+    /**
+     * Sets the version currently being worked on, for all repositories. If not specified, it is read from the POM of each repository, which
+     * bare repositories do not have.
+     *
+     * @param nextVersion the next version
+     * @return the generator itself, used for chaining
+     */
+    public BatchGenerator nextVersion(String nextVersion)
+    {
+        this.nextVersion = requireNonNull(nextVersion);
+        return this;
+    }
+
+    /**
+     * Sets the directory to load templates from. The templates are compiled once and shared by all repositories.
+     *
+     * @param templateDirectory the template directory
+     * @return the generator itself, used for chaining
+     */
+    public BatchGenerator templateDirectory(File templateDirectory)
+    {
+        this.templateDirectory = requireNonNull(templateDirectory);
+        return this;
+    }
+
+    /**
+     * Generates the changelogs.
+     *
+     * @return the result of each repository, in the order the repositories were given
+     */
+    public List<BatchResult> run() throws IOException, InterruptedException
+    {
+        Files.createDirectories(outputDirectory.toPath());
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, repositories.size())));
+        ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "batch-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try
+        {
+            List<Future<BatchResult>> futures = new ArrayList<>();
+            Map<String, File> owners = new HashMap<>();
+            for (File repository : repositories)
+            {
+                File outputFile = new File(outputDirectory, getOutputName(repository));
+                // Compared without case, since names that only differ in case are the same file on some file systems
+                File owner = owners.putIfAbsent(outputFile.getName().toLowerCase(Locale.ROOT), repository);
+                if (owner != null)
+                {
+                    Exception error = new IllegalStateException("The changelog of " + owner + " is already written to " + outputFile.getName());
+                    futures.add(CompletableFuture.completedFuture(result(repository, Status.FAILED, System.nanoTime(), 0, error)));
+                    continue;
+                }
+                futures.add(executor.submit(() -> generate(repository, outputFile, watchdog)));
+            }
+
+            List<BatchResult> results = new ArrayList<>();
+            for (Future<BatchResult> future : futures)
+            {
+                try
+                {
+                    results.add(future.get());
+                }
+                catch (ExecutionException e)
+                {
+                    // generate() reports its own failures, so this is unexpected
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return results;
+        }
+        finally
+        {
+            executor.shutdownNow();
+            watchdog.shutdownNow();
+        }
+    }
+
+    private BatchResult generate(File repository, File outputFile, ScheduledExecutorService watchdog)
+    {
+        long start = System.nanoTime();
+        CancellationToken cancellationToken = new CancellationToken();
+        Deadline deadline = new Deadline(cancellationToken, Thread.currentThread());
+        ScheduledFuture<?> timer = watchdog.schedule(deadline::expire, timeout.toNanos(), TimeUnit.NANOSECONDS);
+
+        try
+        {
+            List<ChangeSet> changeSets = collect(repository, cancellationToken);
+            write(repository, outputFile, changeSets, cancellationToken);
+            return result(repository, deadline.finish() ? Status.SUCCEEDED : Status.TIMED_OUT, start, changeSets.size(), null);
+        }
+        catch (Exception e)
+        {
+            return result(repository, deadline.finish() ? Status.FAILED : Status.TIMED_OUT, start, 0, e);
+        }
+        finally
+        {
+            timer.cancel(false);
+        }
+    }
+
+    private BatchResult result(File repository, Status status, long start, int numberOfChangeSets, Exception error)
+    {
+        return new BatchResult(repository, status, System.nanoTime() - start, numberOfChangeSets, error);
+    }
+
+    private List<ChangeSet> collect(File repository, CancellationToken cancellationToken) throws Exception
+    {
+        try (ChangeSetCollector collector = new ChangeSetCollector(repository))
+        {
+            collector
+                    .numberOfVersions(numberOfVersions)
+                    .versionTagPrefix(versionTagPrefix)
+                    .cancellationToken(cancellationToken);
+            if (nextVersion != null)
+            {
+                collector.nextVersion(nextVersion);
+            }
+            return collector.collect();
+        }
+    }
+
+    private static String getOutputName(File repository)
+    {
+        String name = repository.getName().endsWith(".git")
+            ? repository.getName().substring(0, repository.getName().length() - ".git".length())
+            : repository.getName();
+        return name + ".md";
+    }
+
+    private void write(File repository, File outputFile, List<ChangeSet> changeSets, CancellationToken cancellationToken) throws Exception
+    {
+        // The changelog is rendered to a temporary file first, so that a failed or cancelled repository keeps its last complete changelog
+        Path target = outputFile.toPath().toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        try
+        {
+            try (Writer output = Files.newBufferedWriter(temporary, UTF_8);
+                    ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+            {
+                writer
+                        .projectDirectory(repository)
+                        .writer(output)
+                        .cancellationToken(cancellationToken);
+                if (templateDirectory != null)
+                {
+                    writer.templateDirectory(templateDirectory);
+                }
+                writer.write();
+            }
+            Files.move(temporary, target, ATOMIC_MOVE, REPLACE_EXISTING);
+        }
+        finally
+        {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Formats the results as a table, with one line per repository and a summary.
+     *
+     * @param results the results to format
+     * @return the formatted results
+     */
+    public static String format(List<BatchResult> results)
+    {
+        StringBuilder builder = new StringBuilder();
+        long total = 0;
+        int failed = 0;
+        for (BatchResult result : results)
+        {
+            total += result.getNanos();
+            if (result.getStatus() != Status.SUCCEEDED)
+            {
+                failed++;
+            }
+            builder.append(String.format("%-10s %8d ms  %s", result.getStatus(), TimeUnit.NANOSECONDS.toMillis(result.getNanos()), result.getRepository()));
+            result.getError().ifPresent(error -> builder.append(" (").append(error.getMessage()).append(')'));
+            builder.append('\n');
+        }
+        builder.append(String.format("%d repositories, %d failed, %d ms in total\n", results.size(), failed, TimeUnit.NANOSECONDS.toMillis(total)));
+        return builder.toString();
+    }
+
+    /**
+     * Decides whether the work on a repository finished or timed out, whichever happened first.
+     */
+    static class Deadline
+    {
+        private final CancellationToken cancellationToken;
+        private final Thread worker;
+        private boolean finished;
+        private boolean expired;
+
+        Deadline(CancellationToken cancellationToken, Thread worker)
+        {
+            this.cancellationToken = cancellationToken;
+            this.worker = worker;
+        }
+
+        /**
+         * Stops the work, unless it has already finished. The token stops the work between commits and versions, and the interrupt stops
+         * work that blocks.
+         */
+        synchronized void expire()
+        {
+            if (!finished)
+            {
+                expired = true;
+                cancellationToken.cancel();
+                worker.interrupt();
+            }
+        }
+
+        /**
+         * Marks the work as finished. Must be called by the worker.
+         *
+         * @return {@code true} if the work finished before the deadline expired
+         */
+        synchronized boolean finish()
+        {
+            finished = true;
+            // Clears the interrupt of an expired deadline, so that it does not leak into the next repository
+            Thread.interrupted();
+            return !expired;
+        }
+    }
+}
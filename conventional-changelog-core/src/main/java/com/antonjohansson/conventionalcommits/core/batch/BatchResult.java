@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.batch;
+
+import static org.apache.commons.lang3.builder.ToStringBuilder.reflectionToString;
+import static org.apache.commons.lang3.builder.ToStringStyle.SHORT_PREFIX_STYLE;
+
+import java.io.File;
+import java.util.Optional;
+
+/**
+ * Defines the outcome of generating the changelog of a single repository in a batch.
+ */
+public class BatchResult
+{
+    private final File repository;
+    private final Status status;
+    private final long nanos;
+    private final int numberOfChangeSets;
+    private final Exception error;
+
+    BatchResult(File repository, Status status, long nanos, int numberOfChangeSets, Exception error)
+    {
+        this.repository = repository;
+        this.status = status;
+        this.nanos = nanos;
+        this.numberOfChangeSets = numberOfChangeSets;
+        this.error = error;
+    }
+
+    public File getRepository()
+    {
+        return repository;
+    }
+
+    public Status getStatus()
+    {
+        return status;
+    }
+
+    /**
+     * Gets the time it took to generate the changelog, excluding the time spent waiting for a worker.
+     *
+     * @return the time, in nanoseconds
+     */
+    public long getNanos()
+    {
+        return nanos;
+    }
+
+    public int getNumberOfChangeSets()
+    {
+        return numberOfChangeSets;
+    }
+
+    public Optional<Exception> getError()
+    {
+        return Optional.ofNullable(error);
+    }
+
+    @Override
+    public String toString()
+    {
+        return reflectionToString(this, SHORT_PREFIX_STYLE);
+    }
+
+    /**
+     * Defines the status of a repository in a batch.
+     */
+    public enum Status
+    {
+        SUCCEEDED,
+        FAILED,
+        TIMED_OUT;
+    }
+}
@@ -18,43 +18,88 @@ package com.antonjohansson.conventionalcommits.core.git;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.requireNonNull;
 import static org.apache.commons.lang3.StringUtils.isBlank;
-import static org.eclipse.jgit.lib.Constants.R_TAGS;
+import static org.apache.commons.lang3.StringUtils.substringAfter;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
-import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.apache.maven.model.Model;
+import org.apache.commons.io.FileUtils;
 import org.eclipse.jgit.api.Git;
-import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.api.errors.NoHeadException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.EmptyTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
 
 import com.antonjohansson.conventionalcommits.core.git.model.Change;
 import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.git.model.CompactChangeList;
 import com.antonjohansson.conventionalcommits.core.git.parser.CommitParser;
-import com.antonjohansson.conventionalcommits.core.utils.PomUtils;
+import com.antonjohansson.conventionalcommits.core.metrics.FlightRecorderEvents;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener.Counter;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener.Phase;
+import com.antonjohansson.conventionalcommits.core.metrics.OutlierReport;
+import com.antonjohansson.conventionalcommits.core.metrics.ProgressListener;
+import com.antonjohansson.conventionalcommits.core.metrics.ProgressTracker;
+import com.antonjohansson.conventionalcommits.core.utils.CancellationToken;
+import com.antonjohansson.conventionalcommits.core.utils.PomMetadata;
 import com.antonjohansson.conventionalcommits.core.utils.TimeUtils;
+import com.antonjohansson.conventionalcommits.core.utils.VersionComparator;
 
 /**
  * Collects {@link ChangeSet change sets} from a Git repository by parsing conventional commits.
  */
-public class ChangeSetCollector
+public class ChangeSetCollector implements AutoCloseable
 {
     private final Git git;
+    private final boolean ownsGit;
+    private final RepositoryHandle handle;
     private final File projectDirectory;
+    private final List<File> spilledDirectories = new ArrayList<>();
     private int numberOfVersions;
     private String nextVersion;
     private String versionTagPrefix = "v";
+    private String untilTag;
+    private String fromVersion;
+    private String toVersion;
     private Pattern versionTagPattern;
+    private boolean collectPaths;
+    private boolean compact;
+    private File historyIndexFile;
+    private long memoryBudget;
+    private File spillDirectory;
+    private WindowCacheSettings windowCacheSettings = new WindowCacheSettings();
+    private MetricsListener metrics = new MetricsListener()
+    {
+    };
+    private long openNanos;
+    private OutlierReport outliers;
+    private ProgressListener progress;
+    private CancellationToken cancellationToken;
+    private boolean partialResults;
+    private WalkMode walkMode = WalkMode.ALL;
 
     /**
      * Instantiates a new instance of {@link ChangeSetCollector}.
@@ -63,16 +108,37 @@ public class ChangeSetCollector
      */
     public ChangeSetCollector(File projectDirectory) throws IOException
     {
+        long start = System.nanoTime();
         this.git = Git.open(requireNonNull(projectDirectory));
+        this.openNanos = System.nanoTime() - start;
+        this.ownsGit = true;
+        this.handle = null;
         this.projectDirectory = projectDirectory;
     }
 
     public ChangeSetCollector(Git git)
     {
         this.git = requireNonNull(git);
+        this.ownsGit = false;
+        this.handle = null;
         this.projectDirectory = git.getRepository().getDirectory();
     }
 
+    /**
+     * Instantiates a new instance of {@link ChangeSetCollector} that collects from a repository shared through a {@link RepositoryRegistry}.
+     * The tag index and the parsed commits of the repository are reused between collectors.
+     *
+     * @param handle the handle of the shared repository
+     * @param projectDirectory the project directory, used to extract the next version from the POM
+     */
+    public ChangeSetCollector(RepositoryHandle handle, File projectDirectory)
+    {
+        this.git = Git.wrap(handle.getRepository());
+        this.ownsGit = false;
+        this.handle = handle;
+        this.projectDirectory = requireNonNull(projectDirectory);
+    }
+
     /**
      * <p>
      * Sets the version number currently being worked on. This is useful if you are generating change logs for a next version and the tag isn't
@@ -114,6 +180,212 @@ public class ChangeSetCollector
         return this;
     }
 
+    /**
+     * Sets a tag to stop collecting at. Only changes after the tagged commit are collected, regardless of the number of versions. The tag does
+     * not have to be a version tag. By default, collecting stops after the set number of versions.
+     *
+     * @param untilTag the name of the tag, without the {@code refs/tags/} prefix
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector untilTag(String untilTag)
+    {
+        this.untilTag = requireNonNull(untilTag);
+        return this;
+    }
+
+    /**
+     * Sets the version to collect changes after. Only the commits that are reachable from the end of the range, but not from the tag of this
+     * version, are walked, like {@code git log v1.0.0..v1.2.0}, regardless of the number of versions. By default, collecting stops after the
+     * set number of versions.
+     *
+     * @param fromVersion the version, without the tag prefix, such as {@code 1.0.0}
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector fromVersion(String fromVersion)
+    {
+        this.fromVersion = requireNonNull(fromVersion);
+        return this;
+    }
+
+    /**
+     * Sets the last version to collect changes for. Collecting starts at the tag of this version instead of at {@code HEAD}, so the next
+     * version is neither needed nor read from the POM. By default, collecting starts at {@code HEAD}.
+     *
+     * @param toVersion the version, without the tag prefix, such as {@code 1.2.0}
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector toVersion(String toVersion)
+    {
+        this.toVersion = requireNonNull(toVersion);
+        return this;
+    }
+
+    /**
+     * Sets whether or not to collect the paths that each commit changes. This makes it possible to filter the collected change sets by module
+     * afterwards, using {@link ChangeSetFilter}, instead of walking the history once per module. Defaults to {@code false}.
+     *
+     * @param collectPaths whether or not to collect changed paths
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector collectPaths(boolean collectPaths)
+    {
+        this.collectPaths = collectPaths;
+        return this;
+    }
+
+    /**
+     * Sets whether or not to store the collected changes in a {@link CompactChangeList}. This reduces the memory used by large histories
+     * considerably, at the cost of creating each {@link Change} when it is read. Defaults to {@code false}.
+     *
+     * @param compact whether or not to store changes compactly
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector compact(boolean compact)
+    {
+        this.compact = compact;
+        return this;
+    }
+
+    /**
+     * Sets a {@link HistoryIndex} file to collect from. The index is created or brought up to date first, which only reads the commits that
+     * were added since the previous collection, and the changes are then read from the index instead of from Git. Paths cannot be collected
+     * from the index. By default, changes are read from Git.
+     *
+     * @param historyIndexFile the index file
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector historyIndex(File historyIndexFile)
+    {
+        this.historyIndexFile = requireNonNull(historyIndexFile);
+        return this;
+    }
+
+    /**
+     * Sets the number of bytes that collected changes may use on the heap. When the estimated size of the collected changes exceeds the
+     * budget, the versions that are complete are written to temporary files, and are read back one at a time when they are used, for example
+     * by {@code ChangeLogWriter}. The version being collected is always kept on the heap. Parsed commits are not shared with other collectors
+     * of a shared repository when a budget is set. The temporary files are deleted when the collector is {@link #close() closed}, so the
+     * collected change sets must be used before that. A value of {@code 0} indicates that there is no budget, which is the default.
+     *
+     * @param memoryBudget the budget, in bytes
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector memoryBudget(long memoryBudget)
+    {
+        if (memoryBudget < 0)
+        {
+            throw new IllegalArgumentException("Memory budget cannot be negative");
+        }
+        this.memoryBudget = memoryBudget;
+        return this;
+    }
+
+    /**
+     * Sets the directory to write temporary files to when the {@link #memoryBudget(long) memory budget} is exceeded. The files are deleted
+     * when the collector is closed, or when the JVM exits if it never is. Defaults to the temporary directory of the system.
+     *
+     * @param spillDirectory the directory
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector spillDirectory(File spillDirectory)
+    {
+        this.spillDirectory = requireNonNull(spillDirectory);
+        return this;
+    }
+
+    /**
+     * Sets how JGit reads pack files. The settings are installed when collecting, and apply to the entire JVM. By default, the JGit defaults
+     * are kept.
+     *
+     * @param windowCacheSettings the settings
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector windowCacheSettings(WindowCacheSettings windowCacheSettings)
+    {
+        this.windowCacheSettings = requireNonNull(windowCacheSettings);
+        return this;
+    }
+
+    /**
+     * Sets the listener to report measurements to. Opening the repository is only reported when the collector opened it itself. By default,
+     * nothing is measured.
+     *
+     * @param metrics the listener
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector metrics(MetricsListener metrics)
+    {
+        this.metrics = requireNonNull(metrics);
+        return this;
+    }
+
+    /**
+     * Sets a report to record the slowest and largest commit messages in, in addition to the {@link #metrics(MetricsListener) metrics
+     * listener}. Only commits that are parsed are recorded, so commits that are read from a history index or that were already parsed by
+     * another collector of a shared repository are left out. By default, no outliers are recorded.
+     *
+     * @param outliers the report
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector outliers(OutlierReport outliers)
+    {
+        this.outliers = requireNonNull(outliers);
+        return this;
+    }
+
+    /**
+     * Sets the listener to report progress to. Before collecting, the commits and versions to collect are counted by walking the same range
+     * without reading the commit messages, so that the progress can include an estimated time left. By default, no progress is reported.
+     *
+     * @param progress the listener
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector progress(ProgressListener progress)
+    {
+        this.progress = requireNonNull(progress);
+        return this;
+    }
+
+    /**
+     * Sets a token to stop collecting with. The token is checked between commits. By default, collecting can only be stopped by interrupting
+     * the thread.
+     *
+     * @param cancellationToken the token
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector cancellationToken(CancellationToken cancellationToken)
+    {
+        this.cancellationToken = requireNonNull(cancellationToken);
+        return this;
+    }
+
+    /**
+     * Sets whether or not to return the versions that are complete when the {@link #cancellationToken(CancellationToken) cancellation token}
+     * stops the collection. The version that is being collected is discarded. Defaults to {@code false}, which throws a
+     * {@link java.util.concurrent.CancellationException CancellationException} instead.
+     *
+     * @param partialResults whether or not to return complete versions when cancelled
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector partialResults(boolean partialResults)
+    {
+        this.partialResults = partialResults;
+        return this;
+    }
+
+    /**
+     * Sets which commits of the history to visit. Only {@link WalkMode#ALL} can be used together with a {@link #historyIndex(File) history
+     * index}. Defaults to {@link WalkMode#ALL}.
+     *
+     * @param walkMode the mode
+     * @return the collector itself, used for chaining
+     */
+    public ChangeSetCollector walkMode(WalkMode walkMode)
+    {
+        this.walkMode = requireNonNull(walkMode);
+        return this;
+    }
+
     /**
      * Collects the set of changes based on the set configuration.
      *
@@ -121,32 +393,219 @@ public class ChangeSetCollector
      */
     public List<ChangeSet> collect() throws Exception
     {
-        Iterator<RevCommit> iterator = git.log().call().iterator();
+        Object event = FlightRecorderEvents.beginCollect();
+        List<ChangeSet> changeSets = null;
+        try
+        {
+            changeSets = collectChangeSets();
+            return changeSets;
+        }
+        finally
+        {
+            FlightRecorderEvents.endCollect(event, projectDirectory, changeSets);
+        }
+    }
+
+    /**
+     * Walks the changes since the until tag, or without one, since the latest version tag, newest first. Unlike {@link #collect()}, the
+     * changes are parsed as they are iterated rather than collected into change sets, so only the frontier of the walk is held in memory.
+     * Commits are visited in the order of {@code git log}, which follows commit time except where clocks were skewed.
+     * <p>
+     * The returned changes can only be iterated while this collector is open.
+     * </p>
+     *
+     * @return the changes, newest first
+     */
+    public Iterator<Change> changes() throws Exception
+    {
+        windowCacheSettings.install();
+        if (historyIndexFile != null)
+        {
+            throw new IllegalStateException("Changes cannot be walked from a history index");
+        }
         versionTagPattern = Pattern.compile("^" + versionTagPrefix + "(\\d.*)$");
 
-        String nextVersion = this.nextVersion;
-        if (isBlank(nextVersion))
+        TagIndex tagIndex = handle != null
+            ? handle.getTagIndex()
+            : TagIndex.build(git.getRepository());
+        String untilCommit = null;
+        if (untilTag != null)
         {
-            nextVersion = PomUtils.getPOM(projectDirectory)
-                    .map(Model::getVersion)
-                    .orElse("");
+            ObjectId untilId = tagIndex.getTags().get(untilTag);
+            if (untilId == null)
+            {
+                throw new IllegalArgumentException("Tag '" + untilTag + "' does not exist");
+            }
+            untilCommit = untilId.getName();
         }
 
-        if (isBlank(nextVersion))
+        String end = untilCommit;
+        Iterator<Entry> entries = entries(walk(null, null), tagIndex);
+        return new Iterator<Change>()
         {
-            throw new RuntimeException("Next version is not set and it could not be determined from the POM");
+            private Change next;
+            private boolean done;
+
+            @Override
+            public boolean hasNext()
+            {
+                while (next == null && !done && entries.hasNext())
+                {
+                    Entry entry = entries.next();
+                    metrics.count(Counter.COMMITS_VISITED, 1);
+                    if (isEnd(entry, end))
+                    {
+                        done = true;
+                    }
+                    else if (walkMode != WalkMode.MERGES_ONLY || entry.isMerge())
+                    {
+                        next = getChange(entry);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Change next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                Change change = next;
+                next = null;
+                return change;
+            }
+        };
+    }
+
+    private boolean isEnd(Entry entry, String untilCommit)
+    {
+        return untilCommit != null
+            ? entry.getHash().equals(untilCommit)
+            : entry.getTagNames().stream().map(this::getVersionTag).anyMatch(Optional::isPresent);
+    }
+
+    private static Change getChange(Entry entry)
+    {
+        try
+        {
+            return entry.getChange();
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<ChangeSet> collectChangeSets() throws Exception
+    {
+        windowCacheSettings.install();
+        if (historyIndexFile != null && collectPaths)
+        {
+            throw new IllegalStateException("Paths cannot be collected from a history index");
+        }
+        if (historyIndexFile != null && walkMode != WalkMode.ALL)
+        {
+            throw new IllegalStateException("Only walk mode " + WalkMode.ALL + " can be used with a history index");
+        }
+        versionTagPattern = Pattern.compile("^" + versionTagPrefix + "(\\d.*)$");
+        if (openNanos > 0)
+        {
+            metrics.phase(Phase.OPEN_REPOSITORY, openNanos);
+            openNanos = 0;
+        }
+
+        long start = System.nanoTime();
+        HistoryIndex historyIndex = historyIndexFile != null
+            ? HistoryIndex.update(historyIndexFile, git.getRepository())
+            : null;
+        TagIndex tagIndex = null;
+        SortedMap<String, ObjectId> tags;
+        if (historyIndex != null)
+        {
+            tags = historyIndex.getTags();
+        }
+        else
+        {
+            tagIndex = handle != null
+                ? handle.getTagIndex()
+                : TagIndex.build(git.getRepository());
+            tags = tagIndex.getTags();
+        }
+        SortedMap<String, String> versionTags = fromVersion != null || toVersion != null
+            ? indexVersionTags(tags)
+            : null;
+        metrics.phase(Phase.INDEX_TAGS, System.nanoTime() - start);
+
+        String fromTag = null;
+        ObjectId fromId = null;
+        if (fromVersion != null)
+        {
+            fromTag = getVersionTagName(versionTags, fromVersion);
+            fromId = tags.get(fromTag);
+        }
+        if (fromVersion != null && toVersion != null && VersionComparator.get().compare(fromVersion, toVersion) >= 0)
+        {
+            throw new IllegalArgumentException("Version '" + fromVersion + "' is not lower than version '" + toVersion + "'");
         }
 
         VersionTag versionTag = new VersionTag();
-        versionTag.version = nextVersion;
-        versionTag.tagName = versionTagPrefix + versionTag.version;
-        LocalDate createdAt = TimeUtils.now();
+        LocalDate createdAt = null;
+        String toTag = null;
+        ObjectId toId = null;
+        if (toVersion != null)
+        {
+            // The date of the version is the date of its tagged commit, which is the first commit of the walk
+            toTag = getVersionTagName(versionTags, toVersion);
+            toId = tags.get(toTag);
+            versionTag.version = toVersion;
+            versionTag.tagName = toTag;
+            versionTag.commitId = toId.getName();
+        }
+        else
+        {
+            versionTag.version = getNextVersion();
+            versionTag.tagName = versionTagPrefix + versionTag.version;
+            createdAt = TimeUtils.now();
+        }
+
+        Iterator<Entry> iterator = historyIndex != null
+            ? entries(historyIndex, toTag, fromTag)
+            : entries(walk(toId, fromId), tagIndex);
+
+        String untilCommit = null;
+        if (untilTag != null)
+        {
+            ObjectId untilId = tags.get(untilTag);
+            if (untilId == null)
+            {
+                throw new IllegalArgumentException("Tag '" + untilTag + "' does not exist");
+            }
+            untilCommit = untilId.getName();
+        }
+
+        ProgressTracker tracker = null;
+        if (progress != null)
+        {
+            Estimate estimate = historyIndex != null
+                ? estimate(entries(historyIndex, toTag, fromTag), versionTag.commitId, untilCommit, fromId != null)
+                : estimate(tagIndex, toId, fromId, untilCommit);
+            tracker = new ProgressTracker(progress, "Collecting", estimate.commits, estimate.versions);
+        }
 
         List<ChangeSet> changeSets = new ArrayList<>();
-        List<Change> changes = new ArrayList<>();
+        List<Change> changes = newChanges();
+        File spillTo = null;
+        int spilled = 0;
+        long completeSize = 0;
+        long pendingSize = 0;
 
         int index = 0;
-        while (index++ < numberOfVersions || numberOfVersions == 0)
+        String startCommit = versionTag.commitId;
+        // Caches of rendered versions must tell apart versions whose commits were chosen differently
+        String collectionOptions = "walkMode=" + walkMode;
+        while (index++ < numberOfVersions || numberOfVersions == 0 || untilCommit != null || fromId != null)
         {
             if (!iterator.hasNext())
             {
@@ -155,13 +614,45 @@ public class ChangeSetCollector
 
             while (iterator.hasNext())
             {
-                RevCommit commit = iterator.next();
-                String hash = commit.getName();
-                String message = commit.getFullMessage();
-                LocalDate commitCreatedAt = commit.getAuthorIdent().getWhen().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+                if (Thread.currentThread().isInterrupted())
+                {
+                    throw new InterruptedException("Interrupted while collecting change sets");
+                }
+                if (cancellationToken != null && cancellationToken.isCancelled())
+                {
+                    if (partialResults)
+                    {
+                        return finish(changeSets, tracker);
+                    }
+                    cancellationToken.throwIfCancelled();
+                }
 
-                Set<Ref> refs = git.getRepository().getRefDatabase().getTipsWithSha1(commit);
-                Optional<VersionTag> previousVersionTagMaybe = refs.stream()
+                Entry entry = iterator.next();
+                metrics.count(Counter.COMMITS_VISITED, 1);
+                String hash = entry.getHash();
+                LocalDate commitCreatedAt = entry.getAuthorTime().atZone(ZoneId.systemDefault()).toLocalDate();
+                if (createdAt == null)
+                {
+                    createdAt = commitCreatedAt;
+                }
+
+                if (hash.equals(untilCommit))
+                {
+                    toChronologicalOrder(changes);
+                    changeSets.add(new ChangeSet(versionTag.version, versionTag.tagName, untilTag, createdAt, changes, versionTag.commitId, hash,
+                            collectionOptions));
+                    return finish(changeSets, tracker);
+                }
+                if (tracker != null)
+                {
+                    tracker.commits(1);
+                }
+
+                // The commit that the range starts at is tagged with the version being collected, not with the previous one
+                Optional<VersionTag> previousVersionTagMaybe = hash.equals(startCommit)
+                    ? Optional.empty()
+                    : entry.getTagNames()
+                        .stream()
                         .map(this::getVersionTag)
                         .filter(Optional::isPresent)
                         .map(Optional::get)
@@ -169,17 +660,49 @@ public class ChangeSetCollector
 
                 if (previousVersionTagMaybe.isPresent())
                 {
+                    metrics.count(Counter.TAGS_MATCHED, 1);
                     VersionTag previousVersionTag = previousVersionTagMaybe.get();
-                    Collections.reverse(changes);
-                    ChangeSet changeSet = new ChangeSet(versionTag.version, versionTag.tagName, previousVersionTag.tagName, createdAt, changes);
+                    previousVersionTag.commitId = hash;
+                    toChronologicalOrder(changes);
+                    ChangeSet changeSet = new ChangeSet(versionTag.version, versionTag.tagName, previousVersionTag.tagName, createdAt, changes,
+                            versionTag.commitId, hash, collectionOptions);
                     changeSets.add(changeSet);
                     versionTag = previousVersionTag;
                     createdAt = commitCreatedAt;
-                    changes = new ArrayList<>();
+                    changes = newChanges();
+                    completeSize += pendingSize;
+                    pendingSize = 0;
+                    if (tracker != null)
+                    {
+                        tracker.version();
+                    }
                 }
 
-                Change change = new CommitParser(hash, message).parse();
-                changes.add(change);
+                // Commits that are not merges still mark where versions start and end, but are not part of any version
+                if (walkMode != WalkMode.MERGES_ONLY || entry.isMerge())
+                {
+                    Change change = entry.getChange();
+                    changes.add(change);
+                    if (change.getType() == null)
+                    {
+                        metrics.count(Counter.COMMITS_SKIPPED, 1);
+                    }
+
+                    if (memoryBudget > 0)
+                    {
+                        pendingSize += SpilledChangeList.estimateSize(change);
+                        if (completeSize + pendingSize > memoryBudget && completeSize > 0)
+                        {
+                            if (spillTo == null)
+                            {
+                                spillTo = createSpillDirectory();
+                            }
+                            spill(changeSets, spilled, spillTo);
+                            spilled = changeSets.size();
+                            completeSize = 0;
+                        }
+                    }
+                }
 
                 if (previousVersionTagMaybe.isPresent())
                 {
@@ -188,17 +711,394 @@ public class ChangeSetCollector
             }
         }
 
+        if (fromId != null)
+        {
+            // The walk ends right after the last commit of the range, so the version being collected is complete
+            toChronologicalOrder(changes);
+            changeSets.add(new ChangeSet(versionTag.version, versionTag.tagName, fromTag, createdAt != null ? createdAt : TimeUtils.now(), changes,
+                    versionTag.commitId, fromId.getName(), collectionOptions));
+        }
+
+        return finish(changeSets, tracker);
+    }
+
+    private String getNextVersion()
+    {
+        String nextVersion = this.nextVersion;
+        if (isBlank(nextVersion))
+        {
+            long start = System.nanoTime();
+            nextVersion = PomMetadata.read(projectDirectory)
+                    .flatMap(PomMetadata::getVersion)
+                    .orElse("");
+            metrics.phase(Phase.READ_POM, System.nanoTime() - start);
+        }
+
+        if (isBlank(nextVersion))
+        {
+            throw new RuntimeException("Next version is not set and it could not be determined from the POM");
+        }
+        return nextVersion;
+    }
+
+    private SortedMap<String, String> indexVersionTags(SortedMap<String, ObjectId> tags)
+    {
+        // Sorted by version, so that the ends of a range can be compared and looked up regardless of how the tags sort by name
+        SortedMap<String, String> versionTags = new TreeMap<>(VersionComparator.get());
+        for (String tagName : tags.keySet())
+        {
+            getVersionTag(tagName).ifPresent(tag -> versionTags.put(tag.version, tag.tagName));
+        }
+        return versionTags;
+    }
+
+    private String getVersionTagName(SortedMap<String, String> versionTags, String version)
+    {
+        String tagName = versionTags.get(version);
+        if (tagName == null)
+        {
+            throw new IllegalArgumentException("Version '" + version + "' is not tagged with prefix '" + versionTagPrefix + "'");
+        }
+        return tagName;
+    }
+
+    private static List<ChangeSet> finish(List<ChangeSet> changeSets, ProgressTracker tracker)
+    {
+        if (tracker != null)
+        {
+            tracker.finish();
+        }
         return unmodifiableList(changeSets);
     }
 
-    private Optional<VersionTag> getVersionTag(Ref ref)
+    private Estimate estimate(TagIndex tagIndex, ObjectId startId, ObjectId excludeId, String untilCommit) throws IOException
     {
-        if (!ref.getName().startsWith(R_TAGS))
+        Repository repository = git.getRepository();
+        ObjectId start = startId != null
+            ? startId
+            : repository.resolve(Constants.HEAD);
+        if (start == null)
         {
-            return Optional.empty();
+            return new Estimate();
+        }
+
+        try (RevWalk walk = new RevWalk(repository))
+        {
+            // Counting only needs the headers, so the messages are neither kept nor parsed
+            walk.setRetainBody(false);
+            walk.setFirstParent(walkMode != WalkMode.ALL);
+            walk.markStart(walk.parseCommit(start));
+            if (excludeId != null)
+            {
+                walk.markUninteresting(walk.parseCommit(excludeId));
+            }
+            return estimate(entries(walk.iterator(), tagIndex), startId != null ? startId.getName() : null, untilCommit, excludeId != null);
+        }
+    }
+
+    private Estimate estimate(Iterator<Entry> iterator, String startCommit, String untilCommit, boolean range)
+    {
+        // Stops where the collection itself is expected to stop
+        Estimate estimate = new Estimate();
+        while (iterator.hasNext() && (cancellationToken == null || !cancellationToken.isCancelled()))
+        {
+            Entry entry = iterator.next();
+            if (entry.getHash().equals(untilCommit))
+            {
+                estimate.versions++;
+                break;
+            }
+            estimate.commits++;
+            if (!entry.getHash().equals(startCommit) && entry.getTagNames().stream().anyMatch(tagName -> getVersionTag(tagName).isPresent()))
+            {
+                estimate.versions++;
+                if (untilCommit == null && !range && estimate.versions == numberOfVersions)
+                {
+                    break;
+                }
+            }
+        }
+        if (range)
+        {
+            // The last version of a range ends where the walk ends
+            estimate.versions++;
+        }
+        return estimate;
+    }
+
+    private Iterator<RevCommit> walk(ObjectId startId, ObjectId excludeId) throws Exception
+    {
+        if (walkMode == WalkMode.ALL && startId == null && excludeId == null)
+        {
+            return git.log().call().iterator();
+        }
+
+        Repository repository = git.getRepository();
+        ObjectId start = startId != null
+            ? startId
+            : repository.resolve(Constants.HEAD);
+        if (start == null)
+        {
+            throw new NoHeadException("No HEAD exists and no explicit starting revision was specified");
+        }
+
+        // The walk is left for the garbage collector, just like the one of 'git log'
+        RevWalk walk = new RevWalk(repository);
+        walk.setFirstParent(walkMode != WalkMode.ALL);
+        walk.markStart(walk.parseCommit(start));
+        if (excludeId != null)
+        {
+            walk.markUninteresting(walk.parseCommit(excludeId));
+        }
+        return walk.iterator();
+    }
+
+    private Iterator<Entry> entries(Iterator<RevCommit> commits, TagIndex tagIndex)
+    {
+        // The shared cache would keep every parsed commit on the heap, regardless of the budget, and merges are parsed differently
+        // depending on the walk mode
+        Map<String, Change> cache = handle != null && memoryBudget == 0 && walkMode == WalkMode.ALL
+            ? handle.getCommits()
+            : null;
+        return new Iterator<Entry>()
+        {
+            @Override
+            public boolean hasNext()
+            {
+                // The walk reads the next commit when asked whether there is one
+                long start = System.nanoTime();
+                boolean hasNext = commits.hasNext();
+                metrics.phase(Phase.WALK, System.nanoTime() - start);
+                return hasNext;
+            }
+
+            @Override
+            public Entry next()
+            {
+                long start = System.nanoTime();
+                RevCommit commit = commits.next();
+                metrics.phase(Phase.WALK, System.nanoTime() - start);
+                return new Entry()
+                {
+                    @Override
+                    public String getHash()
+                    {
+                        return commit.getName();
+                    }
+
+                    @Override
+                    public Instant getAuthorTime()
+                    {
+                        return commit.getAuthorIdent().getWhen().toInstant();
+                    }
+
+                    @Override
+                    public List<String> getTagNames()
+                    {
+                        return tagIndex.getTagNames(commit);
+                    }
+
+                    @Override
+                    public boolean isMerge()
+                    {
+                        return commit.getParentCount() > 1;
+                    }
+
+                    @Override
+                    public Change getChange() throws IOException
+                    {
+                        String hash = commit.getName();
+                        Change change = cache != null
+                            ? cache.computeIfAbsent(hash, key -> parse(key, commit))
+                            : parse(hash, commit);
+                        return collectPaths
+                            ? change.withPaths(getPaths(commit))
+                            : change;
+                    }
+                };
+            }
+        };
+    }
+
+    private Iterator<Entry> entries(HistoryIndex historyIndex, String startTag, String excludeTag)
+    {
+        long start = System.nanoTime();
+        int[] ordinals = historyIndex.log(
+                startTag != null ? historyIndex.getTaggedOrdinal(startTag) : historyIndex.getHead(),
+                excludeTag != null ? historyIndex.getTaggedOrdinal(excludeTag) : -1);
+        metrics.phase(Phase.WALK, System.nanoTime() - start);
+        return new Iterator<Entry>()
+        {
+            private int index;
+
+            @Override
+            public boolean hasNext()
+            {
+                return index < ordinals.length;
+            }
+
+            @Override
+            public Entry next()
+            {
+                if (!hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+                int ordinal = ordinals[index++];
+                return new Entry()
+                {
+                    @Override
+                    public String getHash()
+                    {
+                        return historyIndex.getId(ordinal).getName();
+                    }
+
+                    @Override
+                    public Instant getAuthorTime()
+                    {
+                        return historyIndex.getAuthorTime(ordinal);
+                    }
+
+                    @Override
+                    public List<String> getTagNames()
+                    {
+                        return historyIndex.getTagNames(ordinal);
+                    }
+
+                    @Override
+                    public boolean isMerge()
+                    {
+                        // Walk modes other than ALL are not supported by the index
+                        return false;
+                    }
+
+                    @Override
+                    public Change getChange()
+                    {
+                        long start = System.nanoTime();
+                        Change change = historyIndex.getChange(ordinal);
+                        metrics.phase(Phase.INFLATE, System.nanoTime() - start);
+                        return change;
+                    }
+                };
+            }
+        };
+    }
+
+    private List<Change> newChanges()
+    {
+        return compact
+            ? new CompactChangeList()
+            : new ArrayList<>();
+    }
+
+    private static void toChronologicalOrder(List<Change> changes)
+    {
+        // A version is complete once it is in chronological order, so a compact list can release its spare capacity
+        if (changes instanceof CompactChangeList)
+        {
+            CompactChangeList compactChanges = (CompactChangeList) changes;
+            compactChanges.reverse();
+            compactChanges.trimToSize();
+        }
+        else
+        {
+            Collections.reverse(changes);
+        }
+    }
+
+    private File createSpillDirectory() throws IOException
+    {
+        File directory = (spillDirectory != null
+            ? Files.createTempDirectory(spillDirectory.toPath(), "changelog")
+            : Files.createTempDirectory("changelog")).toFile();
+        directory.deleteOnExit();
+        spilledDirectories.add(directory);
+        return directory;
+    }
+
+    private static void spill(List<ChangeSet> changeSets, int from, File directory) throws IOException
+    {
+        for (int index = from; index < changeSets.size(); index++)
+        {
+            ChangeSet set = changeSets.get(index);
+            List<Change> changes = SpilledChangeList.write(set.getChanges(), directory);
+            changeSets.set(index, set.withChanges(changes));
+        }
+    }
+
+    private Change parse(String hash, RevCommit commit)
+    {
+        long start = System.nanoTime();
+        String message = commit.getFullMessage();
+        Instant time = Instant.ofEpochSecond(commit.getCommitTime());
+        Change change = new CommitParser(hash, message)
+                .time(time)
+                .parse();
+        if (change.getType() == null && walkMode != WalkMode.ALL && commit.getParentCount() > 1)
+        {
+            // The title of a merge is generated, such as "Merge pull request #12 from user/branch", so the body is parsed instead
+            String body = substringAfter(message, "\n").trim();
+            if (!body.isEmpty())
+            {
+                change = new CommitParser(hash, body)
+                        .time(time)
+                        .parse();
+            }
         }
+        long nanos = System.nanoTime() - start;
+        metrics.phase(Phase.PARSE, nanos);
+        metrics.count(Counter.COMMITS_PARSED, 1);
+        metrics.commitParsed(hash, message.length(), nanos);
+        if (outliers != null)
+        {
+            outliers.commitParsed(hash, message.length(), nanos);
+        }
+        return change;
+    }
 
-        String tagName = ref.getName().substring(R_TAGS.length());
+    private List<String> getPaths(RevCommit commit) throws IOException
+    {
+        long start = System.nanoTime();
+        try
+        {
+            return readPaths(commit);
+        }
+        finally
+        {
+            metrics.phase(Phase.INFLATE, System.nanoTime() - start);
+        }
+    }
+
+    private List<String> readPaths(RevCommit commit) throws IOException
+    {
+        Repository repository = git.getRepository();
+        List<String> paths = new ArrayList<>();
+        try (TreeWalk treeWalk = new TreeWalk(repository))
+        {
+            treeWalk.setRecursive(true);
+            treeWalk.setFilter(TreeFilter.ANY_DIFF);
+            if (commit.getParentCount() > 0)
+            {
+                RevTree parentTree = commit.getParent(0).getTree();
+                treeWalk.addTree(parentTree != null ? parentTree : repository.parseCommit(commit.getParent(0)).getTree());
+            }
+            else
+            {
+                treeWalk.addTree(new EmptyTreeIterator());
+            }
+            treeWalk.addTree(commit.getTree());
+
+            while (treeWalk.next())
+            {
+                paths.add(treeWalk.getPathString());
+            }
+        }
+        return paths;
+    }
+
+    private Optional<VersionTag> getVersionTag(String tagName)
+    {
         Matcher matcher = versionTagPattern.matcher(tagName);
         if (!matcher.matches())
         {
@@ -211,6 +1111,69 @@ public class ChangeSetCollector
         return Optional.of(version);
     }
 
+    /**
+     * Deletes the temporary files written when the memory budget was exceeded, and closes the repository if it was opened by this collector.
+     * Shared repositories are left open.
+     */
+    @Override
+    public void close()
+    {
+        spilledDirectories.forEach(FileUtils::deleteQuietly);
+        spilledDirectories.clear();
+        if (ownsGit)
+        {
+            git.close();
+        }
+    }
+
+    /**
+     * Defines a commit as seen by the collector, read either from Git or from a {@link HistoryIndex}.
+     */
+    private interface Entry
+    {
+        String getHash();
+
+        Instant getAuthorTime();
+
+        List<String> getTagNames();
+
+        boolean isMerge();
+
+        Change getChange() throws IOException;
+    }
+
+    /**
+     * Defines which commits of the history to visit when collecting.
+     */
+    public enum WalkMode
+    {
+        /**
+         * Visits every commit that is reachable from {@code HEAD}, including the commits of every merged branch, like {@code git log}.
+         */
+        ALL,
+
+        /**
+         * Only visits the first parent of each commit, like {@code git log --first-parent}. The commits of merged branches are skipped, and
+         * merges whose title is not a conventional commit are parsed by their body instead.
+         */
+        FIRST_PARENT,
+
+        /**
+         * Visits the same commits as {@link #FIRST_PARENT}, but only collects the merges. This suits repositories where every change is
+         * merged through a pull request, with the squashed commit messages in the body of the merge.
+         */
+        MERGES_ONLY
+    }
+
+    /**
+     * Defines the estimated number of commits and versions to collect.
+     */
+    private static class Estimate
+    {
+        long commits;
+        int versions;
+    }
+
     /**
      * Defines a version tag.
      */
@@ -218,5 +1181,6 @@ public class ChangeSetCollector
     {
         String tagName;
         String version;
+        String commitId;
     }
 }
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+
+/**
+ * Filters {@link ChangeSet change sets} by the paths that their changes touch. Used to split the change sets of a single repository walk
+ * between several modules.
+ */
+public final class ChangeSetFilter
+{
+    // Prevent instantiation
+    private ChangeSetFilter()
+    {
+    }
+
+    /**
+     * Filters the given change sets so that they only contain changes that touch the given path. The change sets must have been collected
+     * with {@link ChangeSetCollector#collectPaths(boolean)} enabled.
+     *
+     * @param changeSets the change sets to filter
+     * @param path the path to filter by, relative to the root of the repository; an empty path matches all changes
+     * @return the filtered change sets
+     */
+    public static List<ChangeSet> byPath(List<ChangeSet> changeSets, String path)
+    {
+        if (path.isEmpty())
+        {
+            return changeSets;
+        }
+
+        String directory = path.endsWith("/") ? path : path + "/";
+        return changeSets.stream()
+                .map(set -> set.withChanges(set.getChanges()
+                        .stream()
+                        .filter(change -> touches(change, directory))
+                        .collect(toList()), getCollectionOptions(set, directory)))
+                .collect(toList());
+    }
+
+    // Caches of rendered versions must tell apart the versions of different paths
+    private static String getCollectionOptions(ChangeSet changeSet, String directory)
+    {
+        return changeSet.getCollectionOptions()
+                .map(options -> options + ";")
+                .orElse("") + "path=" + directory;
+    }
+
+    private static boolean touches(Change change, String directory)
+    {
+        for (String path : change.getPaths())
+        {
+            if (path.startsWith(directory))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,1039 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableSortedMap;
+import static java.util.Objects.requireNonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+import com.antonjohansson.conventionalcommits.core.git.model.Note;
+import com.antonjohansson.conventionalcommits.core.git.model.Reference;
+import com.antonjohansson.conventionalcommits.core.git.model.Revert;
+import com.antonjohansson.conventionalcommits.core.git.parser.CommitParser;
+
+/**
+ * A binary file that holds the parsed history of a repository, so that changes can be read without reading a single Git object.
+ * <p>
+ * Each commit that is reachable from {@code HEAD} gets a fixed size record, identified by its ordinal. The record holds the commit id, the
+ * commit and author times, the ordinals of its parents and offsets into a string table for the parsed message. Tags are stored along with
+ * the ordinals of the commits they point at. The file is read through a {@link MappedByteBuffer}, so opening it is cheap regardless of its
+ * size, and a query only touches the records it needs.
+ * </p>
+ * <p>
+ * {@link #update(File, Repository)} only reads the commits that none of the indexed branches reach, and writes the extended index to
+ * a new file that replaces the old one. If the head of an indexed branch no longer exists, for example after a garbage collected rebase, the
+ * index is built from scratch. The file is limited to 2 GB. On platforms that cannot replace a mapped file, indexes returned earlier should no
+ * longer be referenced when the index is updated.
+ * </p>
+ */
+public final class HistoryIndex
+{
+    private static final int MAGIC = 0x43434849;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 72;
+    private static final int NONE = -1;
+
+    // Offsets of the fields within a record, which starts with the raw commit id
+    private static final int COMMIT_TIME = 20;
+    private static final int AUTHOR_TIME = 24;
+    private static final int PARENTS_START = 32;
+    private static final int PARENT_COUNT = 36;
+    private static final int TYPE = 40;
+    private static final int SCOPE = 44;
+    private static final int TITLE = 48;
+    private static final int BODY = 52;
+    private static final int FOOTER = 56;
+    private static final int NOTES = 60;
+    private static final int REFERENCES = 64;
+    private static final int REVERT = 68;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int head;
+    private final int parentCount;
+    private final int tagsLength;
+    private final int stringsLength;
+    private final int parentsOffset;
+    private final int lookupOffset;
+    private final int tagsOffset;
+    private final int stringsOffset;
+    private final SortedMap<String, ObjectId> tags = new TreeMap<>();
+    private final Map<String, Integer> tagOrdinals = new HashMap<>();
+    private final Map<Integer, List<String>> tagNamesByOrdinal = new HashMap<>();
+
+    private HistoryIndex(ByteBuffer buffer, File file) throws IOException
+    {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION)
+        {
+            throw new IOException("Not a history index: " + file);
+        }
+
+        size = buffer.getInt(8);
+        head = buffer.getInt(12);
+        parentCount = buffer.getInt(16);
+        int tagCount = buffer.getInt(20);
+        tagsLength = buffer.getInt(24);
+        stringsLength = buffer.getInt(28);
+
+        parentsOffset = HEADER_SIZE + size * RECORD_SIZE;
+        lookupOffset = parentsOffset + parentCount * Integer.BYTES;
+        tagsOffset = lookupOffset + size * Integer.BYTES;
+        stringsOffset = tagsOffset + tagsLength;
+        if (stringsOffset + stringsLength != buffer.capacity())
+        {
+            throw new IOException("History index is corrupt: " + file);
+        }
+
+        Cursor cursor = new Cursor(buffer, tagsOffset);
+        for (int index = 0; index < tagCount; index++)
+        {
+            int ordinal = cursor.readInt();
+            ObjectId commit = cursor.readId();
+            String name = cursor.readString();
+            tags.put(name, commit);
+            tagOrdinals.put(name, ordinal);
+            if (ordinal != NONE)
+            {
+                tagNamesByOrdinal.computeIfAbsent(ordinal, key -> new ArrayList<>(1)).add(name);
+            }
+        }
+    }
+
+    /**
+     * Opens an existing history index.
+     *
+     * @param file the index file
+     * @return the index
+     */
+    public static HistoryIndex open(File file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE)
+            {
+                throw new IOException("History index is too large: " + file);
+            }
+            if (length < HEADER_SIZE)
+            {
+                throw new IOException("Not a history index: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            return new HistoryIndex(buffer, file);
+        }
+    }
+
+    /**
+     * Brings a history index up to date with the given repository, creating it if it does not exist or cannot be read.
+     *
+     * @param file the index file
+     * @param repository the repository to index
+     * @return the updated index
+     */
+    public static HistoryIndex update(File file, Repository repository) throws IOException
+    {
+        ObjectId head = repository.resolve(Constants.HEAD);
+        TagIndex tagIndex = TagIndex.build(repository);
+        if (file.isFile() && isCurrent(file, head, tagIndex))
+        {
+            return open(file);
+        }
+
+        // A file cannot be replaced while it is mapped on every platform, so the index that is extended is read rather than mapped
+        HistoryIndex existing = null;
+        if (file.isFile())
+        {
+            try
+            {
+                existing = read(file);
+            }
+            catch (IOException e)
+            {
+                // Rebuilt below
+            }
+        }
+        if (existing != null && !existing.hasTips(repository))
+        {
+            existing = null;
+        }
+
+        new Writer(file, existing).write(repository, head, tagIndex);
+        return open(file);
+    }
+
+    private static HistoryIndex read(File file) throws IOException
+    {
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        if (bytes.length < HEADER_SIZE)
+        {
+            throw new IOException("Not a history index: " + file);
+        }
+        return new HistoryIndex(ByteBuffer.wrap(bytes), file);
+    }
+
+    /**
+     * Checks whether an index file is up to date, by only reading its header, the record of its {@code HEAD} and its tags.
+     */
+    private static boolean isCurrent(File file, ObjectId currentHead, TagIndex tagIndex)
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            ByteBuffer header = read(channel, 0, HEADER_SIZE);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != FORMAT_VERSION)
+            {
+                return false;
+            }
+            int size = header.getInt(8);
+            int head = header.getInt(12);
+            int parentCount = header.getInt(16);
+            int tagCount = header.getInt(20);
+            int tagsLength = header.getInt(24);
+
+            ObjectId indexedHead = head == NONE
+                ? null
+                : new Cursor(read(channel, HEADER_SIZE + (long) head * RECORD_SIZE, Constants.OBJECT_ID_LENGTH), 0).readId();
+            if (!Objects.equals(currentHead, indexedHead))
+            {
+                return false;
+            }
+
+            long tagsOffset = HEADER_SIZE + (long) size * RECORD_SIZE + (long) parentCount * Integer.BYTES + (long) size * Integer.BYTES;
+            Cursor cursor = new Cursor(read(channel, tagsOffset, tagsLength), 0);
+            SortedMap<String, ObjectId> tags = new TreeMap<>();
+            for (int index = 0; index < tagCount; index++)
+            {
+                cursor.readInt();
+                ObjectId commit = cursor.readId();
+                tags.put(cursor.readString(), commit);
+            }
+            return tags.equals(tagIndex.getTags());
+        }
+        catch (IOException | RuntimeException e)
+        {
+            // A file that cannot be read is rebuilt
+            return false;
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining())
+        {
+            if (channel.read(buffer, position + buffer.position()) < 0)
+            {
+                throw new IOException("Unexpected end of history index");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Gets the number of indexed commits.
+     *
+     * @return the number of commits
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Gets all tags along with the commits they point at, sorted by tag name.
+     *
+     * @return the tags
+     */
+    public SortedMap<String, ObjectId> getTags()
+    {
+        return unmodifiableSortedMap(tags);
+    }
+
+    /**
+     * Gets the changes that are reachable from one tag but not from another, like {@code git log fromTag..toTag}.
+     *
+     * @param fromTag the tag to exclude the history of
+     * @param toTag the tag to start from
+     * @return the changes, newest first
+     */
+    public List<Change> changesBetween(String fromTag, String toTag)
+    {
+        return getChanges(log(getTaggedOrdinal(toTag), getTaggedOrdinal(fromTag)));
+    }
+
+    /**
+     * Gets the changes that are reachable from the indexed {@code HEAD} but not from the given tag, like {@code git log fromTag..HEAD}.
+     *
+     * @param fromTag the tag to exclude the history of
+     * @return the changes, newest first
+     */
+    public List<Change> changesSince(String fromTag)
+    {
+        return getChanges(log(head, getTaggedOrdinal(fromTag)));
+    }
+
+    /**
+     * Gets the ordinal of the indexed {@code HEAD}.
+     *
+     * @return the ordinal, or {@code -1} if the repository has no commits
+     */
+    int getHead()
+    {
+        return head;
+    }
+
+    /**
+     * Gets the ordinals of the commits that are reachable from a commit, in the order that {@code git log} lists them: the most recently
+     * committed commit whose children are already listed comes next.
+     *
+     * @param start the ordinal to start from
+     * @param exclude the ordinal whose history to exclude, or {@code -1}
+     * @return the ordinals
+     */
+    int[] log(int start, int exclude)
+    {
+        if (start == NONE)
+        {
+            return new int[0];
+        }
+
+        BitSet seen = exclude == NONE
+            ? new BitSet(size)
+            : ancestors(exclude);
+        if (seen.get(start))
+        {
+            return new int[0];
+        }
+
+        int[] result = new int[16];
+        int count = 0;
+        int[] bySequence = new int[16];
+        int sequence = 0;
+
+        // Newest first and, between equal times, first come first served, which is how JGit orders a walk
+        PriorityQueue<Long> queue = new PriorityQueue<>();
+        seen.set(start);
+        bySequence[sequence] = start;
+        queue.add(key(start, sequence++));
+        while (!queue.isEmpty())
+        {
+            int ordinal = bySequence[(int) queue.poll().longValue()];
+            if (count == result.length)
+            {
+                result = Arrays.copyOf(result, count * 2);
+            }
+            result[count++] = ordinal;
+
+            int record = record(ordinal);
+            int parentsStart = buffer.getInt(record + PARENTS_START);
+            for (int index = 0; index < buffer.getInt(record + PARENT_COUNT); index++)
+            {
+                int parent = buffer.getInt(parentsOffset + (parentsStart + index) * Integer.BYTES);
+                if (parent != NONE && !seen.get(parent))
+                {
+                    seen.set(parent);
+                    if (sequence == bySequence.length)
+                    {
+                        bySequence = Arrays.copyOf(bySequence, sequence * 2);
+                    }
+                    bySequence[sequence] = parent;
+                    queue.add(key(parent, sequence++));
+                }
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private long key(int ordinal, int sequence)
+    {
+        return (long) -buffer.getInt(record(ordinal) + COMMIT_TIME) << 32 | sequence;
+    }
+
+    private BitSet ancestors(int start)
+    {
+        BitSet seen = new BitSet(size);
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = start;
+        seen.set(start);
+        while (top > 0)
+        {
+            int record = record(stack[--top]);
+            int parentsStart = buffer.getInt(record + PARENTS_START);
+            for (int index = 0; index < buffer.getInt(record + PARENT_COUNT); index++)
+            {
+                int parent = buffer.getInt(parentsOffset + (parentsStart + index) * Integer.BYTES);
+                if (parent != NONE && !seen.get(parent))
+                {
+                    seen.set(parent);
+                    if (top == stack.length)
+                    {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = parent;
+                }
+            }
+        }
+        return seen;
+    }
+
+    /**
+     * Gets the ordinal of the commit that a tag points at.
+     *
+     * @param tagName the name of the tag
+     * @return the ordinal, or {@code -1} if the tag does not exist or points at a commit that is not reachable from the indexed {@code HEAD}
+     */
+    int getTagOrdinal(String tagName)
+    {
+        return tagOrdinals.getOrDefault(tagName, NONE);
+    }
+
+    /**
+     * Gets the ordinal of the commit that a tag points at, failing if there is none.
+     *
+     * @param tagName the name of the tag
+     * @return the ordinal
+     * @throws IllegalArgumentException if the tag does not exist or points at a commit that is not reachable from the indexed {@code HEAD}
+     */
+    int getTaggedOrdinal(String tagName)
+    {
+        requireNonNull(tagName);
+        if (!tags.containsKey(tagName))
+        {
+            throw new IllegalArgumentException("Tag '" + tagName + "' does not exist");
+        }
+        int ordinal = getTagOrdinal(tagName);
+        if (ordinal == NONE)
+        {
+            throw new IllegalArgumentException("Tag '" + tagName + "' is not reachable from the indexed HEAD");
+        }
+        return ordinal;
+    }
+
+    /**
+     * Gets the names of the tags that point at a commit.
+     *
+     * @param ordinal the ordinal of the commit
+     * @return the tag names
+     */
+    List<String> getTagNames(int ordinal)
+    {
+        return tagNamesByOrdinal.getOrDefault(ordinal, emptyList());
+    }
+
+    /**
+     * Gets the id of a commit.
+     *
+     * @param ordinal the ordinal of the commit
+     * @return the commit id
+     */
+    ObjectId getId(int ordinal)
+    {
+        return new Cursor(buffer, record(ordinal)).readId();
+    }
+
+    /**
+     * Gets the author time of a commit.
+     *
+     * @param ordinal the ordinal of the commit
+     * @return the author time
+     */
+    Instant getAuthorTime(int ordinal)
+    {
+        return Instant.ofEpochMilli(buffer.getLong(record(ordinal) + AUTHOR_TIME));
+    }
+
+    /**
+     * Gets the parsed change of a commit.
+     *
+     * @param ordinal the ordinal of the commit
+     * @return the change
+     */
+    Change getChange(int ordinal)
+    {
+        int record = record(ordinal);
+        return new Change(
+                getId(ordinal).getName(),
+                getString(buffer.getInt(record + TYPE)),
+                getString(buffer.getInt(record + SCOPE)),
+                getString(buffer.getInt(record + TITLE)),
+                getString(buffer.getInt(record + BODY)),
+                getString(buffer.getInt(record + FOOTER)),
+                getNotes(buffer.getInt(record + NOTES)),
+                getReferences(buffer.getInt(record + REFERENCES)),
+                getRevert(buffer.getInt(record + REVERT)),
+                null,
+                Instant.ofEpochSecond(buffer.getInt(record + COMMIT_TIME)),
+                null);
+    }
+
+    private List<Change> getChanges(int[] ordinals)
+    {
+        List<Change> changes = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals)
+        {
+            changes.add(getChange(ordinal));
+        }
+        return unmodifiableList(changes);
+    }
+
+    /**
+     * Gets the ordinals of the indexed commits that are not the parent of another indexed commit. Every indexed commit is reachable from one
+     * of them, so they are the heads of all branches that have been indexed.
+     */
+    private int[] getTips()
+    {
+        BitSet parents = new BitSet(size);
+        for (int index = 0; index < parentCount; index++)
+        {
+            int parent = buffer.getInt(parentsOffset + index * Integer.BYTES);
+            if (parent != NONE)
+            {
+                parents.set(parent);
+            }
+        }
+
+        int[] tips = new int[size - parents.cardinality()];
+        int count = 0;
+        for (int ordinal = parents.nextClearBit(0); ordinal < size; ordinal = parents.nextClearBit(ordinal + 1))
+        {
+            tips[count++] = ordinal;
+        }
+        return tips;
+    }
+
+    /**
+     * Checks whether the heads of all indexed branches still exist, so that the index can be extended with only the commits that none of them
+     * reach.
+     */
+    private boolean hasTips(Repository repository) throws IOException
+    {
+        for (int tip : getTips())
+        {
+            if (!repository.getObjectDatabase().has(getId(tip)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the ordinal of a commit, using the lookup table that is sorted by commit id.
+     */
+    private int find(AnyObjectId commit)
+    {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high)
+        {
+            int middle = (low + high) >>> 1;
+            int ordinal = buffer.getInt(lookupOffset + middle * Integer.BYTES);
+            int comparison = getId(ordinal).compareTo(commit);
+            if (comparison < 0)
+            {
+                low = middle + 1;
+            }
+            else if (comparison > 0)
+            {
+                high = middle - 1;
+            }
+            else
+            {
+                return ordinal;
+            }
+        }
+        return NONE;
+    }
+
+    private int record(int ordinal)
+    {
+        return HEADER_SIZE + ordinal * RECORD_SIZE;
+    }
+
+    private String getString(int offset)
+    {
+        return offset == NONE ? null : new Cursor(buffer, stringsOffset + offset).readString();
+    }
+
+    private List<Note> getNotes(int offset)
+    {
+        if (offset == NONE)
+        {
+            return null;
+        }
+        Cursor cursor = new Cursor(buffer, stringsOffset + offset);
+        int count = cursor.readInt();
+        List<Note> notes = new ArrayList<>(count);
+        for (int index = 0; index < count; index++)
+        {
+            notes.add(new Note(cursor.readString(), cursor.readString()));
+        }
+        return notes;
+    }
+
+    private List<Reference> getReferences(int offset)
+    {
+        if (offset == NONE)
+        {
+            return null;
+        }
+        Cursor cursor = new Cursor(buffer, stringsOffset + offset);
+        int count = cursor.readInt();
+        List<Reference> references = new ArrayList<>(count);
+        for (int index = 0; index < count; index++)
+        {
+            references.add(new Reference(cursor.readString(), cursor.readString(), cursor.readString(), cursor.readString(), cursor.readString(), cursor.readString()));
+        }
+        return references;
+    }
+
+    private Revert getRevert(int offset)
+    {
+        if (offset == NONE)
+        {
+            return null;
+        }
+        Cursor cursor = new Cursor(buffer, stringsOffset + offset);
+        return new Revert(cursor.readString(), cursor.readString());
+    }
+
+    /**
+     * Reads consecutive values from the file.
+     */
+    private static class Cursor
+    {
+        private final ByteBuffer view;
+
+        Cursor(ByteBuffer buffer, int position)
+        {
+            view = buffer.duplicate();
+            view.position(position);
+        }
+
+        int readInt()
+        {
+            return view.getInt();
+        }
+
+        ObjectId readId()
+        {
+            byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+            view.get(raw);
+            return ObjectId.fromRaw(raw);
+        }
+
+        String readString()
+        {
+            int length = view.getInt();
+            if (length == NONE)
+            {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            view.get(bytes);
+            return new String(bytes, UTF_8);
+        }
+    }
+
+    /**
+     * Writes a new index file, based on an existing index and the commits that are not part of it yet.
+     */
+    private static class Writer
+    {
+        private final File file;
+        private final HistoryIndex existing;
+        private final int base;
+        private final int parentBase;
+        private final int stringBase;
+
+        Writer(File file, HistoryIndex existing)
+        {
+            this.file = file;
+            this.existing = existing;
+            this.base = existing != null ? existing.size : 0;
+            this.parentBase = existing != null ? existing.parentCount : 0;
+            this.stringBase = existing != null ? existing.stringsLength : 0;
+        }
+
+        void write(Repository repository, ObjectId head, TagIndex tagIndex) throws IOException
+        {
+            Path directory = file.getAbsoluteFile().getParentFile().toPath();
+            Files.createDirectories(directory);
+            Path records = Files.createTempFile(directory, file.getName(), ".records");
+            Path parents = Files.createTempFile(directory, file.getName(), ".parents");
+            Path strings = Files.createTempFile(directory, file.getName(), ".strings");
+            Path temporary = Files.createTempFile(directory, file.getName(), ".tmp");
+            try (RevWalk walk = new RevWalk(repository))
+            {
+                Map<ObjectId, Integer> ordinals = new HashMap<>();
+                List<RevCommit> commits = new ArrayList<>();
+                int newParentCount = 0;
+                int newStringsLength;
+                try (DataOutputStream recordOutput = output(records);
+                        DataOutputStream parentOutput = output(parents);
+                        StringTable stringTable = new StringTable(output(strings), stringBase))
+                {
+                    if (head != null)
+                    {
+                        walk.markStart(walk.parseCommit(head));
+                    }
+                    if (existing != null)
+                    {
+                        // Commits that were indexed from an earlier HEAD, such as another branch, must not be added twice
+                        for (int tip : existing.getTips())
+                        {
+                            walk.markUninteresting(walk.parseCommit(existing.getId(tip)));
+                        }
+                    }
+
+                    for (RevCommit commit : walk)
+                    {
+                        if (Thread.currentThread().isInterrupted())
+                        {
+                            throw new InterruptedIOException("Interrupted while indexing history");
+                        }
+
+                        ordinals.put(commit, base + commits.size());
+                        commits.add(commit);
+
+                        Change change = new CommitParser(commit.getName(), commit.getFullMessage()).parse();
+                        byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+                        commit.copyRawTo(raw, 0);
+                        recordOutput.write(raw);
+                        recordOutput.writeInt(commit.getCommitTime());
+                        recordOutput.writeLong(commit.getAuthorIdent().getWhen().getTime());
+                        recordOutput.writeInt(parentBase + newParentCount);
+                        recordOutput.writeInt(commit.getParentCount());
+                        recordOutput.writeInt(stringTable.intern(change.getType()));
+                        recordOutput.writeInt(stringTable.intern(change.getScope().orElse(null)));
+                        recordOutput.writeInt(stringTable.add(change.getTitle()));
+                        recordOutput.writeInt(stringTable.add(change.getBody().orElse(null)));
+                        recordOutput.writeInt(stringTable.add(change.getFooter().orElse(null)));
+                        recordOutput.writeInt(stringTable.addNotes(change.getNotes()));
+                        recordOutput.writeInt(stringTable.addReferences(change.getReferences()));
+                        recordOutput.writeInt(stringTable.addRevert(change.getRevert().orElse(null)));
+
+                        // Parents are usually walked after their children, so their ids are resolved to ordinals once the walk is done
+                        for (RevCommit parent : commit.getParents())
+                        {
+                            parent.copyRawTo(raw, 0);
+                            parentOutput.write(raw);
+                            newParentCount++;
+                        }
+                        commit.disposeBody();
+                    }
+                    newStringsLength = stringTable.size() - stringBase;
+                }
+
+                commits.sort(null);
+                int headOrdinal = head == null ? NONE : ordinal(head, ordinals);
+                List<byte[]> tagEntries = new ArrayList<>();
+                int tagsLength = 0;
+                for (Map.Entry<String, ObjectId> tag : tagIndex.getTags().entrySet())
+                {
+                    byte[] entry = tagEntry(tag.getKey(), tag.getValue(), ordinal(tag.getValue(), ordinals));
+                    tagEntries.add(entry);
+                    tagsLength += entry.length;
+                }
+
+                int size = base + commits.size();
+                int parentCount = parentBase + newParentCount;
+                long length = (long) HEADER_SIZE + (long) size * RECORD_SIZE + (long) parentCount * Integer.BYTES + (long) size * Integer.BYTES
+                    + tagsLength + stringBase + newStringsLength;
+                if (length > Integer.MAX_VALUE)
+                {
+                    throw new IOException("History index would exceed 2 GB");
+                }
+
+                try (DataOutputStream output = output(temporary))
+                {
+                    output.writeInt(MAGIC);
+                    output.writeInt(FORMAT_VERSION);
+                    output.writeInt(size);
+                    output.writeInt(headOrdinal);
+                    output.writeInt(parentCount);
+                    output.writeInt(tagEntries.size());
+                    output.writeInt(tagsLength);
+                    output.writeInt(stringBase + newStringsLength);
+
+                    if (existing != null)
+                    {
+                        copy(existing.buffer, HEADER_SIZE, existing.size * RECORD_SIZE, output);
+                    }
+                    Files.copy(records, output);
+
+                    if (existing != null)
+                    {
+                        copy(existing.buffer, existing.parentsOffset, existing.parentCount * Integer.BYTES, output);
+                    }
+                    try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(parents))))
+                    {
+                        byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+                        for (int index = 0; index < newParentCount; index++)
+                        {
+                            input.readFully(raw);
+                            output.writeInt(ordinal(ObjectId.fromRaw(raw), ordinals));
+                        }
+                    }
+
+                    writeLookup(commits, ordinals, output);
+                    for (byte[] entry : tagEntries)
+                    {
+                        output.write(entry);
+                    }
+
+                    if (existing != null)
+                    {
+                        copy(existing.buffer, existing.stringsOffset, existing.stringsLength, output);
+                    }
+                    Files.copy(strings, output);
+                }
+
+                Files.move(temporary, file.toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+            }
+            finally
+            {
+                Files.deleteIfExists(records);
+                Files.deleteIfExists(parents);
+                Files.deleteIfExists(strings);
+                Files.deleteIfExists(temporary);
+            }
+        }
+
+        private int ordinal(AnyObjectId commit, Map<ObjectId, Integer> ordinals)
+        {
+            Integer ordinal = ordinals.get(commit);
+            if (ordinal != null)
+            {
+                return ordinal;
+            }
+            return existing != null ? existing.find(commit) : NONE;
+        }
+
+        /**
+         * Writes the ordinals of all commits sorted by commit id, by merging the existing lookup table with the sorted new commits.
+         */
+        private void writeLookup(List<RevCommit> commits, Map<ObjectId, Integer> ordinals, DataOutputStream output) throws IOException
+        {
+            int existingIndex = 0;
+            int newIndex = 0;
+            while (existingIndex < base || newIndex < commits.size())
+            {
+                int existingOrdinal = existingIndex < base
+                    ? existing.buffer.getInt(existing.lookupOffset + existingIndex * Integer.BYTES)
+                    : NONE;
+                boolean takeExisting = existingOrdinal != NONE
+                    && (newIndex == commits.size() || existing.getId(existingOrdinal).compareTo(commits.get(newIndex)) < 0);
+                if (takeExisting)
+                {
+                    output.writeInt(existingOrdinal);
+                    existingIndex++;
+                }
+                else
+                {
+                    output.writeInt(ordinals.get(commits.get(newIndex)));
+                    newIndex++;
+                }
+            }
+        }
+
+        private static byte[] tagEntry(String name, ObjectId commit, int ordinal) throws IOException
+        {
+            ByteBuffer entry = ByteBuffer.allocate(Integer.BYTES + Constants.OBJECT_ID_LENGTH + Integer.BYTES + name.getBytes(UTF_8).length);
+            entry.putInt(ordinal);
+            byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+            commit.copyRawTo(raw, 0);
+            entry.put(raw);
+            entry.putInt(name.getBytes(UTF_8).length);
+            entry.put(name.getBytes(UTF_8));
+            return entry.array();
+        }
+
+        private static void copy(ByteBuffer source, int offset, int length, OutputStream output) throws IOException
+        {
+            ByteBuffer view = source.duplicate();
+            view.position(offset);
+            byte[] chunk = new byte[64 * 1024];
+            int remaining = length;
+            while (remaining > 0)
+            {
+                int count = Math.min(chunk.length, remaining);
+                view.get(chunk, 0, count);
+                output.write(chunk, 0, count);
+                remaining -= count;
+            }
+        }
+
+        private static DataOutputStream output(Path path) throws IOException
+        {
+            return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)));
+        }
+    }
+
+    /**
+     * Writes strings and the structures made of them, returning the offset of each.
+     */
+    private static class StringTable implements AutoCloseable
+    {
+        private final DataOutputStream output;
+        private final int base;
+        private final Map<String, Integer> interned = new HashMap<>();
+
+        StringTable(DataOutputStream output, int base)
+        {
+            this.output = output;
+            this.base = base;
+        }
+
+        int size()
+        {
+            return base + output.size();
+        }
+
+        int intern(String value) throws IOException
+        {
+            if (value == null)
+            {
+                return NONE;
+            }
+            Integer offset = interned.get(value);
+            if (offset == null)
+            {
+                offset = add(value);
+                interned.put(value, offset);
+            }
+            return offset;
+        }
+
+        int add(String value) throws IOException
+        {
+            if (value == null)
+            {
+                return NONE;
+            }
+            int offset = size();
+            writeString(value);
+            return offset;
+        }
+
+        int addNotes(List<Note> notes) throws IOException
+        {
+            if (notes.isEmpty())
+            {
+                return NONE;
+            }
+            int offset = size();
+            output.writeInt(notes.size());
+            for (Note note : notes)
+            {
+                writeString(note.getTitle());
+                writeString(note.getText());
+            }
+            return offset;
+        }
+
+        int addReferences(List<Reference> references) throws IOException
+        {
+            if (references.isEmpty())
+            {
+                return NONE;
+            }
+            int offset = size();
+            output.writeInt(references.size());
+            for (Reference reference : references)
+            {
+                writeString(reference.getAction());
+                writeString(reference.getOwner().orElse(null));
+                writeString(reference.getRepository().orElse(null));
+                writeString(reference.getPrefix());
+                writeString(reference.getIssue());
+                writeString(reference.getRaw());
+            }
+            return offset;
+        }
+
+        int addRevert(Revert revert) throws IOException
+        {
+            if (revert == null)
+            {
+                return NONE;
+            }
+            int offset = size();
+            writeString(revert.getHeader());
+            writeString(revert.getHash());
+            return offset;
+        }
+
+        private void writeString(String value) throws IOException
+        {
+            if (value == null)
+            {
+                output.writeInt(NONE);
+                return;
+            }
+            byte[] bytes = value.getBytes(UTF_8);
+            output.writeInt(bytes.length);
+            output.write(bytes);
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            output.close();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static org.eclipse.jgit.lib.Constants.R_TAGS;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.eclipse.jgit.lib.Repository;
+
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+
+/**
+ * Defines a lease of a repository that is shared through a {@link RepositoryRegistry}. Closing the handle releases the lease, but the
+ * repository itself is kept open by the registry.
+ */
+public final class RepositoryHandle implements AutoCloseable
+{
+    private final RepositoryRegistry registry;
+    private final SharedRepository repository;
+    private boolean closed;
+
+    RepositoryHandle(RepositoryRegistry registry, SharedRepository repository)
+    {
+        this.registry = registry;
+        this.repository = repository;
+    }
+
+    /**
+     * Gets the shared repository. The repository must not be closed by the caller.
+     *
+     * @return the repository
+     */
+    public Repository getRepository()
+    {
+        return repository.repository;
+    }
+
+    /**
+     * Gets the shared tag index of the repository. The index is rebuilt when the refs of the repository are known to have changed.
+     *
+     * @return the tag index
+     */
+    public TagIndex getTagIndex() throws IOException
+    {
+        return repository.getTagIndex();
+    }
+
+    /**
+     * Checks whether the refs of the repository have changed on disk, for example because something was pushed to it. If they have, the tag
+     * index is rebuilt the next time it is used. Parsed commits never change, so they are kept.
+     */
+    public void refresh() throws IOException
+    {
+        // Scanning the refs notifies the refs changed listener, which invalidates the tag index
+        repository.repository.getRefDatabase().getRefsByPrefix(R_TAGS);
+    }
+
+    /**
+     * Gets the shared cache of parsed commits, by commit hash.
+     *
+     * @return the cache of parsed commits
+     */
+    Map<String, Change> getCommits()
+    {
+        return repository.commits;
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        if (!closed)
+        {
+            closed = true;
+            registry.release(repository);
+        }
+    }
+}
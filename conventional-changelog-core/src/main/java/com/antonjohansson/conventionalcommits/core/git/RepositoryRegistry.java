@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jgit.errors.RepositoryNotFoundException;
+import org.eclipse.jgit.lib.RepositoryCache.FileKey;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.util.FS;
+
+/**
+ * Keeps repositories open so that they can be shared, for example between the executions of a Maven session.
+ * <p>
+ * Each Git directory is opened once, along with its {@link TagIndex} and a cache of parsed commits. Users acquire a
+ * {@link RepositoryHandle} and close it when they are done. Repositories are closed once the registry is closed and all handles to them have
+ * been released.
+ * </p>
+ */
+public class RepositoryRegistry implements AutoCloseable
+{
+    private final Map<File, SharedRepository> repositories = new HashMap<>();
+    private boolean closed;
+
+    /**
+     * Acquires a handle to the repository of the given directory, opening the repository if needed.
+     *
+     * @param directory the Git directory of the repository, or a directory within its working tree
+     * @return the handle, which must be closed when no longer used
+     */
+    public synchronized RepositoryHandle acquire(File directory) throws IOException
+    {
+        if (closed)
+        {
+            throw new IllegalStateException("The registry is closed");
+        }
+
+        File gitDirectory = new FileRepositoryBuilder().findGitDir(requireNonNull(directory)).getGitDir();
+        if (gitDirectory == null)
+        {
+            throw new RepositoryNotFoundException(directory);
+        }
+        gitDirectory = gitDirectory.getCanonicalFile();
+        SharedRepository repository = repositories.get(gitDirectory);
+        if (repository == null)
+        {
+            repository = new SharedRepository(FileKey.exact(gitDirectory, FS.DETECTED).open(true));
+            repositories.put(gitDirectory, repository);
+        }
+        repository.leases++;
+        return new RepositoryHandle(this, repository);
+    }
+
+    /**
+     * Releases a lease of the given repository.
+     *
+     * @param repository the repository to release
+     */
+    synchronized void release(SharedRepository repository)
+    {
+        repository.leases--;
+        if (closed && repository.leases == 0)
+        {
+            repository.close();
+        }
+    }
+
+    @Override
+    public synchronized void close()
+    {
+        closed = true;
+        List<File> released = new ArrayList<>();
+        for (Map.Entry<File, SharedRepository> entry : repositories.entrySet())
+        {
+            if (entry.getValue().leases == 0)
+            {
+                entry.getValue().close();
+                released.add(entry.getKey());
+            }
+        }
+        repositories.keySet().removeAll(released);
+    }
+}
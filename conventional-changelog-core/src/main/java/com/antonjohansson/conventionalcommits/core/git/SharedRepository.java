@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.jgit.events.ListenerHandle;
+import org.eclipse.jgit.lib.Repository;
+
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+
+/**
+ * Defines a repository that is shared through a {@link RepositoryRegistry}, along with the indexes and caches that belong to it.
+ */
+class SharedRepository
+{
+    final Repository repository;
+    final Map<String, Change> commits = new ConcurrentHashMap<>();
+    private final ListenerHandle refsChangedListener;
+    private volatile TagIndex tagIndex;
+    int leases;
+
+    SharedRepository(Repository repository)
+    {
+        this.repository = repository;
+        this.refsChangedListener = repository.getListenerList().addRefsChangedListener(event -> tagIndex = null);
+    }
+
+    /**
+     * Gets the tag index, building it if the refs have changed since it was last built.
+     *
+     * @return the tag index
+     */
+    TagIndex getTagIndex() throws IOException
+    {
+        TagIndex index = tagIndex;
+        if (index == null)
+        {
+            index = TagIndex.build(repository);
+            tagIndex = index;
+        }
+        return index;
+    }
+
+    void close()
+    {
+        refsChangedListener.remove();
+        repository.close();
+    }
+}
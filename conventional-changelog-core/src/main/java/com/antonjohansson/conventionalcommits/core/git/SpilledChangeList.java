@@ -0,0 +1,263 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.unmodifiableList;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+import com.antonjohansson.conventionalcommits.core.git.model.Note;
+import com.antonjohansson.conventionalcommits.core.git.model.Reference;
+import com.antonjohansson.conventionalcommits.core.git.model.Revert;
+
+/**
+ * A list of changes that is stored in a file and read back when it is used. The changes are kept through a soft reference once read, so
+ * that a list that is iterated several times in a row is only read once, while the garbage collector can still reclaim it when memory runs
+ * low.
+ */
+class SpilledChangeList extends AbstractList<Change>
+{
+    private static final int NULL = -1;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final File file;
+    private final int size;
+    private SoftReference<List<Change>> changes = new SoftReference<>(null);
+
+    private SpilledChangeList(File file, int size)
+    {
+        this.file = file;
+        this.size = size;
+    }
+
+    /**
+     * Writes changes to a new file in the given directory. The file is deleted when the JVM exits.
+     *
+     * @param changes the changes to write
+     * @param directory the directory to write the file in
+     * @return a list that reads the changes back from the file
+     */
+    static SpilledChangeList write(List<Change> changes, File directory) throws IOException
+    {
+        File file = File.createTempFile("changes", ".bin", directory);
+        file.deleteOnExit();
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file.toPath()))))
+        {
+            for (Change change : changes)
+            {
+                write(change, output);
+            }
+        }
+        return new SpilledChangeList(file, changes.size());
+    }
+
+    /**
+     * Estimates the number of bytes that a change retains on the heap. The estimate is rough, but errs on the high side.
+     *
+     * @param change the change to estimate
+     * @return the estimated number of bytes
+     */
+    static long estimateSize(Change change)
+    {
+        long size = 96 + estimateSize(change.getHash()) + estimateSize(change.getType()) + estimateSize(change.getScope().orElse(null))
+            + estimateSize(change.getTitle()) + estimateSize(change.getBody().orElse(null)) + estimateSize(change.getFooter().orElse(null));
+        for (Note note : change.getNotes())
+        {
+            size += 32 + estimateSize(note.getTitle()) + estimateSize(note.getText());
+        }
+        for (Reference reference : change.getReferences())
+        {
+            size += 48 + estimateSize(reference.getAction()) + estimateSize(reference.getPrefix()) + estimateSize(reference.getIssue())
+                + estimateSize(reference.getRaw());
+        }
+        for (String path : change.getPaths())
+        {
+            size += 8 + estimateSize(path);
+        }
+        return size;
+    }
+
+    private static long estimateSize(String value)
+    {
+        return value == null ? 0 : 56 + 2L * value.length();
+    }
+
+    @Override
+    public Change get(int index)
+    {
+        return load().get(index);
+    }
+
+    @Override
+    public Iterator<Change> iterator()
+    {
+        return load().iterator();
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    private List<Change> load()
+    {
+        List<Change> loaded = changes.get();
+        if (loaded != null)
+        {
+            return loaded;
+        }
+
+        List<Change> list = new ArrayList<>(size);
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath()))))
+        {
+            for (int index = 0; index < size; index++)
+            {
+                list.add(read(input));
+            }
+        }
+        catch (IOException e)
+        {
+            throw new UncheckedIOException("Could not read spilled changes from " + file, e);
+        }
+
+        loaded = unmodifiableList(list);
+        changes = new SoftReference<>(loaded);
+        return loaded;
+    }
+
+    private static void write(Change change, DataOutputStream output) throws IOException
+    {
+        writeString(change.getHash(), output);
+        writeString(change.getType(), output);
+        writeString(change.getScope().orElse(null), output);
+        writeString(change.getTitle(), output);
+        writeString(change.getBody().orElse(null), output);
+        writeString(change.getFooter().orElse(null), output);
+
+        output.writeInt(change.getNotes().size());
+        for (Note note : change.getNotes())
+        {
+            writeString(note.getTitle(), output);
+            writeString(note.getText(), output);
+        }
+
+        output.writeInt(change.getReferences().size());
+        for (Reference reference : change.getReferences())
+        {
+            writeString(reference.getAction(), output);
+            writeString(reference.getOwner().orElse(null), output);
+            writeString(reference.getRepository().orElse(null), output);
+            writeString(reference.getPrefix(), output);
+            writeString(reference.getIssue(), output);
+            writeString(reference.getRaw(), output);
+        }
+
+        output.writeBoolean(change.getRevert().isPresent());
+        if (change.getRevert().isPresent())
+        {
+            writeString(change.getRevert().get().getHeader(), output);
+            writeString(change.getRevert().get().getHash(), output);
+        }
+
+        output.writeInt(change.getPaths().size());
+        for (String path : change.getPaths())
+        {
+            writeString(path, output);
+        }
+
+        output.writeLong(change.getTime().map(Instant::getEpochSecond).orElse(NO_TIME));
+        writeString(change.getComponent().orElse(null), output);
+    }
+
+    private static Change read(DataInputStream input) throws IOException
+    {
+        String hash = readString(input);
+        String type = readString(input);
+        String scope = readString(input);
+        String title = readString(input);
+        String body = readString(input);
+        String footer = readString(input);
+
+        int noteCount = input.readInt();
+        List<Note> notes = new ArrayList<>(noteCount);
+        for (int index = 0; index < noteCount; index++)
+        {
+            notes.add(new Note(readString(input), readString(input)));
+        }
+
+        int referenceCount = input.readInt();
+        List<Reference> references = new ArrayList<>(referenceCount);
+        for (int index = 0; index < referenceCount; index++)
+        {
+            references.add(new Reference(readString(input), readString(input), readString(input), readString(input), readString(input), readString(input)));
+        }
+
+        Revert revert = input.readBoolean()
+            ? new Revert(readString(input), readString(input))
+            : null;
+
+        int pathCount = input.readInt();
+        List<String> paths = new ArrayList<>(pathCount);
+        for (int index = 0; index < pathCount; index++)
+        {
+            paths.add(readString(input));
+        }
+
+        long time = input.readLong();
+        String component = readString(input);
+        return new Change(hash, type, scope, title, body, footer, notes, references, revert, paths, time == NO_TIME ? null : Instant.ofEpochSecond(time), component);
+    }
+
+    private static void writeString(String value, DataOutputStream output) throws IOException
+    {
+        if (value == null)
+        {
+            output.writeInt(NULL);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(DataInputStream input) throws IOException
+    {
+        int length = input.readInt();
+        if (length == NULL)
+        {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
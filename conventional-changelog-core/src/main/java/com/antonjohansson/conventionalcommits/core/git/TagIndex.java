@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableSortedMap;
+import static org.eclipse.jgit.lib.Constants.R_TAGS;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.eclipse.jgit.lib.AnyObjectId;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefDatabase;
+import org.eclipse.jgit.lib.Repository;
+
+/**
+ * Indexes the tags of a repository by the commits they point at.
+ * <p>
+ * Looking up the tags of a commit through the ref database scans all refs, which makes a history walk quadratic in the number of refs. This
+ * index is built once, with annotated tags peeled to their commits, and answers each lookup with a single hash lookup.
+ * </p>
+ */
+public final class TagIndex
+{
+    private final Map<ObjectId, List<String>> tagsByCommit;
+    private final SortedMap<String, ObjectId> commitsByTag;
+
+    private TagIndex(Map<ObjectId, List<String>> tagsByCommit, SortedMap<String, ObjectId> commitsByTag)
+    {
+        this.tagsByCommit = tagsByCommit;
+        this.commitsByTag = unmodifiableSortedMap(commitsByTag);
+    }
+
+    /**
+     * Builds an index of the tags of the given repository.
+     *
+     * @param repository the repository to index
+     * @return the index
+     */
+    public static TagIndex build(Repository repository) throws IOException
+    {
+        Map<ObjectId, List<String>> tagsByCommit = new HashMap<>();
+        SortedMap<String, ObjectId> commitsByTag = new TreeMap<>();
+
+        RefDatabase refDatabase = repository.getRefDatabase();
+        for (Ref ref : refDatabase.getRefsByPrefix(R_TAGS))
+        {
+            Ref peeled = refDatabase.peel(ref);
+            ObjectId commit = peeled.getPeeledObjectId() != null
+                ? peeled.getPeeledObjectId()
+                : peeled.getObjectId();
+            if (commit == null)
+            {
+                continue;
+            }
+
+            String tagName = ref.getName().substring(R_TAGS.length());
+            tagsByCommit.computeIfAbsent(commit, key -> new ArrayList<>(1)).add(tagName);
+            commitsByTag.put(tagName, commit);
+        }
+
+        return new TagIndex(tagsByCommit, commitsByTag);
+    }
+
+    /**
+     * Gets the names of the tags that point at the given commit.
+     *
+     * @param commit the commit to get tags for
+     * @return the tag names, without the {@code refs/tags/} prefix
+     */
+    public List<String> getTagNames(AnyObjectId commit)
+    {
+        return tagsByCommit.getOrDefault(commit, emptyList());
+    }
+
+    /**
+     * Gets all tags along with the commits they point at, sorted by tag name.
+     *
+     * @return the tags
+     */
+    public SortedMap<String, ObjectId> getTags()
+    {
+        return commitsByTag;
+    }
+}
@@ -0,0 +1,224 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static org.apache.commons.lang3.builder.ToStringBuilder.reflectionToString;
+import static org.apache.commons.lang3.builder.ToStringStyle.SHORT_PREFIX_STYLE;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+
+/**
+ * Defines how JGit reads pack files. On repositories with large pack files, most of the time spent collecting change sets goes to reading
+ * pack windows and resolving deltas, which these settings control.
+ * <p>
+ * The settings are global to the JVM, because JGit shares one window cache between all repositories. Settings that are not set keep the
+ * JGit defaults. The first settings that are installed are kept for the life of the JVM.
+ * </p>
+ */
+public final class WindowCacheSettings
+{
+    private static final Object LOCK = new Object();
+    private static WindowCacheSettings installed;
+
+    private Boolean packedGitMMAP;
+    private Integer packedGitWindowSize;
+    private Long packedGitLimit;
+    private Integer deltaBaseCacheLimit;
+    private Integer streamFileThreshold;
+
+    /**
+     * Sets whether or not to memory map pack files instead of reading them into heap buffers. Defaults to {@code false}.
+     *
+     * @param packedGitMMAP whether or not to memory map pack files
+     * @return the settings themselves, used for chaining
+     */
+    public WindowCacheSettings packedGitMMAP(boolean packedGitMMAP)
+    {
+        this.packedGitMMAP = packedGitMMAP;
+        return this;
+    }
+
+    /**
+     * Sets the number of bytes of a pack file to load into memory in a single read. Must be a power of two of at least 4 KiB. Defaults to 8 KiB.
+     *
+     * @param packedGitWindowSize the window size, in bytes
+     * @return the settings themselves, used for chaining
+     */
+    public WindowCacheSettings packedGitWindowSize(int packedGitWindowSize)
+    {
+        this.packedGitWindowSize = packedGitWindowSize;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of bytes to cache from pack files. Defaults to 10 MiB.
+     *
+     * @param packedGitLimit the limit, in bytes
+     * @return the settings themselves, used for chaining
+     */
+    public WindowCacheSettings packedGitLimit(long packedGitLimit)
+    {
+        this.packedGitLimit = packedGitLimit;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of bytes to cache for resolved delta bases. Defaults to 10 MiB.
+     *
+     * @param deltaBaseCacheLimit the limit, in bytes
+     * @return the settings themselves, used for chaining
+     */
+    public WindowCacheSettings deltaBaseCacheLimit(int deltaBaseCacheLimit)
+    {
+        this.deltaBaseCacheLimit = deltaBaseCacheLimit;
+        return this;
+    }
+
+    /**
+     * Sets the size of the largest object to load fully into memory. Larger objects are streamed. Defaults to 50 MiB.
+     *
+     * @param streamFileThreshold the threshold, in bytes
+     * @return the settings themselves, used for chaining
+     */
+    public WindowCacheSettings streamFileThreshold(int streamFileThreshold)
+    {
+        this.streamFileThreshold = streamFileThreshold;
+        return this;
+    }
+
+    /**
+     * Gets whether or not any setting is set.
+     *
+     * @return {@code true} if all settings keep the JGit defaults
+     */
+    public boolean isEmpty()
+    {
+        return packedGitMMAP == null
+            && packedGitWindowSize == null
+            && packedGitLimit == null
+            && deltaBaseCacheLimit == null
+            && streamFileThreshold == null;
+    }
+
+    /**
+     * Creates the JGit configuration of these settings.
+     *
+     * @return the JGit configuration
+     */
+    public WindowCacheConfig toConfig()
+    {
+        WindowCacheConfig config = new WindowCacheConfig();
+        if (packedGitMMAP != null)
+        {
+            config.setPackedGitMMAP(packedGitMMAP);
+        }
+        if (packedGitWindowSize != null)
+        {
+            config.setPackedGitWindowSize(packedGitWindowSize);
+        }
+        if (packedGitLimit != null)
+        {
+            config.setPackedGitLimit(packedGitLimit);
+        }
+        if (deltaBaseCacheLimit != null)
+        {
+            config.setDeltaBaseCacheLimit(deltaBaseCacheLimit);
+        }
+        if (streamFileThreshold != null)
+        {
+            config.setStreamFileThreshold(streamFileThreshold);
+        }
+        return config;
+    }
+
+    /**
+     * Installs these settings, unless they are empty. Only the first settings that are installed take effect, since reconfiguring the shared
+     * cache flushes it for every repository that is being read. Later settings that differ from them are ignored.
+     *
+     * @return {@code false} if other settings were already installed, and these settings are ignored
+     */
+    public boolean install()
+    {
+        if (isEmpty())
+        {
+            return true;
+        }
+
+        synchronized (LOCK)
+        {
+            if (installed == null)
+            {
+                toConfig().install();
+                installed = copy();
+            }
+            return equals(installed);
+        }
+    }
+
+    /**
+     * Gets the settings that are installed in this JVM.
+     *
+     * @return the installed settings, or empty if no settings are installed
+     */
+    public static Optional<WindowCacheSettings> getInstalled()
+    {
+        synchronized (LOCK)
+        {
+            return Optional.ofNullable(installed).map(WindowCacheSettings::copy);
+        }
+    }
+
+    private WindowCacheSettings copy()
+    {
+        WindowCacheSettings copy = new WindowCacheSettings();
+        copy.packedGitMMAP = packedGitMMAP;
+        copy.packedGitWindowSize = packedGitWindowSize;
+        copy.packedGitLimit = packedGitLimit;
+        copy.deltaBaseCacheLimit = deltaBaseCacheLimit;
+        copy.streamFileThreshold = streamFileThreshold;
+        return copy;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(packedGitMMAP, packedGitWindowSize, packedGitLimit, deltaBaseCacheLimit, streamFileThreshold);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (obj instanceof WindowCacheSettings)
+        {
+            WindowCacheSettings that = (WindowCacheSettings) obj;
+            return Objects.equals(this.packedGitMMAP, that.packedGitMMAP)
+                && Objects.equals(this.packedGitWindowSize, that.packedGitWindowSize)
+                && Objects.equals(this.packedGitLimit, that.packedGitLimit)
+                && Objects.equals(this.deltaBaseCacheLimit, that.deltaBaseCacheLimit)
+                && Objects.equals(this.streamFileThreshold, that.streamFileThreshold);
+        }
+        return false;
+    }
+
+    @Override
+    public String toString()
+    {
+        return reflectionToString(this, SHORT_PREFIX_STYLE);
+    }
+}
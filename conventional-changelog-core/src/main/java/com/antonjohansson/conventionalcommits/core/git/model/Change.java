@@ -18,11 +18,11 @@ package com.antonjohansson.conventionalcommits.core.git.model;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.requireNonNull;
-import static org.apache.commons.lang3.ObjectUtils.defaultIfNull;
 import static org.apache.commons.lang3.StringUtils.trimToNull;
 import static org.apache.commons.lang3.builder.ToStringBuilder.reflectionToString;
 import static org.apache.commons.lang3.builder.ToStringStyle.SHORT_PREFIX_STYLE;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -41,8 +41,21 @@ public final class Change
     private final List<Note> notes;
     private final List<Reference> references;
     private final Revert revert;
+    private final List<String> paths;
+    private final Instant time;
+    private final String component;
 
     public Change(String hash, String type, String scope, String title, String body, String footer, List<Note> notes, List<Reference> references, Revert revert)
+    {
+        this(hash, type, scope, title, body, footer, notes, references, revert, null);
+    }
+
+    public Change(String hash, String type, String scope, String title, String body, String footer, List<Note> notes, List<Reference> references, Revert revert, List<String> paths)
+    {
+        this(hash, type, scope, title, body, footer, notes, references, revert, paths, null, null);
+    }
+
+    public Change(String hash, String type, String scope, String title, String body, String footer, List<Note> notes, List<Reference> references, Revert revert, List<String> paths, Instant time, String component)
     {
         this.hash = requireNonNull(hash);
         this.type = type; // requireNonNull(kind);
@@ -50,9 +63,20 @@ public final class Change
         this.title = title; // requireNonNull(title);
         this.body = trimToNull(body);
         this.footer = trimToNull(footer);
-        this.notes = unmodifiableList(defaultIfNull(notes, emptyList()));
-        this.references = unmodifiableList(defaultIfNull(references, emptyList()));
+        this.notes = immutable(notes);
+        this.references = immutable(references);
         this.revert = revert;
+        this.paths = immutable(paths);
+        this.time = time;
+        this.component = component;
+    }
+
+    private static <T> List<T> immutable(List<T> list)
+    {
+        // Most commits have no notes, references or paths, so they share the same empty list
+        return list == null || list.isEmpty()
+            ? emptyList()
+            : unmodifiableList(list);
     }
 
     public String getHash()
@@ -100,6 +124,59 @@ public final class Change
         return Optional.ofNullable(revert);
     }
 
+    /**
+     * Gets the paths that were changed by this commit, relative to the root of the repository. This is only populated if the collector was
+     * asked to collect paths.
+     *
+     * @return the changed paths
+     */
+    public List<String> getPaths()
+    {
+        return paths;
+    }
+
+    /**
+     * Gets the time of the commit. This is populated by the collector, but not when parsing a message on its own.
+     *
+     * @return the commit time
+     */
+    public Optional<Instant> getTime()
+    {
+        return Optional.ofNullable(time);
+    }
+
+    /**
+     * Gets the name of the component that this change belongs to. This is only populated in changelogs that aggregate several repositories.
+     *
+     * @return the name of the component
+     */
+    public Optional<String> getComponent()
+    {
+        return Optional.ofNullable(component);
+    }
+
+    /**
+     * Creates a copy of this change with the given changed paths.
+     *
+     * @param paths the changed paths
+     * @return the copy
+     */
+    public Change withPaths(List<String> paths)
+    {
+        return new Change(hash, type, scope, title, body, footer, notes, references, revert, paths, time, component);
+    }
+
+    /**
+     * Creates a copy of this change that belongs to the given component.
+     *
+     * @param component the name of the component
+     * @return the copy
+     */
+    public Change withComponent(String component)
+    {
+        return new Change(hash, type, scope, title, body, footer, notes, references, revert, paths, time, component);
+    }
+
     @Override
     public int hashCode()
     {
@@ -120,7 +197,10 @@ public final class Change
                 && Objects.equals(this.footer, that.footer)
                 && Objects.equals(this.notes, that.notes)
                 && Objects.equals(this.references, that.references)
-                && Objects.equals(this.revert, that.revert);
+                && Objects.equals(this.revert, that.revert)
+                && Objects.equals(this.paths, that.paths)
+                && Objects.equals(this.time, that.time)
+                && Objects.equals(this.component, that.component);
         }
         return false;
     }
@@ -22,6 +22,7 @@ import static org.apache.commons.lang3.builder.ToStringStyle.SHORT_PREFIX_STYLE;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Defines a set of changes (A.K.A. a release or version).
@@ -33,14 +34,31 @@ public final class ChangeSet
     private final String previousTagName;
     private final LocalDate createdAt;
     private final List<Change> changes;
+    private final String tagId;
+    private final String previousTagId;
+    private final String collectionOptions;
 
     public ChangeSet(String version, String tagName, String previousTagName, LocalDate createdAt, List<Change> changes)
+    {
+        this(version, tagName, previousTagName, createdAt, changes, null, null);
+    }
+
+    public ChangeSet(String version, String tagName, String previousTagName, LocalDate createdAt, List<Change> changes, String tagId, String previousTagId)
+    {
+        this(version, tagName, previousTagName, createdAt, changes, tagId, previousTagId, null);
+    }
+
+    public ChangeSet(String version, String tagName, String previousTagName, LocalDate createdAt, List<Change> changes, String tagId, String previousTagId,
+            String collectionOptions)
     {
         this.version = requireNonNull(version);
         this.tagName = requireNonNull(tagName);
         this.previousTagName = requireNonNull(previousTagName);
         this.createdAt = requireNonNull(createdAt);
         this.changes = unmodifiableList(requireNonNull(changes));
+        this.tagId = tagId;
+        this.previousTagId = previousTagId;
+        this.collectionOptions = collectionOptions;
     }
 
     public String getVersion()
@@ -68,6 +86,60 @@ public final class ChangeSet
         return changes;
     }
 
+    /**
+     * Gets the identifier of the commit that the tag of this change set points at. This is empty if the version is not tagged yet.
+     *
+     * @return the commit identifier of the tag
+     */
+    public Optional<String> getTagId()
+    {
+        return Optional.ofNullable(tagId);
+    }
+
+    /**
+     * Gets the identifier of the commit that the previous tag points at.
+     *
+     * @return the commit identifier of the previous tag
+     */
+    public Optional<String> getPreviousTagId()
+    {
+        return Optional.ofNullable(previousTagId);
+    }
+
+    /**
+     * Gets the options of the collector that decide which changes a version contains, such as the walk mode or the path it was filtered by. Change sets of the same tags
+     * can contain different changes when they are collected with different options.
+     *
+     * @return the collection options
+     */
+    public Optional<String> getCollectionOptions()
+    {
+        return Optional.ofNullable(collectionOptions);
+    }
+
+    /**
+     * Creates a copy of this change set with the given changes.
+     *
+     * @param changes the changes
+     * @return the copy
+     */
+    public ChangeSet withChanges(List<Change> changes)
+    {
+        return withChanges(changes, collectionOptions);
+    }
+
+    /**
+     * Creates a copy of this change set with the given changes, which were chosen with the given collection options.
+     *
+     * @param changes the changes
+     * @param collectionOptions the collection options
+     * @return the copy
+     */
+    public ChangeSet withChanges(List<Change> changes, String collectionOptions)
+    {
+        return new ChangeSet(version, tagName, previousTagName, createdAt, changes, tagId, previousTagId, collectionOptions);
+    }
+
     @Override
     public String toString()
     {
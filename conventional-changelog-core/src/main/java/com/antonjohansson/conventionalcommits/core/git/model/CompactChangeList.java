@@ -0,0 +1,362 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git.model;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+
+import java.time.Instant;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * A list of changes that is stored by column rather than as one object graph per change, for collecting large histories.
+ * <p>
+ * Hashes are stored as raw bytes, texts as UTF-8 in a shared buffer, and types, scopes and components as small integer ids into
+ * dictionaries. Notes, references, reverts and paths are rare, so they are only stored for the changes that have them. Each
+ * {@link #get(int)} creates a short-lived {@link Change} that views the stored columns, so changes read from this list are equal to the
+ * ones that were added, but not the same instances.
+ * </p>
+ * <p>
+ * Hashes must be full, hexadecimal SHA-1 hashes, as produced by the collector.
+ * </p>
+ */
+public final class CompactChangeList extends AbstractList<Change> implements RandomAccess
+{
+    private static final int HASH_LENGTH = 20;
+    private static final int NONE = -1;
+    private static final long NO_TEXT = -1L;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Dictionary types = new Dictionary();
+    private final Dictionary scopes = new Dictionary();
+    private final Dictionary components = new Dictionary();
+    private final Texts texts = new Texts();
+
+    private int size;
+    private byte[] hashes = new byte[0];
+    private int[] typeIds = new int[0];
+    private int[] scopeIds = new int[0];
+    private int[] componentIds = new int[0];
+    private long[] times = new long[0];
+    private long[] titles = new long[0];
+    private long[] bodies = new long[0];
+    private long[] footers = new long[0];
+    private Extras[] extras = new Extras[0];
+
+    /**
+     * Instantiates a new, empty instance of {@link CompactChangeList}.
+     */
+    public CompactChangeList()
+    {
+    }
+
+    /**
+     * Instantiates a new instance of {@link CompactChangeList} containing the given changes.
+     *
+     * @param changes the changes to add
+     */
+    public CompactChangeList(Collection<Change> changes)
+    {
+        ensureCapacity(changes.size());
+        addAll(changes);
+    }
+
+    @Override
+    public boolean add(Change change)
+    {
+        requireNonNull(change);
+        ensureCapacity(size + 1);
+
+        setHash(size, change.getHash());
+        typeIds[size] = types.id(change.getType());
+        scopeIds[size] = scopes.id(change.getScope().orElse(null));
+        componentIds[size] = components.id(change.getComponent().orElse(null));
+        times[size] = change.getTime().map(Instant::getEpochSecond).orElse(NO_TIME);
+        titles[size] = texts.add(change.getTitle());
+        bodies[size] = texts.add(change.getBody().orElse(null));
+        footers[size] = texts.add(change.getFooter().orElse(null));
+
+        boolean hasExtras = !change.getNotes().isEmpty()
+            || !change.getReferences().isEmpty()
+            || change.getRevert().isPresent()
+            || !change.getPaths().isEmpty();
+        extras[size] = hasExtras
+            ? new Extras(copy(change.getNotes()), copy(change.getReferences()), change.getRevert().orElse(null), copy(change.getPaths()))
+            : null;
+
+        size++;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public Change get(int index)
+    {
+        if (index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+
+        Extras extra = extras[index];
+        Instant time = times[index] == NO_TIME ? null : Instant.ofEpochSecond(times[index]);
+        return new Change(
+                getHash(index),
+                types.value(typeIds[index]),
+                scopes.value(scopeIds[index]),
+                texts.get(titles[index]),
+                texts.get(bodies[index]),
+                texts.get(footers[index]),
+                extra != null ? extra.notes : null,
+                extra != null ? extra.references : null,
+                extra != null ? extra.revert : null,
+                extra != null ? extra.paths : null,
+                time,
+                components.value(componentIds[index]));
+    }
+
+    @Override
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Trims the capacity of the columns to the number of changes, releasing the memory reserved for further changes.
+     */
+    public void trimToSize()
+    {
+        resize(size);
+        texts.trimToSize();
+    }
+
+    /**
+     * Reverses the order of the changes, without copying their content.
+     */
+    public void reverse()
+    {
+        for (int i = 0, j = size - 1; i < j; i++, j--)
+        {
+            for (int k = 0; k < HASH_LENGTH; k++)
+            {
+                byte hash = hashes[i * HASH_LENGTH + k];
+                hashes[i * HASH_LENGTH + k] = hashes[j * HASH_LENGTH + k];
+                hashes[j * HASH_LENGTH + k] = hash;
+            }
+            swap(typeIds, i, j);
+            swap(scopeIds, i, j);
+            swap(componentIds, i, j);
+            swap(times, i, j);
+            swap(titles, i, j);
+            swap(bodies, i, j);
+            swap(footers, i, j);
+
+            Extras extra = extras[i];
+            extras[i] = extras[j];
+            extras[j] = extra;
+        }
+        modCount++;
+    }
+
+    private static void swap(int[] array, int i, int j)
+    {
+        int value = array[i];
+        array[i] = array[j];
+        array[j] = value;
+    }
+
+    private static void swap(long[] array, int i, int j)
+    {
+        long value = array[i];
+        array[i] = array[j];
+        array[j] = value;
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        int current = typeIds.length;
+        if (capacity <= current)
+        {
+            return;
+        }
+
+        resize(Math.max(capacity, Math.max(16, current + (current >> 1))));
+    }
+
+    private void resize(int newCapacity)
+    {
+        hashes = Arrays.copyOf(hashes, newCapacity * HASH_LENGTH);
+        typeIds = Arrays.copyOf(typeIds, newCapacity);
+        scopeIds = Arrays.copyOf(scopeIds, newCapacity);
+        componentIds = Arrays.copyOf(componentIds, newCapacity);
+        times = Arrays.copyOf(times, newCapacity);
+        titles = Arrays.copyOf(titles, newCapacity);
+        bodies = Arrays.copyOf(bodies, newCapacity);
+        footers = Arrays.copyOf(footers, newCapacity);
+        extras = Arrays.copyOf(extras, newCapacity);
+    }
+
+    private static <T> List<T> copy(List<T> list)
+    {
+        // The lists of the parser have room to grow, so only keep what is needed
+        switch (list.size())
+        {
+            case 0:
+                return emptyList();
+            case 1:
+                return singletonList(list.get(0));
+            default:
+                return unmodifiableList(new ArrayList<>(list));
+        }
+    }
+
+    private void setHash(int index, String hash)
+    {
+        if (hash.length() != HASH_LENGTH * 2)
+        {
+            throw new IllegalArgumentException("Expected a full SHA-1 hash, but got '" + hash + "'");
+        }
+        for (int i = 0; i < HASH_LENGTH; i++)
+        {
+            int high = digit(hash.charAt(i * 2));
+            int low = digit(hash.charAt(i * 2 + 1));
+            if (high < 0 || low < 0)
+            {
+                throw new IllegalArgumentException("Expected a full SHA-1 hash, but got '" + hash + "'");
+            }
+            hashes[index * HASH_LENGTH + i] = (byte) (high << 4 | low);
+        }
+    }
+
+    private static int digit(char character)
+    {
+        if (character >= '0' && character <= '9')
+        {
+            return character - '0';
+        }
+        if (character >= 'a' && character <= 'f')
+        {
+            return character - 'a' + 10;
+        }
+        return -1;
+    }
+
+    private String getHash(int index)
+    {
+        char[] hash = new char[HASH_LENGTH * 2];
+        for (int i = 0; i < HASH_LENGTH; i++)
+        {
+            int value = hashes[index * HASH_LENGTH + i] & 0xff;
+            hash[i * 2] = HEX[value >>> 4];
+            hash[i * 2 + 1] = HEX[value & 0xf];
+        }
+        return new String(hash);
+    }
+
+    /**
+     * Assigns small integer ids to a set of recurring values.
+     */
+    private static class Dictionary
+    {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int id(String value)
+        {
+            if (value == null)
+            {
+                return NONE;
+            }
+            return ids.computeIfAbsent(value, key ->
+            {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+
+        String value(int id)
+        {
+            return id == NONE ? null : values.get(id);
+        }
+    }
+
+    /**
+     * Stores texts as UTF-8 in a shared buffer. A text is referred to by its offset and length, packed into a {@code long}.
+     */
+    private static class Texts
+    {
+        private byte[] data = new byte[0];
+        private int length;
+
+        long add(String text)
+        {
+            if (text == null)
+            {
+                return NO_TEXT;
+            }
+
+            byte[] bytes = text.getBytes(UTF_8);
+            if (length + bytes.length > data.length)
+            {
+                data = Arrays.copyOf(data, Math.max(length + bytes.length, Math.max(1024, data.length + (data.length >> 1))));
+            }
+
+            System.arraycopy(bytes, 0, data, length, bytes.length);
+            long pointer = (long) length << 32 | bytes.length;
+            length += bytes.length;
+            return pointer;
+        }
+
+        void trimToSize()
+        {
+            data = Arrays.copyOf(data, length);
+        }
+
+        String get(long pointer)
+        {
+            return pointer == NO_TEXT ? null : new String(data, (int) (pointer >>> 32), (int) pointer, UTF_8);
+        }
+    }
+
+    /**
+     * Defines the rarely used fields of a change.
+     */
+    private static class Extras
+    {
+        final List<Note> notes;
+        final List<Reference> references;
+        final Revert revert;
+        final List<String> paths;
+
+        Extras(List<Note> notes, List<Reference> references, Revert revert, List<String> paths)
+        {
+            this.notes = notes;
+            this.references = references;
+            this.revert = revert;
+            this.paths = paths;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git.parser;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.unmodifiableList;
+import static java.util.Objects.requireNonNull;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+
+/**
+ * Validates that commit messages follow the conventional commits format, for example from a {@code commit-msg} hook.
+ * <p>
+ * Messages are parsed with {@link CommitParser}, so a message that passes validation is also understood when the changelog is generated. Only
+ * the parser and the model are loaded, which keeps the validation fast enough to run on every commit.
+ * </p>
+ */
+public class CommitMessageValidator
+{
+    private static final String PLACEHOLDER_HASH = "0000000000000000000000000000000000000000";
+    private static final List<String> IGNORED_PREFIXES = asList("Merge ", "Revert \"", "fixup! ", "squash! ", "amend! ");
+
+    private Set<String> types = new TreeSet<>(asList("feat", "fix", "docs", "style", "refactor", "perf", "test", "build", "ci", "chore", "revert"));
+    private Set<String> scopes = new TreeSet<>();
+
+    /**
+     * Sets the allowed types. By default, the types of the Angular convention are allowed: {@code feat}, {@code fix}, {@code docs},
+     * {@code style}, {@code refactor}, {@code perf}, {@code test}, {@code build}, {@code ci}, {@code chore} and {@code revert}.
+     *
+     * @param types the allowed types
+     * @return the validator itself, used for chaining
+     */
+    public CommitMessageValidator types(List<String> types)
+    {
+        this.types = new TreeSet<>(requireNonNull(types));
+        return this;
+    }
+
+    /**
+     * Sets the allowed scopes. By default, any scope is allowed.
+     *
+     * @param scopes the allowed scopes, or an empty list to allow any scope
+     * @return the validator itself, used for chaining
+     */
+    public CommitMessageValidator scopes(List<String> scopes)
+    {
+        this.scopes = new TreeSet<>(requireNonNull(scopes));
+        return this;
+    }
+
+    /**
+     * Validates the given commit message. Comment lines and everything below the scissor line are ignored, just like Git does when it cleans up
+     * the message. Merge commits, reverts created by Git and {@code fixup!}, {@code squash!} and {@code amend!} commits are always valid.
+     *
+     * @param message the commit message, as written to the message file
+     * @return an unmodifiable list of problems, which is empty if the message is valid
+     */
+    public List<String> validate(String message)
+    {
+        String cleaned = clean(requireNonNull(message));
+        if (isBlank(cleaned))
+        {
+            return unmodifiableList(asList("The message is empty"));
+        }
+        for (String prefix : IGNORED_PREFIXES)
+        {
+            if (cleaned.startsWith(prefix))
+            {
+                return emptyList();
+            }
+        }
+
+        Change change = new CommitParser(PLACEHOLDER_HASH, cleaned).parse();
+        if (change.getType() == null)
+        {
+            String header = cleaned.split("\\r?\\n", 2)[0];
+            return unmodifiableList(asList("The header '" + header + "' does not match 'type(scope): subject'"));
+        }
+
+        List<String> problems = new ArrayList<>();
+        if (!types.contains(change.getType()))
+        {
+            problems.add("The type '" + change.getType() + "' is not one of " + types);
+        }
+        String scope = change.getScope().orElse(null);
+        if (scope != null && !scopes.isEmpty() && !scopes.contains(scope))
+        {
+            problems.add("The scope '" + scope + "' is not one of " + scopes);
+        }
+        if (isBlank(change.getTitle()))
+        {
+            problems.add("The subject is empty");
+        }
+        return unmodifiableList(problems);
+    }
+
+    private String clean(String message)
+    {
+        StringBuilder cleaned = new StringBuilder(message.length());
+        for (String line : message.split("\\r?\\n"))
+        {
+            if (line.equals(CommitParser.SCISSOR))
+            {
+                break;
+            }
+            if (!line.startsWith("#"))
+            {
+                cleaned.append(line).append('\n');
+            }
+        }
+
+        // Leading blank lines are removed by Git as well
+        int start = 0;
+        while (start < cleaned.length() && cleaned.charAt(start) == '\n')
+        {
+            start++;
+        }
+        return cleaned.substring(start);
+    }
+}
@@ -21,6 +21,7 @@ import static java.util.regex.Pattern.CASE_INSENSITIVE;
 import static java.util.stream.Collectors.joining;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -30,18 +31,20 @@ import com.antonjohansson.conventionalcommits.core.git.model.Change;
 import com.antonjohansson.conventionalcommits.core.git.model.Note;
 import com.antonjohansson.conventionalcommits.core.git.model.Reference;
 import com.antonjohansson.conventionalcommits.core.git.model.Revert;
+import com.antonjohansson.conventionalcommits.core.metrics.FlightRecorderEvents;
 
 /**
  * Parses a single commit message and translates it into a {@link Change}.
  */
 public class CommitParser
 {
-    private static final String SCISSOR = "# ------------------------ >8 ------------------------";
+    static final String SCISSOR = "# ------------------------ >8 ------------------------";
     private static final Pattern HEADER_PATTERN = Pattern.compile("^(\\w*)(?:\\((.*)\\))?: (.*)$");
     private static final Pattern REVERT_PATTERN = Pattern.compile("^revert\\s\\\"([\\s\\S]+?)\\\"\\s*This reverts commit (\\w*)\\.", CASE_INSENSITIVE);
 
     private final String hash;
     private final String raw;
+    private Instant time;
     private Pattern notePattern;
     private Pattern referencePattern;
     private Pattern referencePartsPattern;
@@ -61,6 +64,18 @@ public class CommitParser
         issuePrefixes("#");
     }
 
+    /**
+     * Sets the time of the commit, which is carried by the parsed change. By default, the change has no time.
+     *
+     * @param time the commit time
+     * @return the parser itself, used for chaining
+     */
+    public CommitParser time(Instant time)
+    {
+        this.time = requireNonNull(time);
+        return this;
+    }
+
     /**
      * Sets keywords that indicate notes. By default only {@code BREAKING CHANGE} is considered.
      *
@@ -164,6 +179,14 @@ public class CommitParser
      * @return the parsed {@link Change}
      */
     public Change parse()
+    {
+        Object event = FlightRecorderEvents.beginParse();
+        Change change = parseMessage();
+        FlightRecorderEvents.endParse(event, hash, raw.length());
+        return change;
+    }
+
+    private Change parseMessage()
     {
         List<String> lines = getMessageLines(raw);
 
@@ -227,7 +250,7 @@ public class CommitParser
             revert = new Revert(revertHeader, revertHash);
         }
 
-        return new Change(hash, type, scope, title, body, footer, notes, references, revert);
+        return new Change(hash, type, scope, title, body, footer, notes, references, revert, null, time, null);
     }
 
     private List<String> getMessageLines(String message)
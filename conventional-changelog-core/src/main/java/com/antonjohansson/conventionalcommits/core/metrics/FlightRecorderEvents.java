@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import java.io.File;
+import java.util.List;
+
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+
+/**
+ * Emits Java Flight Recorder events for collecting, parsing and writing. This is the implementation for Java 8, which does nothing. On Java
+ * 11 and later, the multi-release JAR provides an implementation that emits events when the flight recorder is recording them.
+ * <p>
+ * Each {@code begin} method returns the event that has begun, or {@code null} if no event is recorded. The event is passed to the matching
+ * {@code end} method, which commits it.
+ * </p>
+ */
+public final class FlightRecorderEvents
+{
+    private FlightRecorderEvents()
+    {
+    }
+
+    /**
+     * Begins an event for collecting change sets.
+     *
+     * @return the event, or {@code null}
+     */
+    public static Object beginCollect()
+    {
+        return null;
+    }
+
+    /**
+     * Ends an event for collecting change sets.
+     *
+     * @param event the event returned by {@link #beginCollect()}
+     * @param projectDirectory the project directory that change sets were collected from
+     * @param changeSets the collected change sets, or {@code null} if collecting failed
+     */
+    public static void endCollect(Object event, File projectDirectory, List<ChangeSet> changeSets)
+    {
+    }
+
+    /**
+     * Begins an event for parsing a commit message.
+     *
+     * @return the event, or {@code null}
+     */
+    public static Object beginParse()
+    {
+        return null;
+    }
+
+    /**
+     * Ends an event for parsing a commit message.
+     *
+     * @param event the event returned by {@link #beginParse()}
+     * @param hash the hash of the commit
+     * @param messageLength the length of the commit message
+     */
+    public static void endParse(Object event, String hash, int messageLength)
+    {
+    }
+
+    /**
+     * Begins an event for writing a change set.
+     *
+     * @return the event, or {@code null}
+     */
+    public static Object beginWrite()
+    {
+        return null;
+    }
+
+    /**
+     * Ends an event for writing a change set.
+     *
+     * @param event the event returned by {@link #beginWrite()}
+     * @param version the version of the change set
+     * @param changes the number of changes in the change set
+     * @param outputBytes the number of bytes written to the main output
+     */
+    public static void endWrite(Object event, String version, int changes, long outputBytes)
+    {
+    }
+}
@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Receives measurements from {@code ChangeSetCollector} and {@code ChangeLogWriter}. All methods do nothing by default, so implementations
+ * only override what they are interested in. Measurements can be reported from several threads at once, for example when change logs are
+ * aggregated or generated in batch.
+ */
+public interface MetricsListener
+{
+    /**
+     * Called when a phase has been run. Phases that are run once per commit or per version are reported each time they are run.
+     *
+     * @param phase the phase
+     * @param nanos the time the phase took, in nanoseconds
+     */
+    default void phase(Phase phase, long nanos)
+    {
+    }
+
+    /**
+     * Called when a counter is increased.
+     *
+     * @param counter the counter
+     * @param amount the amount to increase the counter by
+     */
+    default void count(Counter counter, long amount)
+    {
+    }
+
+    /**
+     * Called when a commit has been parsed, in addition to the {@link Phase#PARSE} phase.
+     *
+     * @param hash the hash of the commit
+     * @param messageLength the length of the commit message
+     * @param nanos the time the parse took, in nanoseconds
+     */
+    default void commitParsed(String hash, int messageLength, long nanos)
+    {
+    }
+
+    /**
+     * Creates a listener that reports to all of the given listeners.
+     *
+     * @param listeners the listeners to report to
+     * @return the listener
+     */
+    static MetricsListener all(MetricsListener... listeners)
+    {
+        List<MetricsListener> targets = new ArrayList<>();
+        for (MetricsListener listener : listeners)
+        {
+            targets.add(requireNonNull(listener));
+        }
+        return new MetricsListener()
+        {
+            @Override
+            public void phase(Phase phase, long nanos)
+            {
+                targets.forEach(target -> target.phase(phase, nanos));
+            }
+
+            @Override
+            public void count(Counter counter, long amount)
+            {
+                targets.forEach(target -> target.count(counter, amount));
+            }
+
+            @Override
+            public void commitParsed(String hash, int messageLength, long nanos)
+            {
+                targets.forEach(target -> target.commitParsed(hash, messageLength, nanos));
+            }
+        };
+    }
+
+    /**
+     * Defines the phases of generating a change log.
+     */
+    enum Phase
+    {
+        /** Opening the Git repository. */
+        OPEN_REPOSITORY,
+
+        /** Reading the POM to find the next version. */
+        READ_POM,
+
+        /** Indexing the tags of the repository, or updating the history index. */
+        INDEX_TAGS,
+
+        /** Walking the commit history, which includes inflating the commit objects. */
+        WALK,
+
+        /** Reading objects outside of the walk, such as the trees of changed paths or changes stored in the history index. */
+        INFLATE,
+
+        /** Parsing a commit message. */
+        PARSE,
+
+        /** Building the templating context of a version. */
+        BUILD_CONTEXT,
+
+        /** Rendering a version to all outputs. */
+        RENDER,
+
+        /** Flushing the main output. */
+        FLUSH;
+
+        /**
+         * Gets a readable label of this phase.
+         *
+         * @return the label
+         */
+        public String getLabel()
+        {
+            return name().toLowerCase(Locale.ROOT).replace('_', ' ');
+        }
+    }
+
+    /**
+     * Defines the counters of generating a change log.
+     */
+    enum Counter
+    {
+        /** Commits read from the history. */
+        COMMITS_VISITED,
+
+        /** Commits whose message was parsed. Commits that are read from a cache or a history index are not parsed. */
+        COMMITS_PARSED,
+
+        /** Commits that are not conventional commits, and thereby left out of the change log. */
+        COMMITS_SKIPPED,
+
+        /** Tags that matched the version tag pattern. */
+        TAGS_MATCHED,
+
+        /** Bytes written to the main output, encoded as UTF-8. */
+        BYTES_WRITTEN;
+
+        /**
+         * Gets a readable label of this counter.
+         *
+         * @return the label
+         */
+        public String getLabel()
+        {
+            return name().toLowerCase(Locale.ROOT).replace('_', ' ');
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link MetricsListener} that sums up all measurements, and keeps a histogram of parse times. The histogram has one bucket per power of
+ * two microseconds.
+ */
+public class MetricsSummary implements MetricsListener
+{
+    private static final int BUCKETS = 40;
+
+    private final AtomicLongArray phases = new AtomicLongArray(Phase.values().length);
+    private final AtomicLongArray counters = new AtomicLongArray(Counter.values().length);
+    private final AtomicLongArray parseTimes = new AtomicLongArray(BUCKETS);
+
+    @Override
+    public void phase(Phase phase, long nanos)
+    {
+        phases.addAndGet(phase.ordinal(), nanos);
+    }
+
+    @Override
+    public void count(Counter counter, long amount)
+    {
+        counters.addAndGet(counter.ordinal(), amount);
+    }
+
+    @Override
+    public void commitParsed(String hash, int messageLength, long nanos)
+    {
+        parseTimes.incrementAndGet(getBucket(nanos));
+    }
+
+    /**
+     * Gets the total time spent in a phase.
+     *
+     * @param phase the phase
+     * @return the time, in nanoseconds
+     */
+    public long getNanos(Phase phase)
+    {
+        return phases.get(phase.ordinal());
+    }
+
+    /**
+     * Gets the value of a counter.
+     *
+     * @param counter the counter
+     * @return the value
+     */
+    public long getCount(Counter counter)
+    {
+        return counters.get(counter.ordinal());
+    }
+
+    /**
+     * Gets the number of parses that took at least {@code 2^(bucket - 1)} and less than {@code 2^bucket} microseconds. Bucket {@code 0} holds
+     * the parses that took less than one microsecond.
+     *
+     * @param bucket the bucket
+     * @return the number of parses
+     */
+    public long getParseCount(int bucket)
+    {
+        return parseTimes.get(bucket);
+    }
+
+    /**
+     * Formats the summary as a readable table, with one line per phase, counter and non-empty histogram bucket.
+     *
+     * @return the formatted summary
+     */
+    public String format()
+    {
+        StringBuilder builder = new StringBuilder();
+        for (Phase phase : Phase.values())
+        {
+            builder.append(String.format("%-20s %,12d ms%n", phase.getLabel(), TimeUnit.NANOSECONDS.toMillis(getNanos(phase))));
+        }
+        for (Counter counter : Counter.values())
+        {
+            builder.append(String.format("%-20s %,12d%n", counter.getLabel(), getCount(counter)));
+        }
+        for (int bucket = 0; bucket < BUCKETS; bucket++)
+        {
+            long count = getParseCount(bucket);
+            if (count > 0)
+            {
+                String label = bucket == 0
+                    ? "parse < 1 us"
+                    : "parse < " + (1L << bucket) + " us";
+                builder.append(String.format("%-20s %,12d%n", label, count));
+            }
+        }
+        return builder.toString();
+    }
+
+    private static int getBucket(long nanos)
+    {
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        return Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+    }
+}
@@ -0,0 +1,167 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import static org.apache.commons.lang3.builder.ToStringBuilder.reflectionToString;
+import static org.apache.commons.lang3.builder.ToStringStyle.SHORT_PREFIX_STYLE;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the commits whose messages took the longest to parse, and the commits with the largest messages. Each is kept in a heap of a fixed
+ * size, so recording a parse takes at most logarithmic time regardless of the size of the history.
+ */
+public class OutlierReport implements MetricsListener
+{
+    private static final Comparator<Outlier> BY_NANOS = Comparator.comparingLong(Outlier::getNanos).thenComparing(Outlier::getHash);
+    private static final Comparator<Outlier> BY_MESSAGE_LENGTH = Comparator.comparingInt(Outlier::getMessageLength).thenComparing(Outlier::getHash);
+
+    private final int size;
+    private final PriorityQueue<Outlier> slowest;
+    private final PriorityQueue<Outlier> largest;
+
+    /**
+     * Instantiates a new instance of {@link OutlierReport}.
+     *
+     * @param size the number of commits to keep of each kind
+     */
+    public OutlierReport(int size)
+    {
+        if (size <= 0)
+        {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        this.size = size;
+        this.slowest = new PriorityQueue<>(size, BY_NANOS);
+        this.largest = new PriorityQueue<>(size, BY_MESSAGE_LENGTH);
+    }
+
+    @Override
+    public synchronized void commitParsed(String hash, int messageLength, long nanos)
+    {
+        Outlier outlier = new Outlier(hash, messageLength, nanos);
+        offer(slowest, outlier, BY_NANOS);
+        offer(largest, outlier, BY_MESSAGE_LENGTH);
+    }
+
+    private void offer(PriorityQueue<Outlier> heap, Outlier outlier, Comparator<Outlier> comparator)
+    {
+        // The heap keeps the smallest outlier at its head, which is the one to replace when a larger one comes along
+        if (heap.size() < size)
+        {
+            heap.add(outlier);
+        }
+        else if (comparator.compare(outlier, heap.peek()) > 0)
+        {
+            heap.poll();
+            heap.add(outlier);
+        }
+    }
+
+    /**
+     * Gets the commits whose messages took the longest to parse.
+     *
+     * @return the commits, slowest first
+     */
+    public synchronized List<Outlier> getSlowest()
+    {
+        return sorted(slowest, BY_NANOS);
+    }
+
+    /**
+     * Gets the commits with the largest messages.
+     *
+     * @return the commits, largest first
+     */
+    public synchronized List<Outlier> getLargest()
+    {
+        return sorted(largest, BY_MESSAGE_LENGTH);
+    }
+
+    private static List<Outlier> sorted(PriorityQueue<Outlier> heap, Comparator<Outlier> comparator)
+    {
+        List<Outlier> outliers = new ArrayList<>(heap);
+        outliers.sort(comparator.reversed());
+        return outliers;
+    }
+
+    /**
+     * Formats the report as a readable table, with one line per commit.
+     *
+     * @return the formatted report
+     */
+    public String format()
+    {
+        StringBuilder builder = new StringBuilder();
+        builder.append("Slowest commits:").append(System.lineSeparator());
+        getSlowest().forEach(outlier -> append(builder, outlier));
+        builder.append("Largest commits:").append(System.lineSeparator());
+        getLargest().forEach(outlier -> append(builder, outlier));
+        return builder.toString();
+    }
+
+    private static void append(StringBuilder builder, Outlier outlier)
+    {
+        builder.append(String.format("  %s %,12d us %,12d chars%n", outlier.getHash(), TimeUnit.NANOSECONDS.toMicros(outlier.getNanos()), outlier.getMessageLength()));
+    }
+
+    /**
+     * Defines a commit that was parsed.
+     */
+    public static class Outlier
+    {
+        private final String hash;
+        private final int messageLength;
+        private final long nanos;
+
+        Outlier(String hash, int messageLength, long nanos)
+        {
+            this.hash = hash;
+            this.messageLength = messageLength;
+            this.nanos = nanos;
+        }
+
+        public String getHash()
+        {
+            return hash;
+        }
+
+        public int getMessageLength()
+        {
+            return messageLength;
+        }
+
+        /**
+         * Gets the time the message took to parse.
+         *
+         * @return the time, in nanoseconds
+         */
+        public long getNanos()
+        {
+            return nanos;
+        }
+
+        @Override
+        public String toString()
+        {
+            return reflectionToString(this, SHORT_PREFIX_STYLE);
+        }
+    }
+}
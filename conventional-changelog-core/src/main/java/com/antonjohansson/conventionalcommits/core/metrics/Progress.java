@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import static org.apache.commons.lang3.builder.ToStringBuilder.reflectionToString;
+import static org.apache.commons.lang3.builder.ToStringStyle.SHORT_PREFIX_STYLE;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Defines the progress of collecting or writing change sets.
+ */
+public class Progress
+{
+    private final String task;
+    private final long done;
+    private final long total;
+    private final int versionsDone;
+    private final int versionsTotal;
+    private final double perSecond;
+    private final Duration eta;
+    private final boolean finished;
+
+    public Progress(String task, long done, long total, int versionsDone, int versionsTotal, double perSecond, Duration eta, boolean finished)
+    {
+        this.task = task;
+        this.done = done;
+        this.total = total;
+        this.versionsDone = versionsDone;
+        this.versionsTotal = versionsTotal;
+        this.perSecond = perSecond;
+        this.eta = eta;
+        this.finished = finished;
+    }
+
+    /**
+     * Gets the name of the task, such as {@code Collecting} or {@code Writing}.
+     *
+     * @return the name of the task
+     */
+    public String getTask()
+    {
+        return task;
+    }
+
+    /**
+     * Gets the number of commits that are done.
+     *
+     * @return the number of commits
+     */
+    public long getDone()
+    {
+        return done;
+    }
+
+    /**
+     * Gets the estimated total number of commits, or {@code -1} if it is not known.
+     *
+     * @return the number of commits
+     */
+    public long getTotal()
+    {
+        return total;
+    }
+
+    public int getVersionsDone()
+    {
+        return versionsDone;
+    }
+
+    /**
+     * Gets the estimated total number of versions, or {@code -1} if it is not known.
+     *
+     * @return the number of versions
+     */
+    public int getVersionsTotal()
+    {
+        return versionsTotal;
+    }
+
+    /**
+     * Gets the number of commits done per second so far.
+     *
+     * @return the number of commits per second
+     */
+    public double getPerSecond()
+    {
+        return perSecond;
+    }
+
+    /**
+     * Gets the estimated time left. This is empty if the total is not known, or if nothing is done yet.
+     *
+     * @return the estimated time left
+     */
+    public Optional<Duration> getEta()
+    {
+        return Optional.ofNullable(eta);
+    }
+
+    /**
+     * Gets whether or not the task is finished. A finished task is always reported, even when reports are throttled.
+     *
+     * @return {@code true} if the task is finished
+     */
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    /**
+     * Formats the progress as a single readable line.
+     *
+     * @return the formatted progress
+     */
+    public String format()
+    {
+        StringBuilder builder = new StringBuilder(task).append(": ").append(done);
+        if (total >= 0)
+        {
+            builder.append('/').append(total);
+        }
+        builder.append(" commits, ").append(versionsDone);
+        if (versionsTotal >= 0)
+        {
+            builder.append('/').append(versionsTotal);
+        }
+        builder.append(" versions, ").append(Math.round(perSecond)).append(" commits/s");
+        if (finished)
+        {
+            builder.append(", done");
+        }
+        else if (eta != null)
+        {
+            builder.append(", ETA ").append(eta.getSeconds()).append('s');
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public String toString()
+    {
+        return reflectionToString(this, SHORT_PREFIX_STYLE);
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+import org.eclipse.jgit.lib.ProgressMonitor;
+
+/**
+ * Receives the {@link Progress} of {@code ChangeSetCollector} and {@code ChangeLogWriter}. Progress is reported for every commit, so
+ * listeners that do more than cheap bookkeeping should be {@link #throttled(ProgressListener, Duration) throttled}.
+ */
+public interface ProgressListener
+{
+    /**
+     * Called when progress has been made.
+     *
+     * @param progress the progress
+     */
+    void progress(Progress progress);
+
+    /**
+     * Creates a listener that passes progress on to the given listener at most once per interval. Finished tasks are always passed on.
+     *
+     * @param listener the listener to pass progress on to
+     * @param interval the shortest time between two reports
+     * @return the listener
+     */
+    static ProgressListener throttled(ProgressListener listener, Duration interval)
+    {
+        requireNonNull(listener);
+        long intervalNanos = interval.toNanos();
+        return new ProgressListener()
+        {
+            private long last = System.nanoTime() - intervalNanos;
+
+            @Override
+            public synchronized void progress(Progress progress)
+            {
+                long now = System.nanoTime();
+                if (progress.isFinished() || now - last >= intervalNanos)
+                {
+                    last = now;
+                    listener.progress(progress);
+                }
+            }
+        };
+    }
+
+    /**
+     * Creates a listener that reports to a JGit {@link ProgressMonitor}, such as a {@code TextProgressMonitor}. Each task of the progress is
+     * begun and ended as a task of the monitor.
+     *
+     * @param monitor the monitor to report to
+     * @return the listener
+     */
+    static ProgressListener monitor(ProgressMonitor monitor)
+    {
+        requireNonNull(monitor);
+        return new ProgressListener()
+        {
+            private String task;
+            private long done;
+
+            @Override
+            public synchronized void progress(Progress progress)
+            {
+                if (!progress.getTask().equals(task))
+                {
+                    if (task != null)
+                    {
+                        monitor.endTask();
+                    }
+                    task = progress.getTask();
+                    done = 0;
+                    long total = progress.getTotal();
+                    monitor.beginTask(task, total >= 0 && total <= Integer.MAX_VALUE ? (int) total : ProgressMonitor.UNKNOWN);
+                }
+
+                long delta = progress.getDone() - done;
+                if (delta > 0)
+                {
+                    monitor.update((int) Math.min(delta, Integer.MAX_VALUE));
+                    done = progress.getDone();
+                }
+
+                if (progress.isFinished())
+                {
+                    monitor.endTask();
+                    task = null;
+                }
+            }
+        };
+    }
+}
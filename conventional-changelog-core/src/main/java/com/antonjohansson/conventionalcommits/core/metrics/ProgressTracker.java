@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+
+/**
+ * Keeps track of the progress of a task, and reports it to a {@link ProgressListener} along with the rate and the estimated time left.
+ */
+public class ProgressTracker
+{
+    private final ProgressListener listener;
+    private final String task;
+    private final long total;
+    private final int versionsTotal;
+    private final long start = System.nanoTime();
+    private long done;
+    private int versionsDone;
+
+    /**
+     * Instantiates a new instance of {@link ProgressTracker}.
+     *
+     * @param listener the listener to report to
+     * @param task the name of the task
+     * @param total the estimated total number of commits, or {@code -1} if it is not known
+     * @param versionsTotal the estimated total number of versions, or {@code -1} if it is not known
+     */
+    public ProgressTracker(ProgressListener listener, String task, long total, int versionsTotal)
+    {
+        this.listener = requireNonNull(listener);
+        this.task = requireNonNull(task);
+        this.total = total;
+        this.versionsTotal = versionsTotal;
+    }
+
+    /**
+     * Reports that a number of commits are done.
+     *
+     * @param count the number of commits
+     */
+    public void commits(long count)
+    {
+        done += count;
+        report(false);
+    }
+
+    /**
+     * Reports that a version is done.
+     */
+    public void version()
+    {
+        versionsDone++;
+        report(false);
+    }
+
+    /**
+     * Reports that the task is finished.
+     */
+    public void finish()
+    {
+        report(true);
+    }
+
+    private void report(boolean finished)
+    {
+        long elapsed = System.nanoTime() - start;
+        double perSecond = elapsed > 0 ? done * 1_000_000_000D / elapsed : 0;
+        // The estimate may fall short of what is actually done, in which case there is no sensible time left
+        Duration eta = total >= 0 && done > 0 && done <= total
+            ? Duration.ofNanos((long) ((double) elapsed / done * (total - done)))
+            : null;
+        listener.progress(new Progress(task, done, total, versionsDone, versionsTotal, perSecond, eta, finished));
+    }
+}
@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.utils;
+
+import static java.util.Objects.requireNonNull;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Signals that a run should stop, either because it was cancelled or because its deadline has passed. The token is checked cooperatively, by
+ * {@code ChangeSetCollector} between commits and by {@code ChangeLogWriter} between versions. A token can be cancelled from any thread.
+ */
+public class CancellationToken
+{
+    private volatile boolean cancelled;
+    private volatile boolean hasDeadline;
+    private volatile long deadline;
+
+    /**
+     * Sets the time the run may take, counted from now.
+     *
+     * @param timeout the time the run may take
+     * @return the token itself, used for chaining
+     */
+    public CancellationToken timeout(Duration timeout)
+    {
+        // Deadlines are kept in the monotonic clock, so that they are not affected by changes to the wall clock
+        deadline = System.nanoTime() + requireNonNull(timeout).toNanos();
+        hasDeadline = true;
+        return this;
+    }
+
+    /**
+     * Sets the time when the run should stop.
+     *
+     * @param deadline the deadline
+     * @return the token itself, used for chaining
+     */
+    public CancellationToken deadline(Instant deadline)
+    {
+        return timeout(Duration.between(Instant.now(), requireNonNull(deadline)));
+    }
+
+    /**
+     * Cancels the run.
+     */
+    public void cancel()
+    {
+        cancelled = true;
+    }
+
+    /**
+     * Gets whether or not the run should stop, because it was cancelled or because the deadline has passed.
+     *
+     * @return {@code true} if the run should stop
+     */
+    public boolean isCancelled()
+    {
+        return cancelled || (hasDeadline && System.nanoTime() - deadline >= 0);
+    }
+
+    /**
+     * Throws an exception if the run should stop.
+     *
+     * @throws CancellationException if the run was cancelled or the deadline has passed
+     */
+    public void throwIfCancelled()
+    {
+        if (cancelled)
+        {
+            throw new CancellationException("The run was cancelled");
+        }
+        if (isCancelled())
+        {
+            throw new CancellationException("The deadline has passed");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Provides utilities for creating hashes, used as keys for caches and fingerprints.
+ */
+public final class HashUtils
+{
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // Prevent instantiation
+    private HashUtils()
+    {
+    }
+
+    /**
+     * Creates a SHA-256 hash of the given values. Each value is separated so that {@code ("ab", "c")} and {@code ("a", "bc")} yield different
+     * hashes. {@code null} values are allowed.
+     *
+     * @param values the values to hash
+     * @return the hexadecimal representation of the hash
+     */
+    public static String sha256(String... values)
+    {
+        MessageDigest digest = newDigest();
+        for (String value : values)
+        {
+            if (value != null)
+            {
+                digest.update(value.getBytes(UTF_8));
+            }
+            digest.update((byte) 0);
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Creates a new SHA-256 {@link MessageDigest}.
+     *
+     * @return the digest
+     */
+    public static MessageDigest newDigest()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new RuntimeException("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Converts the given bytes to a hexadecimal string.
+     *
+     * @param bytes the bytes to convert
+     * @return the hexadecimal string
+     */
+    public static String toHex(byte[] bytes)
+    {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++)
+        {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(chars);
+    }
+}
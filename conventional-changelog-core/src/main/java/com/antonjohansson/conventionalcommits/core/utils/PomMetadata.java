@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.utils;
+
+import static org.apache.commons.lang3.builder.ToStringBuilder.reflectionToString;
+import static org.apache.commons.lang3.builder.ToStringStyle.SHORT_PREFIX_STYLE;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * The parts of a {@code pom.xml} file that change logs need: the version of the project and the URL of its SCM. The file is streamed, and
+ * reading stops as soon as both are found. Unlike {@link PomUtils}, this does not need {@code maven-model}.
+ * <p>
+ * The metadata of each file is cached until the modification time or the size of the file changes, so the collector and the writer only
+ * read a file once.
+ * </p>
+ */
+public final class PomMetadata
+{
+    private static final Map<File, CacheEntry> CACHE = new ConcurrentHashMap<>();
+    private static final XMLInputFactory FACTORY = newFactory();
+
+    private final String version;
+    private final String scmURL;
+
+    private PomMetadata(String version, String scmURL)
+    {
+        this.version = version;
+        this.scmURL = scmURL;
+    }
+
+    /**
+     * Gets the version of the project. This is empty if the version is inherited from the parent.
+     *
+     * @return the version
+     */
+    public Optional<String> getVersion()
+    {
+        return Optional.ofNullable(version);
+    }
+
+    /**
+     * Gets the URL of the SCM of the project.
+     *
+     * @return the SCM URL
+     */
+    public Optional<String> getScmURL()
+    {
+        return Optional.ofNullable(scmURL);
+    }
+
+    /**
+     * Reads the metadata of the {@code pom.xml} file in a project directory.
+     *
+     * @param projectDirectory the project directory
+     * @return the metadata, if the directory has a {@code pom.xml} file
+     */
+    public static Optional<PomMetadata> read(File projectDirectory)
+    {
+        if (projectDirectory == null || !projectDirectory.isDirectory())
+        {
+            return Optional.empty();
+        }
+
+        File pomFile = new File(projectDirectory, "pom.xml").getAbsoluteFile();
+        long lastModified = pomFile.lastModified();
+        long length = pomFile.length();
+        if (lastModified == 0)
+        {
+            return Optional.empty();
+        }
+
+        CacheEntry entry = CACHE.get(pomFile);
+        if (entry == null || entry.lastModified != lastModified || entry.length != length)
+        {
+            entry = new CacheEntry(lastModified, length, parse(pomFile));
+            CACHE.put(pomFile, entry);
+        }
+        return Optional.of(entry.metadata);
+    }
+
+    private static PomMetadata parse(File pomFile)
+    {
+        try (InputStream input = Files.newInputStream(pomFile.toPath()))
+        {
+            XMLStreamReader reader = FACTORY.createXMLStreamReader(input);
+            try
+            {
+                return parse(reader);
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+        catch (IOException | XMLStreamException e)
+        {
+            throw new RuntimeException("Could not read " + pomFile, e);
+        }
+    }
+
+    private static PomMetadata parse(XMLStreamReader reader) throws XMLStreamException
+    {
+        // Only /project/version and /project/scm/url count, which leaves out the version of the parent and of dependencies
+        Deque<String> path = new ArrayDeque<>();
+        String version = null;
+        String scmURL = null;
+        while (reader.hasNext() && (version == null || scmURL == null))
+        {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT)
+            {
+                String name = reader.getLocalName();
+                if (path.isEmpty() && !"project".equals(name))
+                {
+                    throw new XMLStreamException("Expected root element 'project' but found '" + name + "'", reader.getLocation());
+                }
+                path.push(name);
+                if (path.size() == 2 && "version".equals(name))
+                {
+                    version = reader.getElementText().trim();
+                    path.pop();
+                }
+                else if (path.size() == 3 && "url".equals(name) && "scm".equals(getParent(path)))
+                {
+                    scmURL = reader.getElementText().trim();
+                    path.pop();
+                }
+            }
+            else if (event == XMLStreamConstants.END_ELEMENT)
+            {
+                path.pop();
+            }
+        }
+        return new PomMetadata(version, scmURL);
+    }
+
+    private static String getParent(Deque<String> path)
+    {
+        String name = path.pop();
+        String parent = path.peek();
+        path.push(name);
+        return parent;
+    }
+
+    private static XMLInputFactory newFactory()
+    {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    @Override
+    public String toString()
+    {
+        return reflectionToString(this, SHORT_PREFIX_STYLE);
+    }
+
+    /**
+     * Defines the cached metadata of a file.
+     */
+    private static class CacheEntry
+    {
+        final long lastModified;
+        final long length;
+        final PomMetadata metadata;
+
+        CacheEntry(long lastModified, long length, PomMetadata metadata)
+        {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.metadata = metadata;
+        }
+    }
+}
@@ -25,6 +25,10 @@ import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 
 /**
  * Provides utility for managing the {@code pom.xml} file (project object model).
+ * <p>
+ * The {@code maven-model} dependency is optional, so users of this class need to add it themselves. To read only the version and the SCM
+ * URL, use {@link PomMetadata}, which needs no additional dependencies.
+ * </p>
  */
 public final class PomUtils
 {
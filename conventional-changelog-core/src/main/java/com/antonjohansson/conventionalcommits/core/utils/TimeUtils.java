@@ -23,7 +23,7 @@ import java.time.LocalDate;
  */
 public final class TimeUtils
 {
-    private static Clock clock = Clock.systemDefaultZone();
+    private static volatile Clock clock = Clock.systemDefaultZone();
 
     // Prevent instantiation
     private TimeUtils()
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.utils;
+
+import java.util.Comparator;
+
+/**
+ * Compares version strings, such as {@code 1.10.0} and {@code 1.9.2-beta}, by their segments.
+ * <p>
+ * Numeric segments are compared as numbers and other segments are compared alphabetically. A version with a pre-release part (anything after
+ * a {@code -}) is considered lower than the same version without one.
+ * </p>
+ */
+public final class VersionComparator implements Comparator<String>
+{
+    private static final VersionComparator INSTANCE = new VersionComparator();
+
+    // Prevent instantiation
+    private VersionComparator()
+    {
+    }
+
+    /**
+     * Gets the comparator instance.
+     *
+     * @return the comparator
+     */
+    public static VersionComparator get()
+    {
+        return INSTANCE;
+    }
+
+    @Override
+    public int compare(String left, String right)
+    {
+        int leftDash = left.indexOf('-');
+        int rightDash = right.indexOf('-');
+        String leftRelease = leftDash < 0 ? left : left.substring(0, leftDash);
+        String rightRelease = rightDash < 0 ? right : right.substring(0, rightDash);
+
+        int result = compareSegments(leftRelease.split("\\."), rightRelease.split("\\."));
+        if (result != 0)
+        {
+            return result;
+        }
+        if (leftDash < 0 || rightDash < 0)
+        {
+            return Boolean.compare(leftDash < 0, rightDash < 0);
+        }
+        return compareSegments(left.substring(leftDash + 1).split("\\."), right.substring(rightDash + 1).split("\\."));
+    }
+
+    private int compareSegments(String[] left, String[] right)
+    {
+        int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++)
+        {
+            int result = compareSegment(left[i], right[i]);
+            if (result != 0)
+            {
+                return result;
+            }
+        }
+        return Integer.compare(left.length, right.length);
+    }
+
+    private int compareSegment(String left, String right)
+    {
+        boolean leftNumeric = isNumeric(left);
+        boolean rightNumeric = isNumeric(right);
+        if (leftNumeric && rightNumeric)
+        {
+            int result = Integer.compare(left.length(), right.length());
+            return result != 0 ? result : left.compareTo(right);
+        }
+        if (leftNumeric || rightNumeric)
+        {
+            return leftNumeric ? -1 : 1;
+        }
+        return left.compareTo(right);
+    }
+
+    private boolean isNumeric(String segment)
+    {
+        if (segment.isEmpty())
+        {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++)
+        {
+            if (!Character.isDigit(segment.charAt(i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
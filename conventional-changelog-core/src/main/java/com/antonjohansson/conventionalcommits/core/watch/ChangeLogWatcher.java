@@ -0,0 +1,553 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.watch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.util.Objects.requireNonNull;
+import static org.eclipse.jgit.lib.Constants.HEAD;
+import static org.eclipse.jgit.lib.Constants.PACKED_REFS;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.SortedMap;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import com.antonjohansson.conventionalcommits.core.git.ChangeSetCollector;
+import com.antonjohansson.conventionalcommits.core.git.RepositoryHandle;
+import com.antonjohansson.conventionalcommits.core.git.RepositoryRegistry;
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.git.parser.CommitParser;
+import com.antonjohansson.conventionalcommits.core.utils.PomMetadata;
+import com.antonjohansson.conventionalcommits.core.utils.TimeUtils;
+import com.antonjohansson.conventionalcommits.core.writer.ChangeLogSink;
+import com.antonjohansson.conventionalcommits.core.writer.ChangeLogWriter;
+import com.antonjohansson.conventionalcommits.core.writer.TemplateSet;
+import com.antonjohansson.conventionalcommits.core.writer.TemplateSink;
+import com.antonjohansson.conventionalcommits.core.writer.model.Context;
+
+/**
+ * Keeps a changelog file up to date while the repository changes.
+ * <p>
+ * {@code HEAD}, {@code packed-refs} and the {@code refs} directory are watched, and bursts of events (such as those of a rebase) are
+ * debounced into a single update. When commits are added on top of the previous {@code HEAD} and no tags have changed, only the new commits
+ * are walked and only the top section is rendered again. Any other change, such as a new tag or an amended commit, collects all versions
+ * again, but still reuses parsed commits and the rendered sections of released versions.
+ * </p>
+ * <p>
+ * Unless the next version is set, the {@code pom.xml} file of the project is watched as well, and a change of its version collects all
+ * versions again.
+ * </p>
+ */
+public class ChangeLogWatcher implements AutoCloseable
+{
+    private static final String POM = "pom.xml";
+
+    private final File projectDirectory;
+    private final File outputFile;
+    private final RepositoryRegistry registry = new RepositoryRegistry();
+    private final Map<String, String> releasedSections = new HashMap<>();
+    private int numberOfVersions = 1;
+    private String versionTagPrefix = "v";
+    private String nextVersion;
+    private String repositoryURL;
+    private TemplateSet templates = TemplateSet.bundled();
+    private Duration debounce = Duration.ofMillis(200);
+    private Listener listener = new Listener()
+    {
+    };
+
+    private RepositoryHandle handle;
+    private WatchService watchService;
+    private Thread thread;
+    private ObjectId head;
+    private SortedMap<String, ObjectId> tags;
+    private String version;
+    private List<ChangeSet> changeSets = Collections.emptyList();
+    private List<String> sections = Collections.emptyList();
+
+    /**
+     * Instantiates a new instance of {@link ChangeLogWatcher}.
+     *
+     * @param projectDirectory the project directory, within the working tree of the repository
+     * @param outputFile the changelog file to keep up to date
+     */
+    public ChangeLogWatcher(File projectDirectory, File outputFile)
+    {
+        this.projectDirectory = requireNonNull(projectDirectory);
+        this.outputFile = requireNonNull(outputFile);
+    }
+
+    /**
+     * Sets the number of versions to include. A value of {@code 0} includes all versions. Defaults to {@code 1}.
+     *
+     * @param numberOfVersions the number of versions
+     * @return the watcher itself, used for chaining
+     */
+    public ChangeLogWatcher numberOfVersions(int numberOfVersions)
+    {
+        this.numberOfVersions = numberOfVersions;
+        return this;
+    }
+
+    /**
+     * Sets the prefix of version tags. The default prefix is {@code v}.
+     *
+     * @param versionTagPrefix the prefix
+     * @return the watcher itself, used for chaining
+     */
+    public ChangeLogWatcher versionTagPrefix(String versionTagPrefix)
+    {
+        this.versionTagPrefix = requireNonNull(versionTagPrefix);
+        return this;
+    }
+
+    /**
+     * Sets the version number currently being worked on. If not specified, this value will be extracted from the POM.
+     *
+     * @param nextVersion the next version
+     * @return the watcher itself, used for chaining
+     */
+    public ChangeLogWatcher nextVersion(String nextVersion)
+    {
+        this.nextVersion = requireNonNull(nextVersion);
+        return this;
+    }
+
+    /**
+     * Sets the URL of the repository, used to link commits. If not specified, it is read once from the POM.
+     *
+     * @param repositoryURL the repository URL
+     * @return the watcher itself, used for chaining
+     */
+    public ChangeLogWatcher repositoryURL(String repositoryURL)
+    {
+        this.repositoryURL = requireNonNull(repositoryURL);
+        return this;
+    }
+
+    /**
+     * Sets the directory to load templates from. Templates that are missing fall back to the bundled ones.
+     *
+     * @param templateDirectory the template directory
+     * @return the watcher itself, used for chaining
+     */
+    public ChangeLogWatcher templateDirectory(File templateDirectory)
+    {
+        this.templates = TemplateSet.fromDirectory(requireNonNull(templateDirectory));
+        return this;
+    }
+
+    /**
+     * Sets how long the repository must be quiet before the changelog is updated. Defaults to 200 milliseconds.
+     *
+     * @param debounce the quiet period
+     * @return the watcher itself, used for chaining
+     */
+    public ChangeLogWatcher debounce(Duration debounce)
+    {
+        this.debounce = requireNonNull(debounce);
+        return this;
+    }
+
+    /**
+     * Sets the listener that is notified of updates and errors.
+     *
+     * @param listener the listener
+     * @return the watcher itself, used for chaining
+     */
+    public ChangeLogWatcher listener(Listener listener)
+    {
+        this.listener = requireNonNull(listener);
+        return this;
+    }
+
+    /**
+     * Writes the changelog and starts watching the repository for changes in a background thread.
+     */
+    public void start() throws Exception
+    {
+        handle = registry.acquire(projectDirectory);
+        if (repositoryURL == null)
+        {
+            repositoryURL = PomMetadata.read(projectDirectory)
+                    .flatMap(PomMetadata::getScmURL)
+                    .orElse(null);
+        }
+        update();
+
+        watchService = projectDirectory.toPath().getFileSystem().newWatchService();
+        Path gitDirectory = handle.getRepository().getDirectory().toPath();
+        gitDirectory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+        registerRecursively(gitDirectory.resolve("refs"));
+        if (nextVersion == null)
+        {
+            projectDirectory.toPath().register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+        }
+
+        thread = new Thread(this::watch, "changelog-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Updates the changelog if the repository has changed since the last update. This is called by the watching thread, but can also be
+     * called directly.
+     */
+    public synchronized void update() throws Exception
+    {
+        long start = System.nanoTime();
+        handle.refresh();
+        Repository repository = handle.getRepository();
+        ObjectId newHead = repository.resolve(HEAD);
+        SortedMap<String, ObjectId> newTags = handle.getTagIndex().getTags();
+        String newVersion = getVersion();
+        boolean sameVersions = newTags.equals(tags) && Objects.equals(newVersion, version);
+        if (newHead != null && newHead.equals(head) && sameVersions)
+        {
+            return;
+        }
+
+        // The top section keeps its version when updated incrementally, so a new version in the POM collects everything again
+        boolean incremental = sameVersions && updateTopSection(newHead);
+        if (!incremental)
+        {
+            updateAll();
+        }
+        head = newHead;
+        tags = newTags;
+        version = newVersion;
+
+        write();
+        listener.updated(incremental, System.nanoTime() - start);
+    }
+
+    private String getVersion()
+    {
+        return nextVersion != null
+            ? nextVersion
+            : PomMetadata.read(projectDirectory).flatMap(PomMetadata::getVersion).orElse(null);
+    }
+
+    private boolean updateTopSection(ObjectId newHead) throws Exception
+    {
+        if (head == null || newHead == null || changeSets.isEmpty())
+        {
+            return false;
+        }
+
+        List<RevCommit> newCommits = new ArrayList<>();
+        try (RevWalk walk = new RevWalk(handle.getRepository()))
+        {
+            RevCommit oldHeadCommit = walk.parseCommit(head);
+            RevCommit newHeadCommit = walk.parseCommit(newHead);
+            if (!walk.isMergedInto(oldHeadCommit, newHeadCommit))
+            {
+                return false;
+            }
+
+            walk.reset();
+            walk.markStart(newHeadCommit);
+            walk.markUninteresting(oldHeadCommit);
+            for (RevCommit commit : walk)
+            {
+                // The order of merged histories depends on the entire walk, so they are collected from scratch
+                if (commit.getParentCount() > 1)
+                {
+                    return false;
+                }
+                newCommits.add(commit);
+            }
+        }
+
+        ChangeSet top = changeSets.get(0);
+        List<Change> changes = new ArrayList<>(top.getChanges());
+        Collections.reverse(newCommits);
+        for (RevCommit commit : newCommits)
+        {
+            changes.add(new CommitParser(commit.getName(), commit.getFullMessage())
+                    .time(Instant.ofEpochSecond(commit.getCommitTime()))
+                    .parse());
+        }
+
+        ChangeSet newTop = new ChangeSet(top.getVersion(), top.getTagName(), top.getPreviousTagName(), TimeUtils.now(), changes,
+                top.getTagId().orElse(null), top.getPreviousTagId().orElse(null), top.getCollectionOptions().orElse(null));
+        List<ChangeSet> newChangeSets = new ArrayList<>(changeSets);
+        newChangeSets.set(0, newTop);
+        List<String> newSections = new ArrayList<>(sections);
+        newSections.set(0, render(Collections.singletonList(newTop)).get(0));
+
+        changeSets = newChangeSets;
+        sections = newSections;
+        return true;
+    }
+
+    private void updateAll() throws Exception
+    {
+        ChangeSetCollector collector = new ChangeSetCollector(handle, projectDirectory)
+                .numberOfVersions(numberOfVersions)
+                .versionTagPrefix(versionTagPrefix);
+        if (nextVersion != null)
+        {
+            collector.nextVersion(nextVersion);
+        }
+        List<ChangeSet> newChangeSets = collector.collect();
+
+        // Sections of released versions never change, so only the others are rendered
+        List<ChangeSet> toRender = new ArrayList<>();
+        for (ChangeSet changeSet : newChangeSets)
+        {
+            String key = releasedKey(changeSet);
+            if (key == null || !releasedSections.containsKey(key))
+            {
+                toRender.add(changeSet);
+            }
+        }
+        List<String> rendered = render(toRender);
+
+        List<String> newSections = new ArrayList<>(newChangeSets.size());
+        int index = 0;
+        for (ChangeSet changeSet : newChangeSets)
+        {
+            String key = releasedKey(changeSet);
+            String section = key != null && releasedSections.containsKey(key)
+                ? releasedSections.get(key)
+                : rendered.get(index++);
+            if (key != null)
+            {
+                releasedSections.put(key, section);
+            }
+            newSections.add(section);
+        }
+
+        changeSets = newChangeSets;
+        sections = newSections;
+    }
+
+    private String releasedKey(ChangeSet changeSet)
+    {
+        if (!changeSet.getTagId().isPresent() || !changeSet.getPreviousTagId().isPresent())
+        {
+            return null;
+        }
+        return changeSet.getTagName() + ":" + changeSet.getTagId().get() + ".." + changeSet.getPreviousTagId().get();
+    }
+
+    private List<String> render(List<ChangeSet> changeSets) throws Exception
+    {
+        List<String> rendered = new ArrayList<>(changeSets.size());
+        if (changeSets.isEmpty())
+        {
+            return rendered;
+        }
+
+        try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+        {
+            writer
+                    .projectDirectory(projectDirectory)
+                    // The URL was read from the POM on start, an empty one keeps the writer from reading the POM again
+                    .repositoryURL(repositoryURL == null ? "" : repositoryURL)
+                    .sink(new ChangeLogSink()
+                    {
+                        @Override
+                        public void write(ChangeSet changeSet, Context context) throws IOException
+                        {
+                            StringWriter section = new StringWriter();
+                            new TemplateSink(section, templates).write(changeSet, context);
+                            rendered.add(section.toString());
+                        }
+
+                        @Override
+                        public void close()
+                        {
+                        }
+                    })
+                    .write();
+        }
+        return rendered;
+    }
+
+    private void write() throws IOException
+    {
+        StringBuilder content = new StringBuilder();
+        for (String section : sections)
+        {
+            content.append(section);
+        }
+
+        Path target = outputFile.toPath().toAbsolutePath();
+        Path temporary = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+        Files.write(temporary, content.toString().getBytes(UTF_8));
+        Files.move(temporary, target, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    private void watch()
+    {
+        try
+        {
+            while (true)
+            {
+                if (!processEvents(watchService.take()))
+                {
+                    continue;
+                }
+
+                // Wait until the repository has been quiet for a while
+                WatchKey key;
+                while ((key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null)
+                {
+                    processEvents(key);
+                }
+
+                try
+                {
+                    update();
+                }
+                catch (Exception e)
+                {
+                    listener.failed(e);
+                }
+            }
+        }
+        catch (InterruptedException | ClosedWatchServiceException e)
+        {
+            // Closed
+        }
+    }
+
+    private boolean processEvents(WatchKey key)
+    {
+        Path directory = (Path) key.watchable();
+        boolean relevant = false;
+        for (WatchEvent<?> event : key.pollEvents())
+        {
+            if (event.context() == null)
+            {
+                relevant = true;
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+            String name = path.getFileName().toString();
+            if (name.endsWith(".lock"))
+            {
+                continue;
+            }
+
+            boolean inRefs = path.startsWith(handle.getRepository().getDirectory().toPath().resolve("refs"));
+            if (inRefs && event.kind() == ENTRY_CREATE && Files.isDirectory(path))
+            {
+                try
+                {
+                    registerRecursively(path);
+                }
+                catch (IOException e)
+                {
+                    listener.failed(e);
+                }
+            }
+            boolean pom = nextVersion == null && directory.equals(projectDirectory.toPath()) && name.equals(POM);
+            relevant |= inRefs || pom || name.equals(HEAD) || name.equals(PACKED_REFS);
+        }
+        key.reset();
+        return relevant;
+    }
+
+    private void registerRecursively(Path directory) throws IOException
+    {
+        Files.walkFileTree(directory, new SimpleFileVisitor<Path>()
+        {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException
+            {
+                dir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    @Override
+    public void close() throws Exception
+    {
+        if (watchService != null)
+        {
+            watchService.close();
+        }
+        if (thread != null)
+        {
+            thread.interrupt();
+            thread.join();
+        }
+        if (handle != null)
+        {
+            handle.close();
+        }
+        registry.close();
+    }
+
+    /**
+     * Defines a listener that is notified when the watcher updates the changelog.
+     */
+    public interface Listener
+    {
+        /**
+         * Called when the changelog has been updated.
+         *
+         * @param incremental whether only the new commits were walked and only the top section was rendered
+         * @param nanos the time the update took, in nanoseconds
+         */
+        default void updated(boolean incremental, long nanos)
+        {
+        }
+
+        /**
+         * Called when the changelog could not be updated.
+         *
+         * @param e the error
+         */
+        default void failed(Exception e)
+        {
+        }
+    }
+}
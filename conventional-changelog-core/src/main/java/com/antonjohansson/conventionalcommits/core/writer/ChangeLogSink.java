@@ -0,0 +1,37 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.writer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.writer.model.Context;
+
+/**
+ * Defines an output of a {@link ChangeLogWriter}. The writer builds the {@link Context} of each {@link ChangeSet} once and hands it to all
+ * of its sinks, so several formats can be produced from a single collection.
+ */
+public interface ChangeLogSink extends Closeable
+{
+    /**
+     * Writes a single change set.
+     *
+     * @param changeSet the change set to write
+     * @param context the templating context of the change set
+     */
+    void write(ChangeSet changeSet, Context context) throws IOException;
+}
@@ -15,7 +15,6 @@
  */
 package com.antonjohansson.conventionalcommits.core.writer;
 
-import static com.antonjohansson.conventionalcommits.core.writer.TemplateUtils.compileFromResource;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.requireNonNull;
@@ -28,24 +27,28 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Writer;
-import java.time.LocalDate;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-
-import org.apache.maven.model.Model;
-import org.apache.maven.model.Scm;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import com.antonjohansson.conventionalcommits.core.git.model.Change;
 import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
-import com.antonjohansson.conventionalcommits.core.utils.PomUtils;
+import com.antonjohansson.conventionalcommits.core.metrics.FlightRecorderEvents;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener.Counter;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener.Phase;
+import com.antonjohansson.conventionalcommits.core.metrics.ProgressListener;
+import com.antonjohansson.conventionalcommits.core.metrics.ProgressTracker;
+import com.antonjohansson.conventionalcommits.core.utils.CancellationToken;
+import com.antonjohansson.conventionalcommits.core.utils.PomMetadata;
 import com.antonjohansson.conventionalcommits.core.writer.model.Commit;
 import com.antonjohansson.conventionalcommits.core.writer.model.CommitGroup;
 import com.antonjohansson.conventionalcommits.core.writer.model.Context;
 import com.antonjohansson.conventionalcommits.core.writer.model.Note;
 import com.antonjohansson.conventionalcommits.core.writer.model.NoteGroup;
-import com.github.jknack.handlebars.Handlebars;
-import com.github.jknack.handlebars.Template;
-import com.github.jknack.handlebars.io.TemplateSource;
 
 /**
  * Formats and writes {@link ChangeSet change set}.
@@ -53,14 +56,20 @@ import com.github.jknack.handlebars.io.TemplateSource;
 public class ChangeLogWriter implements AutoCloseable
 {
     private final List<ChangeSet> changeSets;
-    private final TemplateSource mainTemplate = compileFromResource("main.hbs");
-    private final TemplateSource headerTemplate = compileFromResource("header.hbs");
-    private final TemplateSource commitTemplate = compileFromResource("commit.hbs");
-    private final TemplateSource footerTemplate = compileFromResource("footer.hbs");
+    private final List<ChangeLogSink> sinks = new ArrayList<>();
+    private TemplateSet templates;
     private File projectDirectory;
     private String repositoryURL;
+    private final Map<String, String> componentRepositoryURLs = new HashMap<>();
     private File outputFile;
     private Writer writer;
+    private File sectionCacheDirectory;
+    private MetricsListener metrics = new MetricsListener()
+    {
+    };
+    private ProgressListener progress;
+    private CancellationToken cancellationToken;
+    private long contextNanos;
 
     /**
      * Instantiates a new instance of {@link ChangeLogWriter}.
@@ -84,6 +93,33 @@ public class ChangeLogWriter implements AutoCloseable
         return this;
     }
 
+    /**
+     * Sets the URL of the repository, used to link commits. By default, the URL is read from the SCM section of the POM in the project
+     * directory. Setting it explicitly avoids reading the POM.
+     *
+     * @param repositoryURL the repository URL
+     * @return the writer itself, used for chaining
+     */
+    public ChangeLogWriter repositoryURL(String repositoryURL)
+    {
+        this.repositoryURL = requireNonNull(repositoryURL);
+        return this;
+    }
+
+    /**
+     * Sets the URL of the repository of a component, used to link the commits of that component in changelogs that aggregate several
+     * repositories. Commits of components without a URL are linked to the repository URL of the changelog.
+     *
+     * @param component the name of the component
+     * @param repositoryURL the repository URL of the component
+     * @return the writer itself, used for chaining
+     */
+    public ChangeLogWriter repositoryURL(String component, String repositoryURL)
+    {
+        componentRepositoryURLs.put(requireNonNull(component), requireNonNull(repositoryURL));
+        return this;
+    }
+
     /**
      * Sets the file name of the output file.
      *
@@ -124,12 +160,99 @@ public class ChangeLogWriter implements AutoCloseable
         return this;
     }
 
+    /**
+     * Sets the directory to load templates from. The directory can contain {@code main.hbs}, {@code header.hbs}, {@code commit.hbs} and
+     * {@code footer.hbs}. Templates that are missing fall back to the bundled ones.
+     *
+     * @param templateDirectory the template directory
+     * @return the writer itself, used for chaining
+     */
+    public ChangeLogWriter templateDirectory(File templateDirectory)
+    {
+        this.templates = TemplateSet.fromDirectory(requireNonNull(templateDirectory));
+        return this;
+    }
+
+    /**
+     * Sets the directory used to cache rendered sections. Sections of versions where both tags exist never change, so they are rendered once
+     * and streamed from the cache on subsequent writes. By default, no cache is used.
+     *
+     * @param directory the cache directory
+     * @return the writer itself, used for chaining
+     */
+    public ChangeLogWriter sectionCache(File directory)
+    {
+        this.sectionCacheDirectory = requireNonNull(directory);
+        return this;
+    }
+
+    /**
+     * Adds an additional output. The context of each change set is built once and handed to the main output as well as to all additional
+     * outputs, so that for example Markdown, JSON and HTML can be written from a single collection. Sinks are closed along with this writer.
+     * <p>
+     * If sinks are added but neither {@link #writer(Writer)} nor {@link #fileName(String)} is set, only the sinks are written to.
+     * </p>
+     *
+     * @param sink the sink to add
+     * @return the writer itself, used for chaining
+     */
+    public ChangeLogWriter sink(ChangeLogSink sink)
+    {
+        sinks.add(requireNonNull(sink));
+        return this;
+    }
+
+    /**
+     * Sets the listener to report measurements to. Bytes written are only counted for the main output. By default, nothing is measured.
+     *
+     * @param metrics the listener
+     * @return the writer itself, used for chaining
+     */
+    public ChangeLogWriter metrics(MetricsListener metrics)
+    {
+        this.metrics = requireNonNull(metrics);
+        return this;
+    }
+
+    /**
+     * Sets the listener to report progress to. The progress counts the changes of each version as it is written. By default, no progress is
+     * reported.
+     *
+     * @param progress the listener
+     * @return the writer itself, used for chaining
+     */
+    public ChangeLogWriter progress(ProgressListener progress)
+    {
+        this.progress = requireNonNull(progress);
+        return this;
+    }
+
+    /**
+     * Sets a token to stop writing with. The token is checked between versions, and a
+     * {@link java.util.concurrent.CancellationException CancellationException} is thrown when it is cancelled. The outputs then contain the
+     * versions written so far, and are closed along with this writer. By default, writing cannot be stopped.
+     *
+     * @param cancellationToken the token
+     * @return the writer itself, used for chaining
+     */
+    public ChangeLogWriter cancellationToken(CancellationToken cancellationToken)
+    {
+        this.cancellationToken = requireNonNull(cancellationToken);
+        return this;
+    }
+
     private void extractProjectMetaData()
     {
-        repositoryURL = PomUtils.getPOM(projectDirectory)
-                .map(Model::getScm)
-                .map(Scm::getUrl)
+        if (repositoryURL != null)
+        {
+            return;
+        }
+
+        long start = System.nanoTime();
+        repositoryURL = PomMetadata.read(projectDirectory)
+                .flatMap(PomMetadata::getScmURL)
                 .orElse(null);
+        metrics.phase(Phase.READ_POM, System.nanoTime() - start);
     }
 
     /**
@@ -139,15 +262,72 @@ public class ChangeLogWriter implements AutoCloseable
     {
         extractProjectMetaData();
         initialieWriter();
+
+        List<ChangeLogSink> targets = new ArrayList<>(sinks);
+        CountingWriter output = null;
+        if (writer != null)
+        {
+            // Resolved here rather than up front, so that Handlebars is not loaded by writers that only use other sinks
+            output = new CountingWriter(writer);
+            TemplateSink main = new TemplateSink(output, templates != null ? templates : TemplateSet.bundled());
+            if (sectionCacheDirectory != null)
+            {
+                main.sectionCache(sectionCacheDirectory);
+            }
+            targets.add(0, main);
+        }
+
+        ProgressTracker tracker = progress != null
+            ? new ProgressTracker(progress, "Writing", changeSets.stream().mapToLong(set -> set.getChanges().size()).sum(), changeSets.size())
+            : null;
+
         for (ChangeSet set : changeSets)
         {
-            write(set);
+            if (cancellationToken != null)
+            {
+                cancellationToken.throwIfCancelled();
+            }
+
+            Object event = FlightRecorderEvents.beginWrite();
+            long bytesBefore = output != null ? output.getCount() : 0;
+
+            // The groups of the context are only built when a sink renders them, so versions served from a section cache are never grouped
+            contextNanos = 0;
+            long start = System.nanoTime();
+            Context context = toContext(set);
+            for (ChangeLogSink sink : targets)
+            {
+                sink.write(set, context);
+            }
+            metrics.phase(Phase.BUILD_CONTEXT, contextNanos);
+            metrics.phase(Phase.RENDER, System.nanoTime() - start - contextNanos);
+
+            long bytes = output != null ? output.getCount() - bytesBefore : 0;
+            FlightRecorderEvents.endWrite(event, set.getVersion(), set.getChanges().size(), bytes);
+
+            if (tracker != null)
+            {
+                tracker.commits(set.getChanges().size());
+                tracker.version();
+            }
+        }
+
+        if (output != null)
+        {
+            long start = System.nanoTime();
+            output.flush();
+            metrics.phase(Phase.FLUSH, System.nanoTime() - start);
+            metrics.count(Counter.BYTES_WRITTEN, output.getCount());
+        }
+        if (tracker != null)
+        {
+            tracker.finish();
         }
     }
 
     private void initialieWriter()
     {
-        if (writer != null)
+        if (writer != null || (outputFile == null && !sinks.isEmpty()))
         {
             return;
         }
@@ -169,29 +349,24 @@ public class ChangeLogWriter implements AutoCloseable
         }
     }
 
-    private void write(ChangeSet set) throws IOException
+    private Context toContext(ChangeSet set)
     {
-        Context context = toContext(set);
-
-        CustomTemplateLoader loader = new CustomTemplateLoader();
-        loader.registerPartial("header", headerTemplate);
-        loader.registerPartial("commit", commitTemplate);
-        loader.registerPartial("footer", footerTemplate);
-
-        Template template = new Handlebars(loader)
-                .prettyPrint(true)
-                .compile(mainTemplate);
+        return new Context(repositoryURL, set.getVersion(), set.getTagName(), set.getPreviousTagName(), set.getCreatedAt(),
+                () -> timed(() -> toCommitGroups(set)),
+                () -> timed(() -> toNoteGroups(set)));
+    }
 
-        template.apply(context, writer);
+    private <T> T timed(Supplier<T> supplier)
+    {
+        long start = System.nanoTime();
+        T result = supplier.get();
+        contextNanos += System.nanoTime() - start;
+        return result;
     }
 
-    private Context toContext(ChangeSet set)
+    private List<CommitGroup> toCommitGroups(ChangeSet set)
     {
-        String version = set.getVersion();
-        String tagName = set.getTagName();
-        String previousTagName = set.getPreviousTagName();
-        LocalDate createdAt = set.getCreatedAt();
-        List<CommitGroup> commitGroups = set.getChanges()
+        return set.getChanges()
                 .stream()
                 .filter(change -> change.getType() != null)
                 .collect(groupingBy(Change::getType))
@@ -204,7 +379,11 @@ public class ChangeLogWriter implements AutoCloseable
                         .map(change -> toCommit(change))
                         .collect(toList())))
                 .collect(toList());
-        List<NoteGroup> noteGroups = set.getChanges()
+    }
+
+    private List<NoteGroup> toNoteGroups(ChangeSet set)
+    {
+        return set.getChanges()
                 .stream()
                 .flatMap(change -> change.getNotes()
                         .stream()
@@ -214,13 +393,15 @@ public class ChangeLogWriter implements AutoCloseable
                 .stream()
                 .map(entry -> new NoteGroup(entry.getKey(), entry.getValue()))
                 .collect(toList());
-
-        return new Context(repositoryURL, version, tagName, previousTagName, createdAt, commitGroups, noteGroups);
     }
 
     private Commit toCommit(Change change)
     {
-        return new Commit(change.getHash(), change.getTitle(), change.getScope().orElse(null), change.getReferences());
+        String component = change.getComponent().orElse(null);
+        String commitRepositoryURL = component != null
+            ? componentRepositoryURLs.getOrDefault(component, repositoryURL)
+            : repositoryURL;
+        return new Commit(change.getHash(), change.getTitle(), change.getScope().orElse(null), change.getReferences(), component, commitRepositoryURL);
     }
 
     private String translateGroupTitle(String type)
@@ -246,6 +427,10 @@ public class ChangeLogWriter implements AutoCloseable
     public void close() throws Exception
     {
         closeWriter();
+        for (ChangeLogSink sink : sinks)
+        {
+            sink.close();
+        }
     }
 
     private void closeWriter() throws IOException
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.writer;
+
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * A writer that counts the number of bytes that the written characters take up when encoded as UTF-8.
+ */
+class CountingWriter extends FilterWriter
+{
+    private long count;
+
+    CountingWriter(Writer writer)
+    {
+        super(writer);
+    }
+
+    /**
+     * Gets the number of bytes written so far.
+     *
+     * @return the number of bytes
+     */
+    long getCount()
+    {
+        return count;
+    }
+
+    @Override
+    public void write(int c) throws IOException
+    {
+        out.write(c);
+        count += getLength((char) c);
+    }
+
+    @Override
+    public void write(char[] buffer, int offset, int length) throws IOException
+    {
+        out.write(buffer, offset, length);
+        for (int index = offset; index < offset + length; index++)
+        {
+            count += getLength(buffer[index]);
+        }
+    }
+
+    @Override
+    public void write(String string, int offset, int length) throws IOException
+    {
+        out.write(string, offset, length);
+        for (int index = offset; index < offset + length; index++)
+        {
+            count += getLength(string.charAt(index));
+        }
+    }
+
+    private static int getLength(char c)
+    {
+        // Each half of a surrogate pair counts as two bytes, since the pair is encoded as four
+        if (c < 0x80)
+        {
+            return 1;
+        }
+        if (c < 0x800 || Character.isSurrogate(c))
+        {
+            return 2;
+        }
+        return 3;
+    }
+}
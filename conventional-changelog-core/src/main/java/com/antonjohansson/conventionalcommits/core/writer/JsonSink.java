@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.writer;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Optional;
+
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.git.model.Note;
+import com.antonjohansson.conventionalcommits.core.git.model.Reference;
+import com.antonjohansson.conventionalcommits.core.git.model.Revert;
+import com.antonjohansson.conventionalcommits.core.writer.model.Context;
+
+/**
+ * Writes change sets as a JSON array.
+ * <p>
+ * Each change set is encoded as soon as it is written, straight into the underlying writer and without building an intermediate tree.
+ * The array is terminated when the sink is closed.
+ * </p>
+ */
+public class JsonSink implements ChangeLogSink
+{
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final Writer writer;
+    private boolean first = true;
+
+    /**
+     * Instantiates a new instance of {@link JsonSink}.
+     *
+     * @param writer the writer to write JSON into
+     */
+    public JsonSink(Writer writer)
+    {
+        this.writer = requireNonNull(writer);
+    }
+
+    @Override
+    public void write(ChangeSet changeSet, Context context) throws IOException
+    {
+        writer.write(first ? '[' : ',');
+        first = false;
+
+        writer.write('{');
+        field("version", changeSet.getVersion(), false);
+        field("tagName", changeSet.getTagName(), true);
+        field("previousTagName", changeSet.getPreviousTagName(), true);
+        field("tagId", changeSet.getTagId(), true);
+        field("previousTagId", changeSet.getPreviousTagId(), true);
+        field("createdAt", changeSet.getCreatedAt().toString(), true);
+        field("repositoryURL", context.getRepositoryURL(), true);
+        name("changes", true);
+        writer.write('[');
+        List<Change> changes = changeSet.getChanges();
+        for (int i = 0; i < changes.size(); i++)
+        {
+            if (i > 0)
+            {
+                writer.write(',');
+            }
+            write(changes.get(i));
+        }
+        writer.write("]}");
+    }
+
+    private void write(Change change) throws IOException
+    {
+        writer.write('{');
+        field("hash", change.getHash(), false);
+        field("type", change.getType(), true);
+        field("scope", change.getScope(), true);
+        field("title", change.getTitle(), true);
+        field("body", change.getBody(), true);
+        field("footer", change.getFooter(), true);
+
+        name("notes", true);
+        writer.write('[');
+        List<Note> notes = change.getNotes();
+        for (int i = 0; i < notes.size(); i++)
+        {
+            Note note = notes.get(i);
+            writer.write(i > 0 ? ",{" : "{");
+            field("title", note.getTitle(), false);
+            field("text", note.getText(), true);
+            writer.write('}');
+        }
+        writer.write(']');
+
+        name("references", true);
+        writer.write('[');
+        List<Reference> references = change.getReferences();
+        for (int i = 0; i < references.size(); i++)
+        {
+            Reference reference = references.get(i);
+            writer.write(i > 0 ? ",{" : "{");
+            field("action", reference.getAction(), false);
+            field("owner", reference.getOwner(), true);
+            field("repository", reference.getRepository(), true);
+            field("prefix", reference.getPrefix(), true);
+            field("issue", reference.getIssue(), true);
+            field("raw", reference.getRaw(), true);
+            writer.write('}');
+        }
+        writer.write(']');
+
+        name("revert", true);
+        if (change.getRevert().isPresent())
+        {
+            Revert revert = change.getRevert().get();
+            writer.write('{');
+            field("header", revert.getHeader(), false);
+            field("hash", revert.getHash(), true);
+            writer.write('}');
+        }
+        else
+        {
+            writer.write("null");
+        }
+        writer.write('}');
+    }
+
+    private void field(String name, Optional<String> value, boolean separate) throws IOException
+    {
+        field(name, value.orElse(null), separate);
+    }
+
+    private void field(String name, String value, boolean separate) throws IOException
+    {
+        name(name, separate);
+        if (value == null)
+        {
+            writer.write("null");
+        }
+        else
+        {
+            string(value);
+        }
+    }
+
+    private void name(String name, boolean separate) throws IOException
+    {
+        if (separate)
+        {
+            writer.write(',');
+        }
+        writer.write('"');
+        writer.write(name);
+        writer.write("\":");
+    }
+
+    private void string(String value) throws IOException
+    {
+        writer.write('"');
+        int start = 0;
+        int length = value.length();
+        for (int i = 0; i < length; i++)
+        {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\')
+            {
+                continue;
+            }
+
+            writer.write(value, start, i - start);
+            start = i + 1;
+            switch (c)
+            {
+                case '"':
+                    writer.write("\\\"");
+                    break;
+                case '\\':
+                    writer.write("\\\\");
+                    break;
+                case '\n':
+                    writer.write("\\n");
+                    break;
+                case '\r':
+                    writer.write("\\r");
+                    break;
+                case '\t':
+                    writer.write("\\t");
+                    break;
+                default:
+                    writer.write("\\u00");
+                    writer.write(HEX[c >> 4]);
+                    writer.write(HEX[c & 0xF]);
+                    break;
+            }
+        }
+        writer.write(value, start, length - start);
+        writer.write('"');
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        writer.write(first ? "[]" : "]");
+        writer.flush();
+        writer.close();
+    }
+}
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.writer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import org.apache.commons.io.IOUtils;
+
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.utils.HashUtils;
+
+/**
+ * Caches rendered sections of released versions on disk.
+ * <p>
+ * A section can only be cached when both of its tags exist, since the section of an unreleased version changes with every commit. The key
+ * contains the tag names, the commits the tags point at, the template fingerprint, the writer options and the options the versions were
+ * collected with, so moving a tag, changing a template or collecting with another walk mode simply results in a new entry.
+ * </p>
+ */
+class SectionCache
+{
+    private static final String EXTENSION = ".section";
+
+    private final File directory;
+
+    SectionCache(File directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Gets the cache key for the given change set.
+     *
+     * @param set the change set to get the key for
+     * @param options the fingerprint of the templates and writer options that affect the output
+     * @return the key, or empty if the change set cannot be cached
+     */
+    Optional<String> key(ChangeSet set, String options)
+    {
+        if (!set.getTagId().isPresent() || !set.getPreviousTagId().isPresent())
+        {
+            return Optional.empty();
+        }
+
+        return Optional.of(HashUtils.sha256(
+                set.getVersion(),
+                set.getTagName(),
+                set.getPreviousTagName(),
+                set.getTagId().get(),
+                set.getPreviousTagId().get(),
+                set.getCreatedAt().toString(),
+                options));
+    }
+
+    /**
+     * Streams a cached section into the given writer.
+     *
+     * @param key the key of the section
+     * @param writer the writer to stream the section into
+     * @return whether or not the section was cached
+     */
+    boolean copyTo(String key, Writer writer) throws IOException
+    {
+        File file = new File(directory, key + EXTENSION);
+        if (!file.isFile())
+        {
+            return false;
+        }
+
+        try (Reader reader = Files.newBufferedReader(file.toPath(), UTF_8))
+        {
+            IOUtils.copy(reader, writer);
+        }
+        return true;
+    }
+
+    /**
+     * Stores a rendered section. The section is written to a temporary file first, so concurrent readers never see partial sections.
+     *
+     * @param key the key of the section
+     * @param section the rendered section
+     */
+    void store(String key, String section) throws IOException
+    {
+        Files.createDirectories(directory.toPath());
+        Path temporary = Files.createTempFile(directory.toPath(), key, ".tmp");
+        try
+        {
+            Files.write(temporary, section.getBytes(UTF_8));
+            Files.move(temporary, new File(directory, key + EXTENSION).toPath(), REPLACE_EXISTING, ATOMIC_MOVE);
+        }
+        finally
+        {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.writer;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Optional;
+
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.utils.HashUtils;
+import com.antonjohansson.conventionalcommits.core.writer.model.Context;
+
+/**
+ * Renders sections through a {@link TemplateSet}, optionally backed by a {@link SectionCache}.
+ */
+class SectionRenderer
+{
+    private final TemplateSet templates;
+    private SectionCache sectionCache;
+
+    SectionRenderer(TemplateSet templates)
+    {
+        this.templates = templates;
+    }
+
+    void sectionCache(SectionCache sectionCache)
+    {
+        this.sectionCache = sectionCache;
+    }
+
+    void render(ChangeSet changeSet, Context context, Writer writer) throws IOException
+    {
+        Optional<String> key = sectionCache == null
+            ? Optional.empty()
+            : sectionCache.key(changeSet, HashUtils.sha256(templates.getFingerprint(), context.getRepositoryURL(),
+                    changeSet.getCollectionOptions().orElse("")));
+
+        if (!key.isPresent())
+        {
+            templates.getTemplate().apply(context, writer);
+            return;
+        }
+
+        if (sectionCache.copyTo(key.get(), writer))
+        {
+            return;
+        }
+
+        StringWriter section = new StringWriter();
+        templates.getTemplate().apply(context, section);
+        sectionCache.store(key.get(), section.toString());
+        writer.write(section.toString());
+    }
+}
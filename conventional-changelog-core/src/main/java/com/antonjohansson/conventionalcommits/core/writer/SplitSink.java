@@ -0,0 +1,216 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.writer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.utils.VersionComparator;
+import com.antonjohansson.conventionalcommits.core.writer.model.Context;
+
+/**
+ * Writes change sets to separate files in a directory, along with an index file that links to all of them.
+ * <p>
+ * Files are only written when their content changes. Combined with a section cache, a new release only renders and writes its own file and
+ * the index. The index lists the pages written by this sink, along with the pages of released versions that were written by earlier runs.
+ * Other files in the directory, such as a {@code README.md} or the page of an old snapshot version, are not listed.
+ * </p>
+ */
+public class SplitSink implements ChangeLogSink
+{
+    private static final String EXTENSION = ".md";
+
+    private final File directory;
+    private final Mode mode;
+    private final SectionRenderer renderer;
+    private String indexFileName = "index" + EXTENSION;
+    private final Set<String> writtenPages = new HashSet<>();
+    private String page;
+    private StringWriter pageContent;
+
+    /**
+     * Instantiates a new instance of {@link SplitSink}.
+     *
+     * @param directory the directory to write files into
+     * @param templates the templates to render with
+     * @param mode the mode that decides which versions share a file
+     */
+    public SplitSink(File directory, TemplateSet templates, Mode mode)
+    {
+        this.directory = requireNonNull(directory);
+        this.renderer = new SectionRenderer(requireNonNull(templates));
+        this.mode = requireNonNull(mode);
+    }
+
+    /**
+     * Sets the directory used to cache rendered sections. By default, no cache is used.
+     *
+     * @param directory the cache directory
+     * @return the sink itself, used for chaining
+     */
+    public SplitSink sectionCache(File directory)
+    {
+        renderer.sectionCache(new SectionCache(requireNonNull(directory)));
+        return this;
+    }
+
+    /**
+     * Sets the file name of the index. Defaults to {@code index.md}.
+     *
+     * @param indexFileName the file name of the index
+     * @return the sink itself, used for chaining
+     */
+    public SplitSink indexFileName(String indexFileName)
+    {
+        this.indexFileName = requireNonNull(indexFileName);
+        return this;
+    }
+
+    @Override
+    public void write(ChangeSet changeSet, Context context) throws IOException
+    {
+        String name = mode.getPage(changeSet.getVersion());
+        if (!name.equals(page))
+        {
+            flushPage();
+            page = name;
+            pageContent = new StringWriter();
+            writtenPages.add(name);
+        }
+        renderer.render(changeSet, context, pageContent);
+    }
+
+    private void flushPage() throws IOException
+    {
+        if (page != null)
+        {
+            writeIfChanged(new File(directory, page + EXTENSION), pageContent.toString());
+        }
+    }
+
+    private void writeIndex() throws IOException
+    {
+        Set<String> names = new HashSet<>(writtenPages);
+        for (String fileName : directory.list())
+        {
+            if (fileName.endsWith(EXTENSION) && !fileName.equals(indexFileName))
+            {
+                String name = fileName.substring(0, fileName.length() - EXTENSION.length());
+                if (mode.isReleasedPage(name))
+                {
+                    names.add(name);
+                }
+            }
+        }
+        List<String> pages = new ArrayList<>(names);
+        pages.sort(VersionComparator.get().reversed());
+
+        StringBuilder index = new StringBuilder("# Changelog\n\n");
+        for (String name : pages)
+        {
+            index.append("* [").append(name).append("](").append(name).append(EXTENSION).append(")\n");
+        }
+        writeIfChanged(new File(directory, indexFileName), index.toString());
+    }
+
+    private void writeIfChanged(File file, String content) throws IOException
+    {
+        byte[] bytes = content.getBytes(UTF_8);
+        Path path = file.toPath();
+        if (Files.isRegularFile(path) && Files.size(path) == bytes.length && Arrays.equals(Files.readAllBytes(path), bytes))
+        {
+            return;
+        }
+        Files.createDirectories(directory.toPath());
+        Files.write(path, bytes);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        flushPage();
+        if (directory.isDirectory())
+        {
+            writeIndex();
+        }
+    }
+
+    /**
+     * Defines which versions share a file.
+     */
+    public enum Mode
+    {
+        /**
+         * Each version is written to its own file, such as {@code 1.2.0.md}.
+         */
+        VERSION("\\d+(\\.\\d+)*(-[0-9A-Za-z.]+)?")
+        {
+            @Override
+            String getPage(String version)
+            {
+                return version;
+            }
+        },
+
+        /**
+         * All versions with the same major version are written to the same file, such as {@code 1.x.md}. Since a file is rewritten with the
+         * versions that are collected, this mode must be used when collecting all versions, or the versions that are not collected are removed
+         * from their file.
+         */
+        MAJOR_VERSION("\\d+\\.x")
+        {
+            @Override
+            String getPage(String version)
+            {
+                int index = version.indexOf('.');
+                return index < 0 ? version : version.substring(0, index) + ".x";
+            }
+        };
+
+        private final Pattern releasedPage;
+
+        Mode(String releasedPage)
+        {
+            this.releasedPage = Pattern.compile(releasedPage);
+        }
+
+        abstract String getPage(String version);
+
+        /**
+         * Checks whether a page, that was not written by this run, holds released versions.
+         *
+         * @param name the name of the page, without extension
+         * @return {@code true} if the page should be listed in the index
+         */
+        boolean isReleasedPage(String name)
+        {
+            return releasedPage.matcher(name).matches() && !name.endsWith("-SNAPSHOT");
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.writer;
+
+import static com.antonjohansson.conventionalcommits.core.writer.TemplateUtils.compileFromFile;
+import static com.antonjohansson.conventionalcommits.core.writer.TemplateUtils.compileFromResource;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.antonjohansson.conventionalcommits.core.utils.HashUtils;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.cache.ConcurrentMapTemplateCache;
+import com.github.jknack.handlebars.io.TemplateSource;
+
+/**
+ * Defines a compiled set of templates that is used to render change logs.
+ * <p>
+ * A set consists of the {@code main.hbs} template and its {@code header.hbs}, {@code commit.hbs} and {@code footer.hbs} partials. Template
+ * sets are compiled once and cached for the lifetime of the JVM. Sets loaded from a directory are invalidated when the modification time or
+ * size of any of their files change. Compiled sets are immutable and can be shared between threads.
+ * </p>
+ */
+public final class TemplateSet
+{
+    private static final String[] NAMES = {"main", "header", "commit", "footer"};
+    private static final String EXTENSION = ".hbs";
+    private static final ConcurrentMap<File, CacheEntry> CACHE = new ConcurrentHashMap<>();
+
+    private final Template template;
+    private final String fingerprint;
+
+    private TemplateSet(TemplateSource[] sources)
+    {
+        CustomTemplateLoader loader = new CustomTemplateLoader();
+        for (int i = 1; i < NAMES.length; i++)
+        {
+            loader.registerPartial(NAMES[i], sources[i]);
+        }
+
+        try
+        {
+            this.template = new Handlebars(loader)
+                    .with(new ConcurrentMapTemplateCache())
+                    .prettyPrint(true)
+                    .compile(sources[0]);
+
+            String[] contents = new String[sources.length];
+            for (int i = 0; i < sources.length; i++)
+            {
+                contents[i] = sources[i].content(UTF_8);
+            }
+            this.fingerprint = HashUtils.sha256(contents);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Could not compile templates", e);
+        }
+    }
+
+    /**
+     * Gets the templates that are bundled with this library.
+     *
+     * @return the bundled templates
+     */
+    public static TemplateSet bundled()
+    {
+        return Bundled.INSTANCE;
+    }
+
+    /**
+     * Gets the HTML templates that are bundled with this library. Each version is rendered as a {@code <section>} element.
+     *
+     * @return the bundled HTML templates
+     */
+    public static TemplateSet bundledHtml()
+    {
+        return BundledHtml.INSTANCE;
+    }
+
+    /**
+     * Gets the templates from the given directory. Templates that are missing in the directory fall back to the bundled ones.
+     *
+     * @param directory the directory containing the templates
+     * @return the templates
+     */
+    public static TemplateSet fromDirectory(File directory)
+    {
+        File key = requireNonNull(directory).getAbsoluteFile();
+        long[] stamp = stamp(key);
+        return CACHE.compute(key, (file, entry) -> entry != null && Arrays.equals(entry.stamp, stamp)
+                ? entry
+                : new CacheEntry(stamp, load(file, "")))
+                .templates;
+    }
+
+    /**
+     * Gets the fingerprint of the templates in the given directory without compiling them. The fingerprint is the same as the one of the
+     * {@link TemplateSet} that {@link #fromDirectory(File)} would return.
+     *
+     * @param directory the directory containing the templates, or {@code null} for the bundled templates
+     * @return the fingerprint
+     */
+    public static String fingerprint(File directory)
+    {
+        String[] contents = new String[NAMES.length];
+        for (int i = 0; i < NAMES.length; i++)
+        {
+            try
+            {
+                contents[i] = source(directory, "", NAMES[i]).content(UTF_8);
+            }
+            catch (IOException e)
+            {
+                throw new RuntimeException("Could not read template: " + NAMES[i], e);
+            }
+        }
+        return HashUtils.sha256(contents);
+    }
+
+    /**
+     * Gets the compiled main template.
+     *
+     * @return the compiled template
+     */
+    Template getTemplate()
+    {
+        return template;
+    }
+
+    /**
+     * Gets a fingerprint of the template contents. The fingerprint changes whenever any of the templates change.
+     *
+     * @return the fingerprint
+     */
+    public String getFingerprint()
+    {
+        return fingerprint;
+    }
+
+    /**
+     * Loads the templates from the given directory, or the bundled templates with the given prefix if the directory is {@code null}.
+     */
+    private static TemplateSet load(File directory, String resourcePrefix)
+    {
+        TemplateSource[] sources = new TemplateSource[NAMES.length];
+        for (int i = 0; i < NAMES.length; i++)
+        {
+            sources[i] = source(directory, resourcePrefix, NAMES[i]);
+        }
+        return new TemplateSet(sources);
+    }
+
+    private static TemplateSource source(File directory, String resourcePrefix, String name)
+    {
+        File file = directory == null ? null : new File(directory, name + EXTENSION);
+        return file != null && file.isFile()
+            ? compileFromFile(file)
+            : compileFromResource(resourcePrefix + name + EXTENSION);
+    }
+
+    private static long[] stamp(File directory)
+    {
+        long[] stamp = new long[NAMES.length * 2];
+        for (int i = 0; i < NAMES.length; i++)
+        {
+            File file = new File(directory, NAMES[i] + EXTENSION);
+            stamp[i * 2] = file.lastModified();
+            stamp[i * 2 + 1] = file.length();
+        }
+        return stamp;
+    }
+
+    /**
+     * Lazily compiles the bundled templates.
+     */
+    private static class Bundled
+    {
+        static final TemplateSet INSTANCE = load(null, "");
+    }
+
+    /**
+     * Lazily compiles the bundled HTML templates.
+     */
+    private static class BundledHtml
+    {
+        static final TemplateSet INSTANCE = load(null, "html/");
+    }
+
+    /**
+     * Defines a cached template set along with the stamp of its files.
+     */
+    private static class CacheEntry
+    {
+        final long[] stamp;
+        final TemplateSet templates;
+
+        CacheEntry(long[] stamp, TemplateSet templates)
+        {
+            this.stamp = stamp;
+            this.templates = templates;
+        }
+    }
+}
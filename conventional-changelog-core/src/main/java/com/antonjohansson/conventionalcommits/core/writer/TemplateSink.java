@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.writer;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.writer.model.Context;
+
+/**
+ * Renders change sets through a {@link TemplateSet}.
+ */
+public class TemplateSink implements ChangeLogSink
+{
+    private final Writer writer;
+    private final SectionRenderer renderer;
+
+    /**
+     * Instantiates a new instance of {@link TemplateSink}.
+     *
+     * @param writer the writer to render into
+     * @param templates the templates to render with
+     */
+    public TemplateSink(Writer writer, TemplateSet templates)
+    {
+        this.writer = requireNonNull(writer);
+        this.renderer = new SectionRenderer(requireNonNull(templates));
+    }
+
+    /**
+     * Sets the directory used to cache rendered sections. Sections of versions where both tags exist never change, so they are rendered once
+     * and streamed from the cache on subsequent writes. By default, no cache is used.
+     *
+     * @param directory the cache directory
+     * @return the sink itself, used for chaining
+     */
+    public TemplateSink sectionCache(File directory)
+    {
+        renderer.sectionCache(new SectionCache(requireNonNull(directory)));
+        return this;
+    }
+
+    @Override
+    public void write(ChangeSet changeSet, Context context) throws IOException
+    {
+        renderer.render(changeSet, context, writer);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        writer.flush();
+        writer.close();
+    }
+}
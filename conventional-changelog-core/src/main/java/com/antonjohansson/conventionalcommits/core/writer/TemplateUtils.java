@@ -15,9 +15,11 @@
  */
 package com.antonjohansson.conventionalcommits.core.writer;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
+import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 
 import com.github.jknack.handlebars.Handlebars;
@@ -42,4 +44,17 @@ class TemplateUtils
             throw new RuntimeException("Could not load template: " + fileName, e);
         }
     }
+
+    static TemplateSource compileFromFile(File file)
+    {
+        try
+        {
+            String content = FileUtils.readFileToString(file, "UTF-8");
+            return new StringTemplateSource(file.getPath(), content);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException("Could not load template: " + file, e);
+        }
+    }
 }
@@ -33,13 +33,22 @@ public class Commit
     private final String title;
     private final String scope;
     private final List<Reference> references;
+    private final String component;
+    private final String repositoryURL;
 
     public Commit(String hash, String title, String scope, List<Reference> references)
+    {
+        this(hash, title, scope, references, null, null);
+    }
+
+    public Commit(String hash, String title, String scope, List<Reference> references, String component, String repositoryURL)
     {
         this.hash = requireNonNull(hash);
         this.title = requireNonNull(title);
         this.scope = scope;
         this.references = unmodifiableList(requireNonNull(references));
+        this.component = component;
+        this.repositoryURL = repositoryURL;
     }
 
     public String getHash()
@@ -66,4 +75,24 @@ public class Commit
     {
         return references;
     }
+
+    /**
+     * Gets the name of the component that the commit belongs to, in changelogs that aggregate several repositories.
+     *
+     * @return the name of the component, or {@code null}
+     */
+    public String getComponent()
+    {
+        return component;
+    }
+
+    /**
+     * Gets the URL of the repository that the commit belongs to, used to link the commit and its references.
+     *
+     * @return the repository URL, or {@code null}
+     */
+    public String getRepositoryURL()
+    {
+        return repositoryURL;
+    }
 }
@@ -20,9 +20,13 @@ import static java.util.Objects.requireNonNull;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * Defines the templating context model.
+ * <p>
+ * The groups of commits and notes can be built lazily, so that a version that is served from a section cache is never grouped.
+ * </p>
  */
 public class Context
 {
@@ -31,18 +35,28 @@ public class Context
     private final String tagName;
     private final String previousTagName;
     private final LocalDate createdAt;
-    private final List<CommitGroup> commitGroups;
-    private final List<NoteGroup> noteGroups;
+    private Supplier<List<CommitGroup>> commitGroupsSupplier;
+    private Supplier<List<NoteGroup>> noteGroupsSupplier;
+    private List<CommitGroup> commitGroups;
+    private List<NoteGroup> noteGroups;
 
     public Context(String repositoryURL, String version, String tagName, String previousTagName, LocalDate createdAt, List<CommitGroup> commitGroups, List<NoteGroup> noteGroups)
+    {
+        this(repositoryURL, version, tagName, previousTagName, createdAt, () -> commitGroups, () -> noteGroups);
+        requireNonNull(commitGroups);
+        requireNonNull(noteGroups);
+    }
+
+    public Context(String repositoryURL, String version, String tagName, String previousTagName, LocalDate createdAt, Supplier<List<CommitGroup>> commitGroups,
+            Supplier<List<NoteGroup>> noteGroups)
     {
         this.repositoryURL = repositoryURL;
         this.tagName = requireNonNull(tagName);
         this.previousTagName = requireNonNull(previousTagName);
         this.createdAt = requireNonNull(createdAt);
         this.version = requireNonNull(version);
-        this.commitGroups = unmodifiableList(requireNonNull(commitGroups));
-        this.noteGroups = unmodifiableList(requireNonNull(noteGroups));
+        this.commitGroupsSupplier = requireNonNull(commitGroups);
+        this.noteGroupsSupplier = requireNonNull(noteGroups);
     }
 
     public String getRepositoryURL()
@@ -72,11 +86,21 @@ public class Context
 
     public List<CommitGroup> getCommitGroups()
     {
+        if (commitGroups == null)
+        {
+            commitGroups = unmodifiableList(requireNonNull(commitGroupsSupplier.get()));
+            commitGroupsSupplier = null;
+        }
         return commitGroups;
     }
 
     public List<NoteGroup> getNoteGroups()
     {
+        if (noteGroups == null)
+        {
+            noteGroups = unmodifiableList(requireNonNull(noteGroupsSupplier.get()));
+            noteGroupsSupplier = null;
+        }
         return noteGroups;
     }
 }
@@ -0,0 +1,41 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for collecting the change sets of a repository.
+ */
+@Name("com.antonjohansson.conventionalchangelog.Collect")
+@Label("Collect Change Sets")
+@Category("Conventional Changelog")
+@Description("Collecting change sets from a Git repository")
+class CollectEvent extends Event
+{
+    @Label("Project Directory")
+    String projectDirectory;
+
+    @Label("Versions")
+    int versions;
+
+    @Label("Changes")
+    long changes;
+}
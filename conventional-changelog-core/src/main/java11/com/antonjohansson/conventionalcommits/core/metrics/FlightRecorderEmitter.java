@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import java.io.File;
+import java.util.List;
+
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+
+/**
+ * Emits the Java Flight Recorder events of {@link FlightRecorderEvents}. This class refers to {@code jdk.jfr}, so it must only be loaded
+ * when that module is present.
+ */
+final class FlightRecorderEmitter
+{
+    private FlightRecorderEmitter()
+    {
+    }
+
+    /**
+     * Begins an event for collecting change sets.
+     *
+     * @return the event, or {@code null}
+     */
+    static Object beginCollect()
+    {
+        return begin(new CollectEvent());
+    }
+
+    /**
+     * Ends an event for collecting change sets.
+     *
+     * @param event the event returned by {@link #beginCollect()}
+     * @param projectDirectory the project directory that change sets were collected from
+     * @param changeSets the collected change sets, or {@code null} if collecting failed
+     */
+    static void endCollect(Object event, File projectDirectory, List<ChangeSet> changeSets)
+    {
+        if (event == null)
+        {
+            return;
+        }
+
+        CollectEvent collectEvent = (CollectEvent) event;
+        collectEvent.projectDirectory = projectDirectory.getPath();
+        if (changeSets != null)
+        {
+            collectEvent.versions = changeSets.size();
+            collectEvent.changes = changeSets.stream().mapToLong(set -> set.getChanges().size()).sum();
+        }
+        collectEvent.commit();
+    }
+
+    /**
+     * Begins an event for parsing a commit message.
+     *
+     * @return the event, or {@code null}
+     */
+    static Object beginParse()
+    {
+        return begin(new ParseEvent());
+    }
+
+    /**
+     * Ends an event for parsing a commit message.
+     *
+     * @param event the event returned by {@link #beginParse()}
+     * @param hash the hash of the commit
+     * @param messageLength the length of the commit message
+     */
+    static void endParse(Object event, String hash, int messageLength)
+    {
+        if (event == null)
+        {
+            return;
+        }
+
+        ParseEvent parseEvent = (ParseEvent) event;
+        parseEvent.hash = hash;
+        parseEvent.messageLength = messageLength;
+        parseEvent.commit();
+    }
+
+    /**
+     * Begins an event for writing a change set.
+     *
+     * @return the event, or {@code null}
+     */
+    static Object beginWrite()
+    {
+        return begin(new WriteEvent());
+    }
+
+    /**
+     * Ends an event for writing a change set.
+     *
+     * @param event the event returned by {@link #beginWrite()}
+     * @param version the version of the change set
+     * @param changes the number of changes in the change set
+     * @param outputBytes the number of bytes written to the main output
+     */
+    static void endWrite(Object event, String version, int changes, long outputBytes)
+    {
+        if (event == null)
+        {
+            return;
+        }
+
+        WriteEvent writeEvent = (WriteEvent) event;
+        writeEvent.version = version;
+        writeEvent.changes = changes;
+        writeEvent.outputBytes = outputBytes;
+        writeEvent.commit();
+    }
+
+    private static Object begin(jdk.jfr.Event event)
+    {
+        if (!event.isEnabled())
+        {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import java.io.File;
+import java.util.List;
+
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+
+/**
+ * Emits Java Flight Recorder events for collecting, parsing and writing. This is the implementation for Java 11 and later.
+ * <p>
+ * Each {@code begin} method returns the event that has begun, or {@code null} if the event is not enabled. The event is passed to the
+ * matching {@code end} method, which commits it.
+ * </p>
+ * <p>
+ * Runtimes that are linked without the {@code jdk.jfr} module emit no events, just like Java 8. The events themselves are created by
+ * {@link FlightRecorderEmitter}, which is never loaded on such runtimes.
+ * </p>
+ */
+public final class FlightRecorderEvents
+{
+    private static final boolean AVAILABLE = ModuleLayer.boot().findModule("jdk.jfr").isPresent();
+
+    private FlightRecorderEvents()
+    {
+    }
+
+    /**
+     * Begins an event for collecting change sets.
+     *
+     * @return the event, or {@code null}
+     */
+    public static Object beginCollect()
+    {
+        return AVAILABLE ? FlightRecorderEmitter.beginCollect() : null;
+    }
+
+    /**
+     * Ends an event for collecting change sets.
+     *
+     * @param event the event returned by {@link #beginCollect()}
+     * @param projectDirectory the project directory that change sets were collected from
+     * @param changeSets the collected change sets, or {@code null} if collecting failed
+     */
+    public static void endCollect(Object event, File projectDirectory, List<ChangeSet> changeSets)
+    {
+        if (event != null)
+        {
+            FlightRecorderEmitter.endCollect(event, projectDirectory, changeSets);
+        }
+    }
+
+    /**
+     * Begins an event for parsing a commit message.
+     *
+     * @return the event, or {@code null}
+     */
+    public static Object beginParse()
+    {
+        return AVAILABLE ? FlightRecorderEmitter.beginParse() : null;
+    }
+
+    /**
+     * Ends an event for parsing a commit message.
+     *
+     * @param event the event returned by {@link #beginParse()}
+     * @param hash the hash of the commit
+     * @param messageLength the length of the commit message
+     */
+    public static void endParse(Object event, String hash, int messageLength)
+    {
+        if (event != null)
+        {
+            FlightRecorderEmitter.endParse(event, hash, messageLength);
+        }
+    }
+
+    /**
+     * Begins an event for writing a change set.
+     *
+     * @return the event, or {@code null}
+     */
+    public static Object beginWrite()
+    {
+        return AVAILABLE ? FlightRecorderEmitter.beginWrite() : null;
+    }
+
+    /**
+     * Ends an event for writing a change set.
+     *
+     * @param event the event returned by {@link #beginWrite()}
+     * @param version the version of the change set
+     * @param changes the number of changes in the change set
+     * @param outputBytes the number of bytes written to the main output
+     */
+    public static void endWrite(Object event, String version, int changes, long outputBytes)
+    {
+        if (event != null)
+        {
+            FlightRecorderEmitter.endWrite(event, version, changes, outputBytes);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for parsing a commit message.
+ */
+@Name("com.antonjohansson.conventionalchangelog.Parse")
+@Label("Parse Commit")
+@Category("Conventional Changelog")
+@Description("Parsing the message of a commit")
+class ParseEvent extends Event
+{
+    @Label("Commit Hash")
+    String hash;
+
+    @Label("Message Length")
+    @Description("The number of characters in the message")
+    int messageLength;
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.aggregate;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+import com.antonjohansson.conventionalcommits.core.common.TestRepository;
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.writer.ChangeLogWriter;
+
+/**
+ * Unit tests of {@link ChangeSetAggregator}.
+ */
+public class ChangeSetAggregatorTest extends AbstractTest
+{
+    private static final Instant START = Instant.parse("2020-03-01T10:00:00Z");
+
+    private File root;
+
+    @Override
+    @AfterEach
+    public void tearDown()
+    {
+        super.tearDown();
+        FileUtils.deleteQuietly(root);
+    }
+
+    @Test
+    public void testCollectAndWrite() throws Exception
+    {
+        root = Files.createTempDirectory("aggregate").toFile();
+        File api = new File(root, "api");
+        File web = new File(root, "web");
+        try (TestRepository repository = TestRepository.create(api))
+        {
+            repository.commit("chore: Initial commit", hours(0));
+            repository.tag("v1.0.0");
+            repository.commit("feat: Add endpoint", hours(1));
+            repository.commit("fix: Fix endpoint", hours(3));
+        }
+        try (TestRepository repository = TestRepository.create(web))
+        {
+            repository.commit("chore: Initial commit", hours(0));
+            repository.tag("v3.0.0");
+            repository.commit("feat: Add page", hours(2));
+            repository.tag("v3.1.0");
+            repository.commit("feat: Add another page", hours(4));
+        }
+
+        List<ChangeSet> changeSets = new ChangeSetAggregator("2.0.0", "1.0.0")
+                .component(new Component("api", api))
+                .component(new Component("web", web).untilTag("v3.0.0"))
+                .collect();
+
+        assertEquals(1, changeSets.size());
+        ChangeSet changeSet = changeSets.get(0);
+        assertEquals("v2.0.0", changeSet.getTagName());
+        assertEquals("v1.0.0", changeSet.getPreviousTagName());
+        assertEquals(asList("Add endpoint", "Add page", "Fix endpoint", "Add another page"), changeSet.getChanges().stream().map(Change::getTitle).collect(toList()));
+        assertEquals(asList("api", "web", "api", "web"), changeSet.getChanges().stream().map(change -> change.getComponent().get()).collect(toList()));
+
+        StringWriter output = new StringWriter();
+        try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+        {
+            writer
+                    .writer(output)
+                    .repositoryURL("")
+                    .repositoryURL("api", "https://github.com/acme/api/commit")
+                    .write();
+        }
+
+        String hash = changeSet.getChanges().get(0).getHash();
+        String changeLog = output.toString();
+        assertTrue(changeLog.contains("* [api] Add endpoint ([" + hash.substring(0, 8) + "](https://github.com/acme/api/commit/" + hash + "))"), changeLog);
+        assertTrue(changeLog.contains("* [web] Add page (" + changeSet.getChanges().get(1).getHash().substring(0, 8) + ")"), changeLog);
+    }
+
+    @Test
+    public void testCollectWithClockSkew() throws Exception
+    {
+        root = Files.createTempDirectory("aggregate").toFile();
+        File api = new File(root, "api");
+        File web = new File(root, "web");
+        try (TestRepository repository = TestRepository.create(api))
+        {
+            repository.commit("chore: Initial commit", hours(0));
+            repository.tag("v1.0.0");
+            repository.commit("feat: Add endpoint", hours(5));
+            // Committed on a machine whose clock was behind
+            repository.commit("fix: Fix endpoint", hours(1));
+        }
+        try (TestRepository repository = TestRepository.create(web))
+        {
+            repository.commit("chore: Initial commit", hours(0));
+            repository.tag("v1.0.0");
+            repository.commit("feat: Add page", hours(3));
+        }
+
+        List<ChangeSet> changeSets = new ChangeSetAggregator("2.0.0", "1.0.0")
+                .component(new Component("api", api))
+                .component(new Component("web", web))
+                .collect();
+
+        // The changes of a component keep the order of its history, and the changes of other components are merged around them
+        assertEquals(asList("Add endpoint", "Fix endpoint", "Add page"), changeSets.get(0).getChanges().stream().map(Change::getTitle).collect(toList()));
+    }
+
+    @Test
+    public void testCollectWithMissingTag() throws Exception
+    {
+        root = Files.createTempDirectory("aggregate").toFile();
+        File api = new File(root, "api");
+        try (TestRepository repository = TestRepository.create(api))
+        {
+            repository.commit("chore: Initial commit", hours(0));
+        }
+
+        ChangeSetAggregator aggregator = new ChangeSetAggregator("2.0.0", "1.0.0")
+                .component(new Component("api", api).untilTag("v1.0.0"));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, aggregator::collect);
+        assertEquals("Could not collect changes of component 'api'", exception.getMessage());
+    }
+
+    @Test
+    public void testDuplicateComponent()
+    {
+        ChangeSetAggregator aggregator = new ChangeSetAggregator("2.0.0", "1.0.0").component(new Component("api", new File("api")));
+
+        assertThrows(IllegalArgumentException.class, () -> aggregator.component(new Component("api", new File("other"))));
+    }
+
+    private Instant hours(int hours)
+    {
+        return START.plusSeconds(hours * 3600L);
+    }
+}
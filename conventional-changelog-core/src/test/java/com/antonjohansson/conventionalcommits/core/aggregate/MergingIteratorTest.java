@@ -0,0 +1,57 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.aggregate;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyIterator;
+import static java.util.Collections.emptyList;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+
+/**
+ * Unit tests of {@link MergingIterator}.
+ */
+public class MergingIteratorTest extends AbstractTest
+{
+    @Test
+    public void testMerge()
+    {
+        MergingIterator<String> iterator = new MergingIterator<>(asList(
+                asList("1a", "4a", "5a").iterator(),
+                emptyIterator(),
+                asList("2b", "3b", "4b", "9b").iterator()),
+                Comparator.comparing(value -> value.charAt(0)));
+
+        List<String> actual = new ArrayList<>();
+        iterator.forEachRemaining(actual::add);
+
+        assertEquals(asList("1a", "2b", "3b", "4a", "4b", "5a", "9b"), actual);
+    }
+
+    @Test
+    public void testNoSources()
+    {
+        MergingIterator<String> iterator = new MergingIterator<>(emptyList(), Comparator.<String>naturalOrder());
+
+        assertFalse(iterator.hasNext());
+    }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.batch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.batch.BatchResult.Status;
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+import com.antonjohansson.conventionalcommits.core.common.TestRepository;
+import com.antonjohansson.conventionalcommits.core.utils.CancellationToken;
+
+/**
+ * Unit tests of {@link BatchGenerator}.
+ */
+public class BatchGeneratorTest extends AbstractTest
+{
+    private File root;
+
+    @Override
+    @AfterEach
+    public void tearDown()
+    {
+        super.tearDown();
+        FileUtils.deleteQuietly(root);
+    }
+
+    @Test
+    public void testRun() throws Exception
+    {
+        root = Files.createTempDirectory("batch").toFile();
+        createRepository(new File(root, "first"), "feat: First feature");
+        createRepository(new File(root, "second"), "fix: Second fix");
+        Git.cloneRepository().setURI(new File(root, "first").toURI().toString()).setDirectory(new File(root, "mirror.git")).setBare(true).call().close();
+        new File(root, "not-a-repository").mkdir();
+        File output = new File(root, "output");
+
+        List<File> repositories = BatchGenerator.findRepositories(root);
+        assertEquals(3, repositories.size());
+        repositories.add(new File(root, "missing"));
+
+        List<BatchResult> results = new BatchGenerator(repositories, output)
+                .threads(2)
+                .nextVersion("1.1.0")
+                .run();
+
+        assertEquals(4, results.size());
+        assertEquals(Status.SUCCEEDED, results.get(0).getStatus());
+        assertEquals(Status.SUCCEEDED, results.get(1).getStatus());
+        assertEquals(Status.SUCCEEDED, results.get(2).getStatus());
+        assertEquals(Status.FAILED, results.get(3).getStatus());
+        assertTrue(results.get(3).getError().isPresent());
+
+        assertTrue(FileUtils.readFileToString(new File(output, "first.md"), UTF_8).contains("First feature"));
+        assertTrue(FileUtils.readFileToString(new File(output, "mirror.md"), UTF_8).contains("First feature"));
+        assertTrue(FileUtils.readFileToString(new File(output, "second.md"), UTF_8).contains("Second fix"));
+        assertTrue(BatchGenerator.format(results).contains("4 repositories, 1 failed, "));
+    }
+
+    @Test
+    public void testRunWithSameOutputName() throws Exception
+    {
+        root = Files.createTempDirectory("batch").toFile();
+        createRepository(new File(root, "project"), "feat: First feature");
+        createRepository(new File(root, "other"), "fix: Other fix");
+        Git.cloneRepository().setURI(new File(root, "other").toURI().toString()).setDirectory(new File(root, "project.git")).setBare(true).call().close();
+        File output = new File(root, "output");
+
+        List<BatchResult> results = new BatchGenerator(BatchGenerator.findRepositories(root), output)
+                .nextVersion("1.1.0")
+                .run();
+
+        assertEquals(3, results.size());
+        assertEquals(new File(root, "project.git"), results.get(2).getRepository());
+        assertEquals(Status.FAILED, results.get(2).getStatus());
+        assertTrue(results.get(2).getError().get().getMessage().contains("project.md"));
+        assertTrue(FileUtils.readFileToString(new File(output, "project.md"), UTF_8).contains("First feature"));
+    }
+
+    @Test
+    public void testRunKeepsChangeLogWhenWritingFails() throws Exception
+    {
+        root = Files.createTempDirectory("batch").toFile();
+        createRepository(new File(root, "project"), "feat: First feature");
+        File output = new File(root, "output");
+        List<File> repositories = BatchGenerator.findRepositories(root);
+        assertEquals(Status.SUCCEEDED, new BatchGenerator(repositories, output).nextVersion("1.1.0").run().get(0).getStatus());
+        String changeLog = FileUtils.readFileToString(new File(output, "project.md"), UTF_8);
+
+        File templateDirectory = new File(root, "templates");
+        FileUtils.write(new File(templateDirectory, "main.hbs"), "{{#each changeSets}}", UTF_8);
+        List<BatchResult> results = new BatchGenerator(repositories, output)
+                .nextVersion("1.1.0")
+                .templateDirectory(templateDirectory)
+                .run();
+
+        assertEquals(Status.FAILED, results.get(0).getStatus());
+        assertEquals(changeLog, FileUtils.readFileToString(new File(output, "project.md"), UTF_8));
+        assertEquals(1, output.list().length, "The temporary file must be deleted");
+    }
+
+    @Test
+    public void testDeadlineAfterFinish()
+    {
+        CancellationToken cancellationToken = new CancellationToken();
+        BatchGenerator.Deadline deadline = new BatchGenerator.Deadline(cancellationToken, Thread.currentThread());
+
+        assertTrue(deadline.finish());
+        deadline.expire();
+
+        assertFalse(cancellationToken.isCancelled());
+        assertFalse(Thread.interrupted());
+    }
+
+    @Test
+    public void testDeadlineBeforeFinish()
+    {
+        CancellationToken cancellationToken = new CancellationToken();
+        BatchGenerator.Deadline deadline = new BatchGenerator.Deadline(cancellationToken, Thread.currentThread());
+
+        deadline.expire();
+
+        assertTrue(cancellationToken.isCancelled());
+        assertFalse(deadline.finish());
+        assertFalse(Thread.interrupted(), "The interrupt of the deadline must be cleared");
+    }
+
+    private void createRepository(File directory, String message) throws Exception
+    {
+        try (TestRepository repository = TestRepository.create(directory))
+        {
+            repository.commit("chore: Initial commit");
+            repository.tag("v1.0.0");
+            repository.commit(message);
+        }
+    }
+}
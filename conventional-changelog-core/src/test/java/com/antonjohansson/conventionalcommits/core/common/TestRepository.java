@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.common;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Date;
+import java.util.TimeZone;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.revwalk.RevCommit;
+
+/**
+ * A Git repository for unit tests to commit to.
+ * <p>
+ * Commits are made one minute apart, starting at a fixed time, so that {@code git log} visits them in a predictable order.
+ * </p>
+ */
+public final class TestRepository implements AutoCloseable
+{
+    private static final Instant START = Instant.parse("2020-03-01T10:00:00Z");
+
+    private final File directory;
+    private final boolean temporary;
+    private final Git git;
+    private Instant time = START;
+
+    private TestRepository(File directory, boolean temporary)
+    {
+        this.directory = directory;
+        this.temporary = temporary;
+        try
+        {
+            this.git = Git.init().setDirectory(directory).call();
+        }
+        catch (GitAPIException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a repository in a new temporary directory, which is deleted when the repository is closed.
+     *
+     * @param prefix the prefix of the name of the directory
+     * @return the repository
+     */
+    public static TestRepository create(String prefix)
+    {
+        try
+        {
+            return new TestRepository(Files.createTempDirectory(prefix).toFile(), true);
+        }
+        catch (IOException e)
+        {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Creates a repository in the given directory, which is kept when the repository is closed.
+     *
+     * @param directory the directory
+     * @return the repository
+     */
+    public static TestRepository create(File directory)
+    {
+        return new TestRepository(directory, false);
+    }
+
+    public File getDirectory()
+    {
+        return directory;
+    }
+
+    public Git git()
+    {
+        return git;
+    }
+
+    /**
+     * Commits a change of {@code file.txt}, one minute after the previous commit.
+     *
+     * @param message the commit message
+     * @return the commit
+     */
+    public RevCommit commit(String message) throws Exception
+    {
+        return commit("file.txt", message);
+    }
+
+    /**
+     * Commits a change of the given file, one minute after the previous commit. The file gets the commit message as content.
+     *
+     * @param fileName the name of the file
+     * @param message the commit message
+     * @return the commit
+     */
+    public RevCommit commit(String fileName, String message) throws Exception
+    {
+        return commit(fileName, message, time.plusSeconds(60));
+    }
+
+    /**
+     * Commits a change of {@code file.txt} at the given time.
+     *
+     * @param message the commit message
+     * @param time the author and commit time
+     * @return the commit
+     */
+    public RevCommit commit(String message, Instant time) throws Exception
+    {
+        return commit("file.txt", message, time);
+    }
+
+    private RevCommit commit(String fileName, String message, Instant time) throws Exception
+    {
+        Files.write(new File(directory, fileName).toPath(), message.getBytes(UTF_8));
+        git.add().addFilepattern(fileName).call();
+        return commitIndex(message, time);
+    }
+
+    /**
+     * Commits what is in the index, such as a merge, one minute after the previous commit.
+     *
+     * @param message the commit message
+     * @return the commit
+     */
+    public RevCommit commitIndex(String message) throws Exception
+    {
+        return commitIndex(message, time.plusSeconds(60));
+    }
+
+    private RevCommit commitIndex(String message, Instant time) throws Exception
+    {
+        this.time = time;
+        PersonIdent ident = new PersonIdent("John Doe", "john.doe@example.com", Date.from(time), TimeZone.getTimeZone("UTC"));
+        return git.commit().setMessage(message).setAuthor(ident).setCommitter(ident).call();
+    }
+
+    /**
+     * Tags {@code HEAD}.
+     *
+     * @param tagName the name of the tag
+     */
+    public void tag(String tagName) throws Exception
+    {
+        git.tag().setName(tagName).call();
+    }
+
+    /**
+     * Closes the repository, and deletes it if it was created in a temporary directory.
+     */
+    @Override
+    public void close()
+    {
+        git.close();
+        if (temporary)
+        {
+            FileUtils.deleteQuietly(directory);
+        }
+    }
+}
@@ -0,0 +1,284 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeCommand.FastForwardMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+import com.antonjohansson.conventionalcommits.core.common.TestRepository;
+import com.antonjohansson.conventionalcommits.core.git.ChangeSetCollector.WalkMode;
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener.Counter;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsSummary;
+import com.antonjohansson.conventionalcommits.core.writer.ChangeLogWriter;
+
+/**
+ * Unit tests of {@link ChangeSetCollector}.
+ */
+public class ChangeSetCollectorTest extends AbstractTest
+{
+    private TestRepository repository;
+    private Git git;
+
+    @Override
+    @BeforeEach
+    public void setUp()
+    {
+        super.setUp();
+        repository = TestRepository.create("change-set-collector");
+        git = repository.git();
+    }
+
+    @Override
+    @AfterEach
+    public void tearDown()
+    {
+        super.tearDown();
+        repository.close();
+    }
+
+    @Test
+    public void testWalkModes() throws Exception
+    {
+        createMergeHistory();
+
+        assertEquals(asList("docs: Update the readme", "feat: Add something", "fix: Fix a typo in something"), collect(WalkMode.ALL, 5));
+        assertEquals(asList("docs: Update the readme", "feat: Add something"), collect(WalkMode.FIRST_PARENT, 3));
+        assertEquals(asList("feat: Add something"), collect(WalkMode.MERGES_ONLY, 3));
+    }
+
+    @Test
+    public void testMergesOnlyWithNumberOfVersions() throws Exception
+    {
+        createMergeHistory();
+        repository.commit("d.txt", "chore: Prepare release");
+        repository.tag("v1.1.0");
+        git.checkout().setCreateBranch(true).setName("other").call();
+        repository.commit("e.txt", "feat: Add something else");
+        git.checkout().setName("master").call();
+        repository.commit("f.txt", "docs: Update the readme again");
+        git.merge()
+                .include(git.getRepository().resolve("other"))
+                .setFastForward(FastForwardMode.NO_FF)
+                .setCommit(false)
+                .call();
+        repository.commitIndex("Merge pull request #2 from user/other\n\nfeat: Add something else\n\nCloses #2");
+
+        // The release commits are not merges, but still end the versions
+        List<ChangeSet> changeSets = new ChangeSetCollector(git)
+                .nextVersion("1.2.0")
+                .numberOfVersions(1)
+                .walkMode(WalkMode.MERGES_ONLY)
+                .collect();
+        assertEquals(1, changeSets.size());
+        assertEquals("v1.1.0", changeSets.get(0).getPreviousTagName());
+        assertEquals(asList("Add something else"), titles(changeSets.get(0)));
+
+        List<ChangeSet> twoVersions = new ChangeSetCollector(git)
+                .nextVersion("1.2.0")
+                .numberOfVersions(2)
+                .walkMode(WalkMode.MERGES_ONLY)
+                .collect();
+        assertEquals(asList("1.2.0", "1.1.0"), twoVersions.stream().map(ChangeSet::getVersion).collect(toList()));
+        assertEquals(asList("Add something"), titles(twoVersions.get(1)));
+    }
+
+    @Test
+    public void testWalkModesWithSectionCache() throws Exception
+    {
+        createMergeHistory();
+        repository.tag("v1.1.0");
+        File cacheDirectory = new File(repository.getDirectory(), "target/sections");
+
+        String all = write(WalkMode.ALL, cacheDirectory);
+        assertTrue(all.contains("Fix a typo in something"), all);
+
+        // The released version must not be served from the entry of the other walk mode
+        String firstParent = write(WalkMode.FIRST_PARENT, cacheDirectory);
+        assertFalse(firstParent.contains("Fix a typo in something"), firstParent);
+        assertTrue(firstParent.contains("Add something"), firstParent);
+        assertEquals(2, cacheDirectory.list().length);
+
+        assertEquals(all, write(WalkMode.ALL, cacheDirectory));
+    }
+
+    @Test
+    public void testWalkModeWithHistoryIndex() throws Exception
+    {
+        repository.commit("chore: Initial commit");
+
+        ChangeSetCollector collector = new ChangeSetCollector(git)
+                .nextVersion("1.0.0")
+                .historyIndex(new File(repository.getDirectory(), "target/history.idx"))
+                .walkMode(WalkMode.FIRST_PARENT);
+        assertThrows(IllegalStateException.class, collector::collect);
+    }
+
+    @Test
+    public void testVersionRange() throws Exception
+    {
+        repository.commit("chore: Initial commit");
+        repository.tag("v1.0.0");
+        repository.commit("feat: Add something");
+        repository.tag("v1.1.0");
+        repository.commit("fix: Fix something");
+        repository.commit("feat: Add something else");
+        repository.tag("v1.2.0");
+        repository.commit("fix: Fix something else");
+        repository.tag("v1.10.0");
+        repository.commit("feat: Add something new");
+
+        MetricsSummary summary = new MetricsSummary();
+        List<ChangeSet> changeSets = new ChangeSetCollector(git)
+                .fromVersion("1.1.0")
+                .toVersion("1.10.0")
+                .metrics(summary)
+                .collect();
+
+        assertEquals(3, summary.getCount(Counter.COMMITS_VISITED));
+        assertEquals(asList("1.10.0", "1.2.0"), changeSets.stream().map(ChangeSet::getVersion).collect(toList()));
+        assertEquals(asList("v1.2.0", "v1.1.0"), changeSets.stream().map(ChangeSet::getPreviousTagName).collect(toList()));
+        assertEquals(asList("Fix something else"), titles(changeSets.get(0)));
+        assertEquals(asList("Fix something", "Add something else"), titles(changeSets.get(1)));
+
+        List<ChangeSet> indexed = new ChangeSetCollector(git)
+                .fromVersion("1.1.0")
+                .toVersion("1.10.0")
+                .historyIndex(new File(repository.getDirectory(), "target/history.idx"))
+                .collect();
+        assertEquals(changeSets.toString(), indexed.toString());
+
+        List<ChangeSet> sinceVersion = new ChangeSetCollector(git)
+                .nextVersion("1.11.0")
+                .fromVersion("1.2.0")
+                .collect();
+        assertEquals(asList("1.11.0", "1.10.0"), sinceVersion.stream().map(ChangeSet::getVersion).collect(toList()));
+        assertEquals(asList("Add something new"), titles(sinceVersion.get(0)));
+    }
+
+    @Test
+    public void testChanges() throws Exception
+    {
+        repository.commit("chore: Initial commit");
+        repository.tag("v1.0.0");
+        repository.commit("feat: Add something");
+        repository.tag("v1.1.0");
+        repository.commit("fix: Fix something");
+        repository.commit("feat: Add something else");
+
+        try (ChangeSetCollector collector = new ChangeSetCollector(git))
+        {
+            List<String> titles = new ArrayList<>();
+            collector.changes().forEachRemaining(change -> titles.add(change.getTitle()));
+            assertEquals(asList("Add something else", "Fix something"), titles);
+        }
+
+        try (ChangeSetCollector collector = new ChangeSetCollector(git).untilTag("v1.0.0"))
+        {
+            List<String> titles = new ArrayList<>();
+            collector.changes().forEachRemaining(change -> titles.add(change.getTitle()));
+            assertEquals(asList("Add something else", "Fix something", "Add something"), titles);
+        }
+    }
+
+    @Test
+    public void testInvalidVersionRange() throws Exception
+    {
+        repository.commit("chore: Initial commit");
+        repository.tag("v1.0.0");
+        repository.commit("feat: Add something");
+        repository.tag("v1.1.0");
+
+        assertThrows(IllegalArgumentException.class, () -> new ChangeSetCollector(git).fromVersion("1.1.0").toVersion("1.0.0").collect());
+        assertThrows(IllegalArgumentException.class, () -> new ChangeSetCollector(git).fromVersion("0.9.0").toVersion("1.1.0").collect());
+    }
+
+    private void createMergeHistory() throws Exception
+    {
+        repository.commit("a.txt", "chore: Initial commit");
+        repository.tag("v1.0.0");
+        git.checkout().setCreateBranch(true).setName("feature").call();
+        repository.commit("b.txt", "feat: Add something");
+        repository.commit("b.txt", "fix: Fix a typo in something");
+        git.checkout().setName("master").call();
+        repository.commit("c.txt", "docs: Update the readme");
+        git.merge()
+                .include(git.getRepository().resolve("feature"))
+                .setFastForward(FastForwardMode.NO_FF)
+                .setCommit(false)
+                .call();
+        repository.commitIndex("Merge pull request #1 from user/feature\n\nfeat: Add something\n\nCloses #1");
+    }
+
+    private String write(WalkMode walkMode, File cacheDirectory) throws Exception
+    {
+        List<ChangeSet> changeSets = new ChangeSetCollector(git)
+                .nextVersion("1.2.0")
+                .numberOfVersions(2)
+                .walkMode(walkMode)
+                .collect();
+
+        StringWriter output = new StringWriter();
+        try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+        {
+            writer
+                    .repositoryURL("")
+                    .sectionCache(cacheDirectory)
+                    .writer(output)
+                    .write();
+        }
+        return output.toString();
+    }
+
+    private List<String> titles(ChangeSet changeSet)
+    {
+        return changeSet.getChanges().stream().map(Change::getTitle).collect(toList());
+    }
+
+    private List<String> collect(WalkMode walkMode, long expectedVisited) throws Exception
+    {
+        MetricsSummary summary = new MetricsSummary();
+        List<ChangeSet> changeSets = new ChangeSetCollector(git)
+                .nextVersion("1.1.0")
+                .walkMode(walkMode)
+                .metrics(summary)
+                .collect();
+
+        assertEquals(1, changeSets.size());
+        assertEquals("v1.0.0", changeSets.get(0).getPreviousTagName());
+        assertEquals(expectedVisited, summary.getCount(Counter.COMMITS_VISITED));
+        return changeSets.get(0)
+                .getChanges()
+                .stream()
+                .filter(change -> change.getType() != null)
+                .map(change -> change.getType() + ": " + change.getTitle())
+                .sorted()
+                .collect(toList());
+    }
+}
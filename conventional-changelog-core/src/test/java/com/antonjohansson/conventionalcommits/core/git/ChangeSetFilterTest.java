@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+
+/**
+ * Unit tests of {@link ChangeSetFilter}.
+ */
+public class ChangeSetFilterTest extends AbstractTest
+{
+    @Test
+    public void testByPath()
+    {
+        List<ChangeSet> changeSets = asList(new ChangeSet("1.1.0", "v1.1.0", "v1.0.0", LocalDate.of(2020, 3, 12), asList(
+                change("a", "core/src/Main.java"),
+                change("b", "plugin/pom.xml", "core/pom.xml"),
+                change("c", "core-extras/pom.xml"),
+                change("d", "README.md"))));
+
+        assertEquals(asList("a", "b"), hashes(ChangeSetFilter.byPath(changeSets, "core")));
+        assertEquals(asList("b"), hashes(ChangeSetFilter.byPath(changeSets, "plugin/")));
+        assertEquals(asList("a", "b", "c", "d"), hashes(ChangeSetFilter.byPath(changeSets, "")));
+    }
+
+    @Test
+    public void testByPathCollectionOptions()
+    {
+        List<ChangeSet> changeSets = asList(new ChangeSet("1.1.0", "v1.1.0", "v1.0.0", LocalDate.of(2020, 3, 12), asList(change("a", "core/pom.xml")),
+                null, null, "walkMode=ALL"));
+
+        assertEquals("walkMode=ALL;path=core/", ChangeSetFilter.byPath(changeSets, "core").get(0).getCollectionOptions().get());
+        assertEquals("walkMode=ALL;path=plugin/", ChangeSetFilter.byPath(changeSets, "plugin/").get(0).getCollectionOptions().get());
+        assertEquals("walkMode=ALL", ChangeSetFilter.byPath(changeSets, "").get(0).getCollectionOptions().get());
+    }
+
+    private List<String> hashes(List<ChangeSet> changeSets)
+    {
+        return changeSets.get(0).getChanges().stream().map(Change::getHash).collect(toList());
+    }
+
+    private Change change(String hash, String... paths)
+    {
+        return new Change(hash, "feat", null, "Title", null, null, null, null, null, asList(paths));
+    }
+}
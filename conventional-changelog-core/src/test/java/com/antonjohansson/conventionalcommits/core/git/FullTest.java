@@ -15,20 +15,36 @@
  */
 package com.antonjohansson.conventionalcommits.core.git;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
 import static org.apache.commons.io.FileUtils.copyDirectory;
 import static org.apache.commons.io.FileUtils.deleteDirectory;
 import static org.apache.commons.io.FileUtils.moveDirectory;
 import static org.apache.commons.io.FileUtils.readFileToString;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
 
 import java.io.File;
 import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.Test;
 
 import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
 import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener.Counter;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener.Phase;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsSummary;
+import com.antonjohansson.conventionalcommits.core.metrics.Progress;
+import com.antonjohansson.conventionalcommits.core.utils.CancellationToken;
 import com.antonjohansson.conventionalcommits.core.writer.ChangeLogWriter;
+import com.antonjohansson.conventionalcommits.core.writer.JsonSink;
+import com.antonjohansson.conventionalcommits.core.writer.SplitSink;
+import com.antonjohansson.conventionalcommits.core.writer.TemplateSet;
+import com.antonjohansson.conventionalcommits.core.writer.TemplateSink;
 
 /**
  * Integration tests of the entire flow.
@@ -56,6 +72,381 @@ public class FullTest extends AbstractTest
         }
     }
 
+    @Test
+    public void testCollectUntilTag() throws Exception
+    {
+        File projectDirectory = prepareProject("full");
+        try (ChangeSetCollector collector = new ChangeSetCollector(projectDirectory))
+        {
+            List<ChangeSet> changeSets = collector
+                    .untilTag("v1.0.0")
+                    .collect();
+
+            assertEquals(2, changeSets.size());
+            assertEquals("1.2.0", changeSets.get(0).getVersion());
+            assertEquals("v1.1.0", changeSets.get(0).getPreviousTagName());
+            assertEquals("1.1.0", changeSets.get(1).getVersion());
+            assertEquals("v1.0.0", changeSets.get(1).getPreviousTagName());
+        }
+    }
+
+    @Test
+    public void testCollectCompact() throws Exception
+    {
+        File projectDirectory = prepareProject("full");
+        List<ChangeSet> expected = new ChangeSetCollector(projectDirectory).numberOfVersions(0).collectPaths(true).collect();
+        List<ChangeSet> actual = new ChangeSetCollector(projectDirectory).numberOfVersions(0).collectPaths(true).compact(true).collect();
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            assertEquals(expected.get(i).getChanges(), actual.get(i).getChanges());
+        }
+    }
+
+    @Test
+    public void testMetrics() throws Exception
+    {
+        File projectDirectory = prepareProject("full");
+        MetricsSummary metrics = new MetricsSummary();
+        List<ChangeSet> changeSets = new ChangeSetCollector(projectDirectory).metrics(metrics).collect();
+
+        try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+        {
+            writer
+                    .projectDirectory(projectDirectory)
+                    .writer(new StringWriter())
+                    .metrics(metrics)
+                    .write();
+        }
+
+        long commits = changeSets.stream().mapToLong(set -> set.getChanges().size()).sum();
+        assertTrue(metrics.getCount(Counter.COMMITS_VISITED) >= commits);
+        assertEquals(metrics.getCount(Counter.COMMITS_VISITED), metrics.getCount(Counter.COMMITS_PARSED));
+        assertEquals(changeSets.size(), metrics.getCount(Counter.TAGS_MATCHED));
+        assertEquals(expectedChangelog("full").getBytes(UTF_8).length, metrics.getCount(Counter.BYTES_WRITTEN));
+        assertTrue(metrics.getNanos(Phase.OPEN_REPOSITORY) > 0);
+        assertTrue(metrics.getNanos(Phase.WALK) > 0);
+        assertTrue(metrics.getNanos(Phase.PARSE) > 0);
+        assertTrue(metrics.getNanos(Phase.RENDER) > 0);
+    }
+
+    @Test
+    public void testProgress() throws Exception
+    {
+        File projectDirectory = prepareProject("full");
+        List<Progress> reports = new ArrayList<>();
+        List<ChangeSet> changeSets = new ChangeSetCollector(projectDirectory).progress(reports::add).collect();
+
+        Progress collected = reports.get(reports.size() - 1);
+        assertTrue(collected.isFinished());
+        assertEquals("Collecting", collected.getTask());
+        assertEquals(collected.getTotal(), collected.getDone());
+        assertEquals(changeSets.size(), collected.getVersionsDone());
+        assertEquals(changeSets.size(), collected.getVersionsTotal());
+
+        reports.clear();
+        List<ChangeSet> untilTag = new ChangeSetCollector(projectDirectory).untilTag("v1.0.0").progress(reports::add).collect();
+        collected = reports.get(reports.size() - 1);
+        assertEquals(collected.getTotal(), collected.getDone());
+        assertEquals(untilTag.size(), collected.getVersionsTotal());
+
+        reports.clear();
+        try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+        {
+            writer
+                    .projectDirectory(projectDirectory)
+                    .writer(new StringWriter())
+                    .progress(reports::add)
+                    .write();
+        }
+        Progress written = reports.get(reports.size() - 1);
+        assertTrue(written.isFinished());
+        assertEquals("Writing", written.getTask());
+        assertEquals(changeSets.stream().mapToLong(set -> set.getChanges().size()).sum(), written.getDone());
+        assertEquals(changeSets.size(), written.getVersionsDone());
+    }
+
+    @Test
+    public void testCancel() throws Exception
+    {
+        File projectDirectory = prepareProject("full");
+        List<ChangeSet> expected = new ChangeSetCollector(projectDirectory).collect();
+
+        CancellationToken cancelled = new CancellationToken();
+        cancelled.cancel();
+        assertThrows(CancellationException.class, () -> new ChangeSetCollector(projectDirectory).cancellationToken(cancelled).collect());
+        assertTrue(new ChangeSetCollector(projectDirectory).cancellationToken(cancelled).partialResults(true).collect().isEmpty());
+
+        // Cancels as soon as the first version is complete
+        CancellationToken afterFirstVersion = new CancellationToken();
+        List<ChangeSet> partial = new ChangeSetCollector(projectDirectory)
+                .cancellationToken(afterFirstVersion)
+                .partialResults(true)
+                .progress(progress ->
+                {
+                    if (progress.getVersionsDone() == 1)
+                    {
+                        afterFirstVersion.cancel();
+                    }
+                })
+                .collect();
+        assertEquals(1, partial.size());
+        assertEquals(expected.get(0).getChanges(), partial.get(0).getChanges());
+
+        StringWriter output = new StringWriter();
+        CancellationToken afterFirstWrite = new CancellationToken();
+        try (ChangeLogWriter writer = new ChangeLogWriter(expected))
+        {
+            writer
+                    .projectDirectory(projectDirectory)
+                    .writer(output)
+                    .cancellationToken(afterFirstWrite)
+                    .progress(progress -> afterFirstWrite.cancel());
+            assertThrows(CancellationException.class, writer::write);
+        }
+        assertTrue(output.toString().contains("1.2.0"));
+        assertFalse(output.toString().contains("1.1.0"));
+    }
+
+    @Test
+    public void testCollectWithMemoryBudget() throws Exception
+    {
+        File projectDirectory = prepareProject("full");
+        File spillDirectory = new File(projectDirectory, "target/spill");
+        spillDirectory.mkdirs();
+        List<ChangeSet> expected = new ChangeSetCollector(projectDirectory).collect();
+
+        try (ChangeSetCollector collector = new ChangeSetCollector(projectDirectory).memoryBudget(1).spillDirectory(spillDirectory))
+        {
+            List<ChangeSet> actual = collector.collect();
+
+            assertEquals(1, spillDirectory.list().length);
+            assertEquals(expected.size(), spillDirectory.listFiles()[0].list().length);
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++)
+            {
+                assertEquals(expected.get(i).getTagName(), actual.get(i).getTagName());
+                assertEquals(expected.get(i).getTagId(), actual.get(i).getTagId());
+                assertEquals(expected.get(i).getChanges(), actual.get(i).getChanges());
+            }
+
+            try (ChangeLogWriter writer = new ChangeLogWriter(actual))
+            {
+                StringWriter w = new StringWriter();
+                writer
+                        .projectDirectory(projectDirectory)
+                        .writer(w)
+                        .write();
+
+                assertEquals(expectedChangelog("full"), w.toString());
+            }
+        }
+
+        // Closing the collector removes the spilled changes
+        assertEquals(0, spillDirectory.list().length);
+    }
+
+    @Test
+    public void testCollectFromHistoryIndex() throws Exception
+    {
+        File projectDirectory = prepareProject("full");
+        File indexFile = new File(projectDirectory, "target/history.idx");
+        List<ChangeSet> expected = new ChangeSetCollector(projectDirectory).numberOfVersions(0).collect();
+
+        for (int run = 0; run < 2; run++)
+        {
+            List<ChangeSet> actual = new ChangeSetCollector(projectDirectory).numberOfVersions(0).historyIndex(indexFile).collect();
+
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++)
+            {
+                assertEquals(expected.get(i).getTagName(), actual.get(i).getTagName());
+                assertEquals(expected.get(i).getPreviousTagName(), actual.get(i).getPreviousTagName());
+                assertEquals(expected.get(i).getCreatedAt(), actual.get(i).getCreatedAt());
+                assertEquals(expected.get(i).getChanges(), actual.get(i).getChanges());
+            }
+        }
+
+        List<ChangeSet> untilTag = new ChangeSetCollector(projectDirectory).untilTag("v1.0.0").historyIndex(indexFile).collect();
+        assertEquals(2, untilTag.size());
+        assertEquals(expected.get(1).getChanges(), untilTag.get(1).getChanges());
+    }
+
+    @Test
+    public void testParseAndWriteWithSharedRepository() throws Exception
+    {
+        File projectDirectory = prepareProject("full");
+        String expected = expectedChangelog("full");
+
+        try (RepositoryRegistry registry = new RepositoryRegistry())
+        {
+            for (int run = 0; run < 2; run++)
+            {
+                try (RepositoryHandle repository = registry.acquire(projectDirectory))
+                {
+                    List<ChangeSet> changeSets = new ChangeSetCollector(repository, projectDirectory).collect();
+                    try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+                    {
+                        StringWriter w = new StringWriter();
+                        writer
+                                .projectDirectory(projectDirectory)
+                                .writer(w)
+                                .write();
+
+                        assertEquals(expected, w.toString());
+                    }
+                    assertFalse(repository.getCommits().isEmpty());
+                    assertEquals(2, repository.getTagIndex().getTags().size());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testParseAndWriteWithSectionCache() throws Exception
+    {
+        File projectDirectory = prepareProject("full");
+        File cacheDirectory = new File(projectDirectory, "target/sections");
+        String expected = expectedChangelog("full");
+
+        for (int run = 0; run < 2; run++)
+        {
+            assertEquals(expected, writeWithSectionCache(projectDirectory, cacheDirectory, writer -> {}));
+
+            // Only the released version (1.1.0) can be cached
+            assertEquals(1, cacheDirectory.list().length);
+        }
+
+        // The commits of a cached version are not grouped
+        List<Long> contextNanos = new ArrayList<>();
+        MetricsListener metrics = new MetricsListener()
+        {
+            @Override
+            public void phase(Phase phase, long nanos)
+            {
+                if (phase == Phase.BUILD_CONTEXT)
+                {
+                    contextNanos.add(nanos);
+                }
+            }
+        };
+        writeWithSectionCache(projectDirectory, cacheDirectory, writer -> writer.metrics(metrics));
+        assertEquals(2, contextNanos.size());
+        assertTrue(contextNanos.get(0) > 0);
+        assertEquals(0L, contextNanos.get(1).longValue());
+
+        // The cached bytes are streamed as they are, so a marked entry shows whether it was used
+        File entry = cacheDirectory.listFiles()[0];
+        writeStringToFile(entry, readFileToString(entry, UTF_8).replace("# 1.1.0", "# 1.1.0 (cached)"), UTF_8);
+        String cached = writeWithSectionCache(projectDirectory, cacheDirectory, writer -> {});
+        assertEquals(expected.replace("# 1.1.0", "# 1.1.0 (cached)"), cached);
+        assertEquals(1, cacheDirectory.list().length);
+
+        // Another repository URL links commits differently, so it gets an entry of its own
+        String otherURL = writeWithSectionCache(projectDirectory, cacheDirectory, writer -> writer.repositoryURL("https://example.com/other/commit"));
+        assertFalse(otherURL.contains("(cached)"), otherURL);
+        assertTrue(otherURL.contains("https://example.com/other/commit/"), otherURL);
+        assertEquals(2, cacheDirectory.list().length);
+
+        // So do other templates
+        File templateDirectory = new File(projectDirectory, "target/templates");
+        writeStringToFile(new File(templateDirectory, "footer.hbs"), "Custom footer\n", UTF_8);
+        String otherTemplates = writeWithSectionCache(projectDirectory, cacheDirectory, writer -> writer.templateDirectory(templateDirectory));
+        assertFalse(otherTemplates.contains("(cached)"), otherTemplates);
+        assertTrue(otherTemplates.contains("Custom footer"), otherTemplates);
+        assertEquals(3, cacheDirectory.list().length);
+    }
+
+    private String writeWithSectionCache(File projectDirectory, File cacheDirectory, Consumer<ChangeLogWriter> options) throws Exception
+    {
+        List<ChangeSet> changeSets = new ChangeSetCollector(projectDirectory).collect();
+        StringWriter output = new StringWriter();
+        try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+        {
+            writer
+                    .projectDirectory(projectDirectory)
+                    .sectionCache(cacheDirectory)
+                    .writer(output);
+            options.accept(writer);
+            writer.write();
+        }
+        return output.toString();
+    }
+
+    @Test
+    public void testParseAndWriteToSeveralSinks() throws Exception
+    {
+        File projectDirectory = prepareProject("full");
+        List<ChangeSet> changeSets = new ChangeSetCollector(projectDirectory).collect();
+
+        StringWriter markdown = new StringWriter();
+        StringWriter json = new StringWriter();
+        StringWriter html = new StringWriter();
+        try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+        {
+            writer
+                    .projectDirectory(projectDirectory)
+                    .writer(markdown)
+                    .sink(new JsonSink(json))
+                    .sink(new TemplateSink(html, TemplateSet.bundledHtml()))
+                    .write();
+        }
+
+        assertEquals(expectedChangelog("full"), markdown.toString());
+        assertTrue(json.toString().startsWith("[{\"version\":\"1.2.0\""));
+        assertTrue(json.toString().endsWith("]"));
+        assertTrue(html.toString().contains("<li><strong>loader:</strong> Make loader faster (9a617545), closes #444</li>"));
+    }
+
+    @Test
+    public void testParseAndWriteSplit() throws Exception
+    {
+        File projectDirectory = prepareProject("full");
+        File outputDirectory = new File(projectDirectory, "changelog");
+        new File(outputDirectory, "1.0.0.md").getParentFile().mkdirs();
+        new File(outputDirectory, "1.0.0.md").createNewFile();
+        List<ChangeSet> changeSets = new ChangeSetCollector(projectDirectory).collect();
+
+        try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+        {
+            writer
+                    .projectDirectory(projectDirectory)
+                    .sink(new SplitSink(outputDirectory, TemplateSet.bundled(), SplitSink.Mode.VERSION))
+                    .write();
+        }
+
+        String[] expected = expectedChangelog("full").split("(?=# 1\\.1\\.0)");
+        assertEquals(expected[0], readFileToString(new File(outputDirectory, "1.2.0.md"), "UTF-8"));
+        assertEquals(expected[1], readFileToString(new File(outputDirectory, "1.1.0.md"), "UTF-8"));
+        assertEquals("# Changelog\n\n* [1.2.0](1.2.0.md)\n* [1.1.0](1.1.0.md)\n* [1.0.0](1.0.0.md)\n", readFileToString(new File(outputDirectory, "index.md"), "UTF-8"));
+    }
+
+    @Test
+    public void testParseAndWriteSplitIndex() throws Exception
+    {
+        File projectDirectory = prepareProject("full");
+        File outputDirectory = new File(projectDirectory, "changelog");
+        outputDirectory.mkdirs();
+        for (String fileName : asList("1.0.0.md", "0.9.0-rc.1.md", "1.3.0-SNAPSHOT.md", "README.md", "notes.txt"))
+        {
+            new File(outputDirectory, fileName).createNewFile();
+        }
+        List<ChangeSet> changeSets = new ChangeSetCollector(projectDirectory).collect();
+
+        try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+        {
+            writer
+                    .projectDirectory(projectDirectory)
+                    .sink(new SplitSink(outputDirectory, TemplateSet.bundled(), SplitSink.Mode.VERSION))
+                    .write();
+        }
+
+        // Pages of released versions from earlier runs are kept, while snapshots and other files are left out
+        assertEquals("# Changelog\n\n* [1.2.0](1.2.0.md)\n* [1.1.0](1.1.0.md)\n* [1.0.0](1.0.0.md)\n* [0.9.0-rc.1](0.9.0-rc.1.md)\n",
+                readFileToString(new File(outputDirectory, "index.md"), "UTF-8"));
+    }
+
     private String expectedChangelog(String name) throws Exception
     {
         File changelogFile = new File("src/test/expected-changelogs/" + name + ".md").getAbsoluteFile();
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+import com.antonjohansson.conventionalcommits.core.common.TestRepository;
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+
+/**
+ * Unit tests of {@link HistoryIndex}.
+ */
+public class HistoryIndexTest extends AbstractTest
+{
+    private TestRepository repository;
+    private File indexFile;
+
+    @Override
+    @BeforeEach
+    public void setUp()
+    {
+        super.setUp();
+        repository = TestRepository.create("history-index");
+        indexFile = new File(repository.getDirectory(), "target/history.idx");
+    }
+
+    @Override
+    @AfterEach
+    public void tearDown()
+    {
+        super.tearDown();
+        repository.close();
+    }
+
+    @Test
+    public void testUpdate() throws Exception
+    {
+        repository.commit("chore: Initial commit");
+        repository.tag("v1.0.0");
+        repository.commit("feat(core): Add something\n\nBREAKING CHANGE: Something else was removed\n\nCloses #12");
+
+        HistoryIndex index = HistoryIndex.update(indexFile, repository.git().getRepository());
+        assertEquals(2, index.size());
+        assertEquals(asList("Add something"), titles(index.changesSince("v1.0.0")));
+
+        Change change = index.changesSince("v1.0.0").get(0);
+        assertEquals("feat", change.getType());
+        assertEquals("core", change.getScope().get());
+        assertEquals("Something else was removed", change.getNotes().get(0).getText());
+        assertEquals("12", change.getReferences().get(0).getIssue());
+
+        long modified = indexFile.lastModified();
+        assertEquals(2, HistoryIndex.update(indexFile, repository.git().getRepository()).size());
+        assertEquals(modified, indexFile.lastModified());
+
+        repository.tag("v1.1.0");
+        repository.commit("fix: Fix something");
+        repository.commit("feat: Add something more");
+
+        HistoryIndex updated = HistoryIndex.update(indexFile, repository.git().getRepository());
+        assertEquals(4, updated.size());
+        assertEquals(asList("Add something more", "Fix something"), titles(updated.changesSince("v1.1.0")));
+        assertEquals(asList("Add something"), titles(updated.changesBetween("v1.0.0", "v1.1.0")));
+        assertEquals(asList("Add something more", "Fix something", "Add something"), titles(updated.changesSince("v1.0.0")));
+        assertThrows(IllegalArgumentException.class, () -> updated.changesSince("v2.0.0"));
+    }
+
+    @Test
+    public void testUpdateAfterBranchSwitch() throws Exception
+    {
+        repository.commit("chore: Initial commit");
+        repository.tag("v1.0.0");
+        repository.commit("feat: Add something");
+        assertEquals(2, HistoryIndex.update(indexFile, repository.git().getRepository()).size());
+
+        repository.git().checkout().setCreateBranch(true).setName("feature").setStartPoint("v1.0.0").call();
+        repository.commit("fix: Fix something");
+        HistoryIndex feature = HistoryIndex.update(indexFile, repository.git().getRepository());
+        assertEquals(3, feature.size());
+        assertEquals(asList("Fix something"), titles(feature.changesSince("v1.0.0")));
+
+        repository.git().checkout().setName("master").call();
+        repository.commit("feat: Add something more");
+        HistoryIndex master = HistoryIndex.update(indexFile, repository.git().getRepository());
+        assertEquals(4, master.size());
+        assertEquals(asList("Add something more", "Add something"), titles(master.changesSince("v1.0.0")));
+    }
+
+    @Test
+    public void testRebuildCorruptIndex() throws Exception
+    {
+        repository.commit("chore: Initial commit");
+        indexFile.getParentFile().mkdirs();
+        Files.write(indexFile.toPath(), "not an index".getBytes(UTF_8));
+
+        assertEquals(1, HistoryIndex.update(indexFile, repository.git().getRepository()).size());
+    }
+
+    private List<String> titles(List<Change> changes)
+    {
+        return changes.stream().map(Change::getTitle).collect(toList());
+    }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+import com.antonjohansson.conventionalcommits.core.git.model.Note;
+import com.antonjohansson.conventionalcommits.core.git.model.Reference;
+import com.antonjohansson.conventionalcommits.core.git.model.Revert;
+
+/**
+ * Unit tests of {@link SpilledChangeList}.
+ */
+public class SpilledChangeListTest extends AbstractTest
+{
+    @Test
+    public void testWriteAndRead() throws Exception
+    {
+        Change first = new Change("0123456789abcdef", "feat", "core", "Add something", "Body with åäö", null, null, null, null);
+        Change second = new Change("fedcba9876543210", "fix", null, "Fix something", null, "Closes #1",
+                singletonList(new Note("BREAKING CHANGE", "Everything")),
+                singletonList(new Reference("Closes", "owner", null, "#", "1", "owner#1")),
+                new Revert("feat: Add something", "0123456789abcdef"),
+                asList("pom.xml", "src/Main.java"),
+                Instant.ofEpochSecond(1583964000),
+                "api");
+
+        File directory = Files.createTempDirectory("spill").toFile();
+        try
+        {
+            List<Change> list = SpilledChangeList.write(asList(first, second), directory);
+
+            assertEquals(2, list.size());
+            assertEquals(asList(first, second), list);
+            assertEquals(second, list.get(1));
+            assertSame(list.get(0), list.get(0));
+            assertTrue(SpilledChangeList.estimateSize(second) > SpilledChangeList.estimateSize(first));
+        }
+        finally
+        {
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+}
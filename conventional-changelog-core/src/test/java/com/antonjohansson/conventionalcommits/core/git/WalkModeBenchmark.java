@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeCommand.FastForwardMode;
+
+import com.antonjohansson.conventionalcommits.core.git.ChangeSetCollector.WalkMode;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener.Counter;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsSummary;
+
+/**
+ * Compares the number of commits that each {@link WalkMode} visits, on a generated repository where every change is merged through a pull
+ * request.
+ * <p>
+ * This is not a unit test. Run it as a regular Java application with the test classpath, optionally passing the number of pull requests to
+ * generate (defaults to {@code 500}) and the number of commits in each of them (defaults to {@code 5}).
+ * </p>
+ */
+public final class WalkModeBenchmark
+{
+    private WalkModeBenchmark()
+    {
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        int numberOfPullRequests = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+        int commitsPerPullRequest = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        File directory = Files.createTempDirectory("walk-mode-benchmark").toFile();
+        try
+        {
+            generate(directory, numberOfPullRequests, commitsPerPullRequest);
+
+            System.out.println(String.format("%-15s %10s %10s %10s %10s", "Mode", "Visited", "Parsed", "Changes", "Time (ms)"));
+            for (WalkMode walkMode : WalkMode.values())
+            {
+                MetricsSummary summary = new MetricsSummary();
+                long start = System.nanoTime();
+                long changes;
+                try (ChangeSetCollector collector = new ChangeSetCollector(directory))
+                {
+                    changes = collector
+                            .nextVersion("1.0.0")
+                            .numberOfVersions(0)
+                            .walkMode(walkMode)
+                            .metrics(summary)
+                            .collect()
+                            .stream()
+                            .mapToLong(changeSet -> changeSet.getChanges().size())
+                            .sum();
+                }
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                System.out.println(String.format("%-15s %10d %10d %10d %10d", walkMode, summary.getCount(Counter.COMMITS_VISITED),
+                        summary.getCount(Counter.COMMITS_PARSED), changes, millis));
+            }
+        }
+        finally
+        {
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+    private static void generate(File directory, int numberOfPullRequests, int commitsPerPullRequest) throws Exception
+    {
+        File file = new File(directory, "data.txt");
+        try (Git git = Git.init().setDirectory(directory).call())
+        {
+            Files.write(file.toPath(), "initial".getBytes(UTF_8));
+            git.add().addFilepattern(".").call();
+            git.commit().setMessage("chore: Initial commit").call();
+
+            for (int pullRequest = 1; pullRequest <= numberOfPullRequests; pullRequest++)
+            {
+                String branch = "feature-" + pullRequest;
+                git.checkout().setCreateBranch(true).setName(branch).call();
+                for (int commit = 0; commit < commitsPerPullRequest; commit++)
+                {
+                    Files.write(file.toPath(), (pullRequest + "." + commit).getBytes(UTF_8));
+                    git.add().addFilepattern(".").call();
+                    git.commit().setMessage("wip: step " + commit + " of change " + pullRequest).call();
+                }
+
+                git.checkout().setName("master").call();
+                git.merge()
+                        .include(git.getRepository().resolve(branch))
+                        .setFastForward(FastForwardMode.NO_FF)
+                        .setMessage("Merge pull request #" + pullRequest + " from user/" + branch + "\n\nfeat: change " + pullRequest)
+                        .call();
+                git.branchDelete().setBranchNames(branch).setForce(true).call();
+                if (pullRequest % 50 == 0)
+                {
+                    git.tag().setName("v0." + (pullRequest / 50) + ".0").call();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+
+/**
+ * Measures how {@link WindowCacheSettings} affect collection time, on a generated repository with a large pack file.
+ * <p>
+ * This is not a unit test. Run it as a regular Java application with the test classpath, optionally passing the number of commits to
+ * generate (defaults to {@code 5000}). Each commit rewrites a part of a large file, so that the pack file consists of long delta chains.
+ * </p>
+ */
+public final class WindowCacheBenchmark
+{
+    private static final int FILE_SIZE = 256 * 1024;
+    private static final int ROUNDS = 3;
+
+    private WindowCacheBenchmark()
+    {
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        int numberOfCommits = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        File directory = Files.createTempDirectory("window-cache-benchmark").toFile();
+        try
+        {
+            generate(directory, numberOfCommits);
+
+            Map<String, WindowCacheSettings> variants = new LinkedHashMap<>();
+            variants.put("defaults", new WindowCacheSettings().packedGitMMAP(false));
+            variants.put("mmap", new WindowCacheSettings().packedGitMMAP(true));
+            variants.put("window 64k", new WindowCacheSettings().packedGitWindowSize(64 * 1024));
+            variants.put("limit 256m", new WindowCacheSettings().packedGitLimit(256L * 1024 * 1024));
+            variants.put("delta base 64m", new WindowCacheSettings().deltaBaseCacheLimit(64 * 1024 * 1024));
+            variants.put("stream threshold 1m", new WindowCacheSettings().streamFileThreshold(1024 * 1024));
+            variants.put("all", new WindowCacheSettings()
+                    .packedGitMMAP(true)
+                    .packedGitWindowSize(64 * 1024)
+                    .packedGitLimit(256L * 1024 * 1024)
+                    .deltaBaseCacheLimit(64 * 1024 * 1024));
+
+            System.out.println(String.format("%-20s %10s", "Settings", "Best (ms)"));
+            for (Map.Entry<String, WindowCacheSettings> variant : variants.entrySet())
+            {
+                // The collector only installs the first settings of the JVM, so each variant is installed directly
+                variant.getValue().toConfig().install();
+                long best = Long.MAX_VALUE;
+                for (int round = 0; round < ROUNDS; round++)
+                {
+                    long start = System.nanoTime();
+                    try (ChangeSetCollector collector = new ChangeSetCollector(directory))
+                    {
+                        collector
+                                .nextVersion("1.0.0")
+                                .numberOfVersions(0)
+                                .collectPaths(true)
+                                .collect();
+                    }
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                System.out.println(String.format("%-20s %10d", variant.getKey(), best / 1_000_000));
+            }
+        }
+        finally
+        {
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+    private static void generate(File directory, int numberOfCommits) throws Exception
+    {
+        Random random = new Random(0);
+        byte[] content = new byte[FILE_SIZE];
+        for (int index = 0; index < content.length; index++)
+        {
+            content[index] = (byte) ('a' + random.nextInt(26));
+        }
+
+        File file = new File(directory, "data.txt");
+        try (Git git = Git.init().setDirectory(directory).call())
+        {
+            for (int commit = 0; commit < numberOfCommits; commit++)
+            {
+                int offset = random.nextInt(content.length - 64);
+                for (int index = offset; index < offset + 64; index++)
+                {
+                    content[index] = (byte) ('a' + random.nextInt(26));
+                }
+                Files.write(file.toPath(), content);
+                Files.write(new File(directory, "commit.txt").toPath(), String.valueOf(commit).getBytes(UTF_8));
+
+                git.add().addFilepattern(".").call();
+                git.commit().setMessage("feat: change " + commit).call();
+                if (commit % 100 == 99)
+                {
+                    git.tag().setName("v0." + (commit / 100) + ".0").call();
+                }
+            }
+            git.gc().setAggressive(true).call();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git;
+
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+
+/**
+ * Unit tests of {@link WindowCacheSettings}.
+ */
+public class WindowCacheSettingsTest extends AbstractTest
+{
+    @Test
+    public void testInstall()
+    {
+        // The JGit defaults, so that the other tests of this JVM are not affected
+        WindowCacheSettings first = new WindowCacheSettings().streamFileThreshold(50 * 1024 * 1024);
+        WindowCacheSettings other = new WindowCacheSettings().deltaBaseCacheLimit(10 * 1024 * 1024);
+
+        assertTrue(new WindowCacheSettings().install());
+        assertTrue(first.install());
+        assertFalse(other.install());
+        assertTrue(new WindowCacheSettings().streamFileThreshold(50 * 1024 * 1024).install());
+        assertEquals(first, WindowCacheSettings.getInstalled().get());
+    }
+}
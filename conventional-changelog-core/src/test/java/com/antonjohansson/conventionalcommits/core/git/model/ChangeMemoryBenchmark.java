@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git.model;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import com.antonjohansson.conventionalcommits.core.git.parser.CommitParser;
+
+/**
+ * Measures the memory retained per change by a regular list of changes and by a {@link CompactChangeList}.
+ * <p>
+ * This is not a unit test. Run it as a regular Java application with the test classpath, optionally passing the number of changes to
+ * generate (defaults to {@code 1000000}). Give it enough heap to hold the regular list, for example {@code -Xmx2g}. The messages are
+ * generated with a fixed seed and resemble a typical history: mostly single line messages, some with bodies, references or notes.
+ * </p>
+ */
+public final class ChangeMemoryBenchmark
+{
+    private static final String[] TYPES = {"feat", "fix", "chore", "docs", "refactor", "test", "perf"};
+    private static final String[] SCOPES = {null, "core", "cli", "plugin", "parser", "writer", "git"};
+
+    private static List<Change> retained;
+
+    private ChangeMemoryBenchmark()
+    {
+    }
+
+    public static void main(String[] args)
+    {
+        int numberOfChanges = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        System.out.println(String.format("%-12s %16s", "Storage", "Bytes per change"));
+        System.out.println(String.format("%-12s %16d", "list", measure(numberOfChanges, ArrayList::new)));
+        System.out.println(String.format("%-12s %16d", "compact", measure(numberOfChanges, CompactChangeList::new)));
+    }
+
+    private static long measure(int numberOfChanges, Supplier<List<Change>> factory)
+    {
+        retained = null;
+        long before = usedMemory();
+
+        List<Change> changes = factory.get();
+        Random random = new Random(0);
+        for (int index = 0; index < numberOfChanges; index++)
+        {
+            changes.add(new CommitParser(hash(random), message(random, index))
+                    .time(Instant.ofEpochSecond(1_500_000_000L + index * 60L))
+                    .parse());
+        }
+        if (changes instanceof CompactChangeList)
+        {
+            ((CompactChangeList) changes).trimToSize();
+        }
+        retained = changes;
+
+        long after = usedMemory();
+        return (after - before) / numberOfChanges;
+    }
+
+    private static String hash(Random random)
+    {
+        StringBuilder hash = new StringBuilder(40);
+        for (int index = 0; index < 40; index++)
+        {
+            hash.append(Character.forDigit(random.nextInt(16), 16));
+        }
+        return hash.toString();
+    }
+
+    private static String message(Random random, int index)
+    {
+        String scope = SCOPES[random.nextInt(SCOPES.length)];
+        StringBuilder message = new StringBuilder()
+                .append(TYPES[random.nextInt(TYPES.length)])
+                .append(scope != null ? "(" + scope + ")" : "")
+                .append(": Change number ")
+                .append(index)
+                .append(" of the history");
+
+        int kind = random.nextInt(10);
+        if (kind < 2)
+        {
+            message.append("\n\nA body that explains why the change was made, spanning a few words.");
+        }
+        if (kind == 2)
+        {
+            message.append("\n\nCloses #").append(random.nextInt(1000));
+        }
+        if (kind == 3)
+        {
+            message.append("\n\nBREAKING CHANGE: Something was removed");
+        }
+        return message.toString();
+    }
+
+    private static long usedMemory()
+    {
+        Runtime runtime = Runtime.getRuntime();
+        for (int round = 0; round < 5; round++)
+        {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git.model;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+
+/**
+ * Unit tests of {@link CompactChangeList}.
+ */
+public class CompactChangeListTest extends AbstractTest
+{
+    @Test
+    public void testAddAndGet()
+    {
+        Change first = new Change("0123456789abcdef0123456789abcdef01234567", "feat", "core", "Add something", "Body with åäö", null, null, null, null);
+        Change second = new Change("fedcba9876543210fedcba9876543210fedcba98", "fix", null, "Fix something", null, "Closes #1",
+                singletonList(new Note("BREAKING CHANGE", "Everything")),
+                singletonList(new Reference("Closes", null, null, "#", "1", "#1")),
+                new Revert("feat: Add something", "0123456789abcdef0123456789abcdef01234567"),
+                asList("pom.xml", "src/Main.java"),
+                Instant.ofEpochSecond(1583964000),
+                "api");
+        Change third = new Change("00000000000000000000000000000000000000ff", null, null, "Not conventional", null, null, null, null, null);
+
+        CompactChangeList list = new CompactChangeList(asList(first, second));
+        list.add(third);
+
+        assertEquals(3, list.size());
+        assertEquals(asList(first, second, third), list);
+        assertSame(list.get(0).getNotes(), list.get(2).getNotes());
+
+        list.reverse();
+        assertEquals(asList(third, second, first), list);
+    }
+
+    @Test
+    public void testInvalidHash()
+    {
+        List<Change> list = new CompactChangeList();
+
+        assertThrows(IllegalArgumentException.class, () -> list.add(new Change("abc", "feat", null, "Title", null, null, null, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> list.add(new Change("0123456789ABCDEF0123456789abcdef01234567", "feat", null, "Title", null, null, null, null, null)));
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.git.parser;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+
+/**
+ * Unit tests of {@link CommitMessageValidator}.
+ */
+public class CommitMessageValidatorTest extends AbstractTest
+{
+    @Test
+    public void testValid()
+    {
+        String message = "\n" +
+            "feat(parser): support scissors\n" +
+            "\n" +
+            "Some body\n" +
+            "# Please enter the commit message for your changes.\n" +
+            "#\n" +
+            "# ------------------------ >8 ------------------------\n" +
+            "diff --git a/file b/file\n";
+
+        assertEquals(emptyList(), new CommitMessageValidator().validate(message));
+    }
+
+    @Test
+    public void testIgnored()
+    {
+        CommitMessageValidator validator = new CommitMessageValidator();
+
+        assertEquals(emptyList(), validator.validate("Merge branch 'feature'\n"));
+        assertEquals(emptyList(), validator.validate("Revert \"feat: something\"\n\nThis reverts commit abc.\n"));
+        assertEquals(emptyList(), validator.validate("fixup! feat: something\n"));
+    }
+
+    @Test
+    public void testInvalid()
+    {
+        CommitMessageValidator validator = new CommitMessageValidator()
+                .types(asList("feat", "fix"))
+                .scopes(asList("core", "cli"));
+
+        assertEquals(asList("The message is empty"), validator.validate("# Only a comment\n\n"));
+        assertEquals(asList("The header 'Add stuff' does not match 'type(scope): subject'"), validator.validate("Add stuff\n"));
+        assertEquals(asList("The type 'docs' is not one of [feat, fix]"), validator.validate("docs: write readme\n"));
+        assertEquals(asList("The scope 'plugin' is not one of [cli, core]"), validator.validate("fix(plugin): fix it\n"));
+        assertEquals(emptyList(), validator.validate("fix(core): fix it\n"));
+        assertEquals(emptyList(), validator.validate("fix: fix it\n"));
+    }
+}
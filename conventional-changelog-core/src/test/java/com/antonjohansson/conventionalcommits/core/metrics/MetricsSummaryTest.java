@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener.Counter;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener.Phase;
+
+/**
+ * Unit tests of {@link MetricsSummary}.
+ */
+public class MetricsSummaryTest extends AbstractTest
+{
+    @Test
+    public void testSummary()
+    {
+        MetricsSummary summary = new MetricsSummary();
+        MetricsListener listener = MetricsListener.all(summary, new MetricsListener()
+        {
+        });
+
+        listener.phase(Phase.WALK, TimeUnit.MILLISECONDS.toNanos(3));
+        listener.phase(Phase.WALK, TimeUnit.MILLISECONDS.toNanos(4));
+        listener.count(Counter.COMMITS_VISITED, 2);
+        listener.commitParsed("abc", 10, 500);
+        listener.commitParsed("def", 10, TimeUnit.MICROSECONDS.toNanos(3));
+        listener.commitParsed("ghi", 10, TimeUnit.MICROSECONDS.toNanos(2));
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(7), summary.getNanos(Phase.WALK));
+        assertEquals(0, summary.getNanos(Phase.PARSE));
+        assertEquals(2, summary.getCount(Counter.COMMITS_VISITED));
+        assertEquals(1, summary.getParseCount(0));
+        assertEquals(0, summary.getParseCount(1));
+        assertEquals(2, summary.getParseCount(2));
+
+        String formatted = summary.format();
+        assertTrue(formatted.contains("walk"));
+        assertTrue(formatted.contains("commits visited"));
+        assertTrue(formatted.contains("parse < 4 us"));
+        assertFalse(formatted.contains("parse < 2 us"));
+    }
+}
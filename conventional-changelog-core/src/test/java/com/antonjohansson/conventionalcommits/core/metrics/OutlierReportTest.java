@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+import com.antonjohansson.conventionalcommits.core.metrics.OutlierReport.Outlier;
+
+/**
+ * Unit tests of {@link OutlierReport}.
+ */
+public class OutlierReportTest extends AbstractTest
+{
+    @Test
+    public void testKeepsTopCommits()
+    {
+        OutlierReport report = new OutlierReport(2);
+        report.commitParsed("a", 10, 500);
+        report.commitParsed("b", 4000, 100);
+        report.commitParsed("c", 20, 9000);
+        report.commitParsed("d", 30, 700);
+        report.commitParsed("e", 3000, 50);
+
+        assertEquals(asList("c", "d"), hashes(report.getSlowest()));
+        assertEquals(asList("b", "e"), hashes(report.getLargest()));
+        assertEquals(9000, report.getSlowest().get(0).getNanos());
+
+        String formatted = report.format();
+        assertTrue(formatted.contains("Slowest commits:"));
+        assertTrue(formatted.contains("Largest commits:"));
+        assertFalse(formatted.contains("  a "));
+    }
+
+    @Test
+    public void testInvalidSize()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new OutlierReport(0));
+    }
+
+    private List<String> hashes(List<Outlier> outliers)
+    {
+        return outliers.stream().map(Outlier::getHash).collect(toList());
+    }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import static java.util.Arrays.asList;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jgit.lib.ProgressMonitor;
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+
+/**
+ * Unit tests of {@link ProgressListener} and {@link ProgressTracker}.
+ */
+public class ProgressListenerTest extends AbstractTest
+{
+    @Test
+    public void testTracker()
+    {
+        List<Progress> reports = new ArrayList<>();
+        ProgressTracker tracker = new ProgressTracker(reports::add, "Collecting", 4, 2);
+        tracker.commits(1);
+        tracker.commits(1);
+        tracker.version();
+        tracker.finish();
+
+        assertEquals(4, reports.size());
+        Progress progress = reports.get(2);
+        assertEquals("Collecting", progress.getTask());
+        assertEquals(2, progress.getDone());
+        assertEquals(4, progress.getTotal());
+        assertEquals(1, progress.getVersionsDone());
+        assertEquals(2, progress.getVersionsTotal());
+        assertTrue(progress.getEta().isPresent());
+        assertFalse(progress.isFinished());
+        assertTrue(reports.get(3).isFinished());
+        assertTrue(reports.get(3).format().startsWith("Collecting: 2/4 commits, 1/2 versions, "));
+    }
+
+    @Test
+    public void testThrottled()
+    {
+        List<Progress> reports = new ArrayList<>();
+        ProgressTracker tracker = new ProgressTracker(ProgressListener.throttled(reports::add, Duration.ofHours(1)), "Writing", -1, -1);
+        tracker.commits(1);
+        tracker.commits(1);
+        tracker.commits(1);
+        tracker.finish();
+
+        assertEquals(2, reports.size());
+        assertEquals(1, reports.get(0).getDone());
+        assertFalse(reports.get(0).getEta().isPresent());
+        assertTrue(reports.get(1).isFinished());
+    }
+
+    @Test
+    public void testMonitor()
+    {
+        List<String> calls = new ArrayList<>();
+        ProgressListener listener = ProgressListener.monitor(new ProgressMonitor()
+        {
+            @Override
+            public void start(int totalTasks)
+            {
+            }
+
+            @Override
+            public void beginTask(String title, int totalWork)
+            {
+                calls.add("begin " + title + " " + totalWork);
+            }
+
+            @Override
+            public void update(int completed)
+            {
+                calls.add("update " + completed);
+            }
+
+            @Override
+            public void endTask()
+            {
+                calls.add("end");
+            }
+
+            @Override
+            public boolean isCancelled()
+            {
+                return false;
+            }
+        });
+
+        ProgressTracker collecting = new ProgressTracker(listener, "Collecting", 3, -1);
+        collecting.commits(2);
+        collecting.commits(1);
+        collecting.finish();
+        ProgressTracker writing = new ProgressTracker(listener, "Writing", -1, -1);
+        writing.commits(5);
+        writing.finish();
+
+        assertEquals(asList("begin Collecting 3", "update 2", "update 1", "end", "begin Writing 0", "update 5", "end"), calls);
+    }
+}
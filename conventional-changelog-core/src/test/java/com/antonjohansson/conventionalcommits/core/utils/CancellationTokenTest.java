@@ -0,0 +1,53 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.utils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CancellationException;
+
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+
+/**
+ * Unit tests of {@link CancellationToken}.
+ */
+public class CancellationTokenTest extends AbstractTest
+{
+    @Test
+    public void testCancel()
+    {
+        CancellationToken token = new CancellationToken();
+        assertFalse(token.isCancelled());
+        token.throwIfCancelled();
+
+        token.cancel();
+        assertTrue(token.isCancelled());
+        assertEquals("The run was cancelled", assertThrows(CancellationException.class, token::throwIfCancelled).getMessage());
+    }
+
+    @Test
+    public void testDeadline()
+    {
+        assertFalse(new CancellationToken().timeout(Duration.ofHours(1)).isCancelled());
+        assertTrue(new CancellationToken().timeout(Duration.ZERO).isCancelled());
+        assertTrue(new CancellationToken().deadline(Instant.now().minusSeconds(1)).isCancelled());
+
+        CancellationToken token = new CancellationToken().timeout(Duration.ofMillis(-1));
+        assertEquals("The deadline has passed", assertThrows(CancellationException.class, token::throwIfCancelled).getMessage());
+    }
+}
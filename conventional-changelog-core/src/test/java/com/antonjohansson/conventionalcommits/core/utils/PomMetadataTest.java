@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.utils;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+
+/**
+ * Unit tests of {@link PomMetadata}.
+ */
+public class PomMetadataTest extends AbstractTest
+{
+    private static final File ROOT = new File(".");
+
+    @Test
+    public void testNonExistingPoms()
+    {
+        assertFalse(PomMetadata.read(null).isPresent());
+        assertFalse(PomMetadata.read(new File(ROOT, "pom.xml")).isPresent());
+        assertFalse(PomMetadata.read(new File(ROOT, "src")).isPresent());
+    }
+
+    @Test
+    public void testBrokenPom()
+    {
+        assertThrows(RuntimeException.class, () -> PomMetadata.read(ROOT.toPath().resolve(Paths.get("src", "test", "bad-project")).toFile()));
+    }
+
+    @Test
+    public void testInheritedVersion()
+    {
+        PomMetadata metadata = PomMetadata.read(ROOT).get();
+        assertEquals(Optional.empty(), metadata.getVersion());
+        assertEquals(Optional.empty(), metadata.getScmURL());
+    }
+
+    @Test
+    public void testReadingPom() throws Exception
+    {
+        File directory = Files.createTempDirectory("pom").toFile();
+        try
+        {
+            File pomFile = new File(directory, "pom.xml");
+            write(pomFile, "<project><parent><version>1</version></parent><dependencies><dependency><version>2</version></dependency></dependencies>"
+                + "<version> 1.2.0-SNAPSHOT </version><scm><connection>scm:git:x</connection><url>https://example.com/repo</url></scm></project>");
+
+            PomMetadata metadata = PomMetadata.read(directory).get();
+            assertEquals(Optional.of("1.2.0-SNAPSHOT"), metadata.getVersion());
+            assertEquals(Optional.of("https://example.com/repo"), metadata.getScmURL());
+            assertSame(metadata, PomMetadata.read(directory).get());
+
+            write(pomFile, "<project><version>1.3.0</version></project>");
+            pomFile.setLastModified(pomFile.lastModified() + 2000);
+            metadata = PomMetadata.read(directory).get();
+            assertEquals(Optional.of("1.3.0"), metadata.getVersion());
+            assertEquals(Optional.empty(), metadata.getScmURL());
+        }
+        finally
+        {
+            FileUtils.deleteDirectory(directory);
+        }
+    }
+
+    private void write(File file, String content) throws Exception
+    {
+        Files.write(file.toPath(), content.getBytes(UTF_8));
+    }
+}
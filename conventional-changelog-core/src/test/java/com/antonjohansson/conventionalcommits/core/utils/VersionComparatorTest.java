@@ -0,0 +1,39 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.utils;
+
+import static java.util.Arrays.asList;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+
+/**
+ * Unit tests of {@link VersionComparator}.
+ */
+public class VersionComparatorTest extends AbstractTest
+{
+    @Test
+    public void testSort()
+    {
+        List<String> versions = asList("1.10.0", "1.2.0", "2.x", "1.2.0-beta.2", "1.2", "1.2.0-beta.10", "1.x", "10.0.0");
+        versions.sort(VersionComparator.get());
+
+        assertEquals(asList("1.2", "1.2.0-beta.2", "1.2.0-beta.10", "1.2.0", "1.10.0", "1.x", "2.x", "10.0.0"), versions);
+    }
+}
@@ -0,0 +1,207 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.watch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+import com.antonjohansson.conventionalcommits.core.common.TestRepository;
+
+/**
+ * Unit tests of {@link ChangeLogWatcher}.
+ */
+public class ChangeLogWatcherTest extends AbstractTest
+{
+    private TestRepository repository;
+    private File changelog;
+    private final List<Boolean> updates = new ArrayList<>();
+
+    @Override
+    @BeforeEach
+    public void setUp()
+    {
+        super.setUp();
+        repository = TestRepository.create("changelog-watcher");
+        changelog = new File(repository.getDirectory(), "CHANGELOG.md");
+    }
+
+    @Override
+    @AfterEach
+    public void tearDown()
+    {
+        super.tearDown();
+        repository.close();
+    }
+
+    @Test
+    public void testUpdates() throws Exception
+    {
+        repository.commit("feat: First feature");
+        repository.tag("v1.0.0");
+        repository.commit("fix: First fix");
+
+        try (ChangeLogWatcher watcher = newWatcher())
+        {
+            watcher.start();
+            assertTrue(read().contains("First fix"));
+
+            // New commits only render the top section
+            repository.commit("feat: Second feature");
+            watcher.update();
+            assertTrue(read().contains("Second feature"));
+            assertEquals(true, updates.get(updates.size() - 1));
+
+            // New tags collect everything again
+            repository.tag("v1.1.0");
+            repository.commit("fix: Second fix");
+            watcher.update();
+            String content = read();
+            assertTrue(content.startsWith("# 1.2.0"), content);
+            assertTrue(content.contains("Second fix"), content);
+            assertFalse(content.contains("First fix"), content);
+            assertEquals(false, updates.get(updates.size() - 1));
+
+            // Amended commits collect everything again
+            repository.git().commit().setAmend(true).setMessage("fix: Amended fix").call();
+            watcher.update();
+            content = read();
+            assertTrue(content.contains("Amended fix"), content);
+            assertFalse(content.contains("Second fix"), content);
+        }
+    }
+
+    @Test
+    public void testWatch() throws Exception
+    {
+        repository.commit("feat: First feature");
+        repository.tag("v1.0.0");
+        repository.commit("fix: First fix");
+
+        try (ChangeLogWatcher watcher = newWatcher())
+        {
+            watcher.start();
+            repository.commit("feat: Watched feature");
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!read().contains("Watched feature") && System.currentTimeMillis() < deadline)
+            {
+                Thread.sleep(20);
+            }
+            assertTrue(read().contains("Watched feature"));
+        }
+    }
+
+    @Test
+    public void testUpdatesWhenPomVersionChanges() throws Exception
+    {
+        File pom = new File(repository.getDirectory(), "pom.xml");
+        writePom(pom, "1.1.0-SNAPSHOT");
+        repository.commit("feat: First feature");
+        repository.tag("v1.0.0");
+        repository.commit("fix: First fix");
+
+        try (ChangeLogWatcher watcher = newWatcher(null))
+        {
+            watcher.start();
+            assertTrue(read().startsWith("# 1.1.0"), read());
+
+            writePom(pom, "2.0.0-SNAPSHOT");
+            watcher.update();
+            assertTrue(read().startsWith("# 2.0.0"), read());
+            assertEquals(false, updates.get(updates.size() - 1));
+
+            // The new version is kept when later commits only render the top section
+            repository.commit("feat: Second feature");
+            watcher.update();
+            assertTrue(read().startsWith("# 2.0.0"), read());
+            assertTrue(read().contains("Second feature"), read());
+            assertEquals(true, updates.get(updates.size() - 1));
+        }
+    }
+
+    @Test
+    public void testWatchPom() throws Exception
+    {
+        File pom = new File(repository.getDirectory(), "pom.xml");
+        writePom(pom, "1.1.0-SNAPSHOT");
+        repository.commit("feat: First feature");
+        repository.tag("v1.0.0");
+        repository.commit("fix: First fix");
+
+        try (ChangeLogWatcher watcher = newWatcher(null))
+        {
+            watcher.start();
+            writePom(pom, "2.0.0-SNAPSHOT");
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (!read().startsWith("# 2.0.0") && System.currentTimeMillis() < deadline)
+            {
+                Thread.sleep(20);
+            }
+            assertTrue(read().startsWith("# 2.0.0"), read());
+        }
+    }
+
+    private void writePom(File pom, String version) throws Exception
+    {
+        long lastModified = pom.lastModified();
+        FileUtils.write(pom, "<project><version>" + version + "</version></project>", UTF_8);
+        // Makes sure that the cached metadata of the POM is not used, even if the file system has a coarse timestamp resolution
+        pom.setLastModified(Math.max(pom.lastModified(), lastModified + 1000));
+    }
+
+    private ChangeLogWatcher newWatcher()
+    {
+        return newWatcher("1.2.0");
+    }
+
+    private ChangeLogWatcher newWatcher(String nextVersion)
+    {
+        ChangeLogWatcher watcher = new ChangeLogWatcher(repository.getDirectory(), changelog);
+        if (nextVersion != null)
+        {
+            watcher.nextVersion(nextVersion);
+        }
+        return watcher
+                .debounce(Duration.ofMillis(50))
+                .listener(new ChangeLogWatcher.Listener()
+                {
+                    @Override
+                    public void updated(boolean incremental, long nanos)
+                    {
+                        synchronized (updates)
+                        {
+                            updates.add(incremental);
+                        }
+                    }
+                });
+    }
+
+    private String read() throws Exception
+    {
+        return FileUtils.readFileToString(changelog, UTF_8);
+    }
+}
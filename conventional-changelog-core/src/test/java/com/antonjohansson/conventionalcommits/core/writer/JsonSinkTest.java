@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.writer;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+
+import java.io.StringWriter;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+import com.antonjohansson.conventionalcommits.core.git.model.Change;
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.git.model.Note;
+import com.antonjohansson.conventionalcommits.core.git.model.Reference;
+import com.antonjohansson.conventionalcommits.core.writer.model.Context;
+
+/**
+ * Unit tests of {@link JsonSink}.
+ */
+public class JsonSinkTest extends AbstractTest
+{
+    @Test
+    public void testWrite() throws Exception
+    {
+        Change change = new Change(
+                "3a37f7e1b522909d1afff2e24945ead5e637a25c",
+                "feat",
+                null,
+                "Support \"quoted\" titles",
+                "First line\n\tSecond line",
+                "BREAKING CHANGE: Changed\nCloses #1",
+                asList(new Note("BREAKING CHANGE", "Changed")),
+                asList(new Reference("closes", null, null, "#", "1", "#1")),
+                null);
+        ChangeSet changeSet = new ChangeSet("1.1.0", "v1.1.0", "v1.0.0", LocalDate.of(2020, 3, 12), asList(change), "a", "b");
+
+        ChangeSet emptyChangeSet = new ChangeSet("1.0.0", "v1.0.0", "v0.9.0", LocalDate.of(2020, 3, 1), emptyList());
+
+        StringWriter actual = new StringWriter();
+        try (JsonSink sink = new JsonSink(actual))
+        {
+            sink.write(changeSet, context(changeSet));
+            sink.write(emptyChangeSet, context(emptyChangeSet));
+        }
+
+        String expected = "["
+            + "{\"version\":\"1.1.0\",\"tagName\":\"v1.1.0\",\"previousTagName\":\"v1.0.0\",\"tagId\":\"a\",\"previousTagId\":\"b\",\"createdAt\":\"2020-03-12\",\"repositoryURL\":null,"
+            + "\"changes\":[{\"hash\":\"3a37f7e1b522909d1afff2e24945ead5e637a25c\",\"type\":\"feat\",\"scope\":null,\"title\":\"Support \\\"quoted\\\" titles\","
+            + "\"body\":\"First line\\n\\tSecond line\",\"footer\":\"BREAKING CHANGE: Changed\\nCloses #1\","
+            + "\"notes\":[{\"title\":\"BREAKING CHANGE\",\"text\":\"Changed\"}],"
+            + "\"references\":[{\"action\":\"closes\",\"owner\":\"\",\"repository\":\"\",\"prefix\":\"#\",\"issue\":\"1\",\"raw\":\"#1\"}],"
+            + "\"revert\":null}]},"
+            + "{\"version\":\"1.0.0\",\"tagName\":\"v1.0.0\",\"previousTagName\":\"v0.9.0\",\"tagId\":null,\"previousTagId\":null,\"createdAt\":\"2020-03-01\",\"repositoryURL\":null,\"changes\":[]}"
+            + "]";
+
+        assertEquals(expected, actual.toString());
+    }
+
+    private Context context(ChangeSet set)
+    {
+        return new Context(null, set.getVersion(), set.getTagName(), set.getPreviousTagName(), set.getCreatedAt(), emptyList(), emptyList());
+    }
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.writer;
+
+import static org.apache.commons.io.FileUtils.deleteDirectory;
+import static org.apache.commons.io.FileUtils.writeStringToFile;
+
+import java.io.File;
+
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+
+/**
+ * Unit tests of {@link TemplateSet}.
+ */
+public class TemplateSetTest extends AbstractTest
+{
+    @Test
+    public void testCache() throws Exception
+    {
+        File directory = new File("target/templates/cache").getAbsoluteFile();
+        deleteDirectory(directory);
+        File header = new File(directory, "header.hbs");
+        writeStringToFile(header, "# {{version}}", "UTF-8");
+
+        TemplateSet first = TemplateSet.fromDirectory(directory);
+        TemplateSet second = TemplateSet.fromDirectory(directory);
+        assertSame(first, second);
+        assertNotEquals(TemplateSet.bundled().getFingerprint(), first.getFingerprint());
+
+        writeStringToFile(header, "## {{version}}", "UTF-8");
+        header.setLastModified(header.lastModified() + 2000);
+
+        TemplateSet third = TemplateSet.fromDirectory(directory);
+        assertNotSame(first, third);
+        assertNotEquals(first.getFingerprint(), third.getFingerprint());
+    }
+
+    @Test
+    public void testFallbackToBundled() throws Exception
+    {
+        File directory = new File("target/templates/empty").getAbsoluteFile();
+        deleteDirectory(directory);
+        directory.mkdirs();
+
+        assertEquals(TemplateSet.bundled().getFingerprint(), TemplateSet.fromDirectory(directory).getFingerprint());
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalcommits.core.metrics;
+
+import static java.util.stream.Collectors.toList;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.common.AbstractTest;
+import com.antonjohansson.conventionalcommits.core.git.parser.CommitParser;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests that the Java 11 implementation of {@link FlightRecorderEvents} is selected from the multi-release JAR.
+ */
+public class FlightRecorderEventsIT extends AbstractTest
+{
+    @Test
+    public void testParseEvent() throws Exception
+    {
+        Path file = Files.createTempFile("flight-recorder-events", ".jfr");
+        try (Recording recording = new Recording())
+        {
+            recording.enable("com.antonjohansson.conventionalchangelog.Parse").withoutThreshold();
+            recording.start();
+            new CommitParser("3a37f7e1b522909d1afff2e24945ead5e637a25c", "feat: Add something").parse();
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file)
+                    .stream()
+                    .filter(event -> event.getEventType().getName().equals("com.antonjohansson.conventionalchangelog.Parse"))
+                    .collect(toList());
+
+            assertEquals(1, events.size());
+            assertEquals("3a37f7e1b522909d1afff2e24945ead5e637a25c", events.get(0).getString("hash"));
+            assertEquals(19, events.get(0).getInt("messageLength"));
+        }
+        finally
+        {
+            Files.delete(file);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Optional;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugins.annotations.Component;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import com.antonjohansson.conventionalcommits.core.git.ChangeSetCollector.WalkMode;
+import com.antonjohansson.conventionalcommits.core.git.RepositoryHandle;
+import com.antonjohansson.conventionalcommits.core.git.RepositoryRegistry;
+import com.antonjohansson.conventionalcommits.core.git.WindowCacheSettings;
+import com.antonjohansson.conventionalcommits.core.writer.TemplateSet;
+
+/**
+ * Skeleton for goals that generate changelogs, containing the parameters that all of them share.
+ */
+public abstract class AbstractChangeLogMojo extends AbstractMojo
+{
+    @Parameter(defaultValue = "${project}", required = true, readonly = true)
+    protected MavenProject project;
+
+    @Component
+    private SessionRepositories sessionRepositories;
+
+    @Parameter(name = "numberOfVersions", property = "numberOfVersions", defaultValue = "1", required = true)
+    protected int numberOfVersions;
+
+    @Parameter(name = "versionTagPrefix", property = "versionTagPrefix", defaultValue = "v", required = true)
+    protected String versionTagPrefix;
+
+    @Parameter(name = "fileName", property = "fileName", defaultValue = "CHANGELOG.md", required = true)
+    protected String fileName;
+
+    @Parameter(name = "fromVersion", property = "fromVersion")
+    protected String fromVersion;
+
+    @Parameter(name = "toVersion", property = "toVersion")
+    protected String toVersion;
+
+    @Parameter(name = "walkMode", property = "walkMode", defaultValue = "ALL", required = true)
+    protected WalkMode walkMode;
+
+    @Parameter(name = "templateDirectory", property = "templateDirectory")
+    protected File templateDirectory;
+
+    @Parameter(name = "sectionCacheDirectory", property = "sectionCacheDirectory")
+    protected File sectionCacheDirectory;
+
+    @Parameter(name = "packedGitMMAP", property = "packedGitMMAP")
+    private Boolean packedGitMMAP;
+
+    @Parameter(name = "packedGitWindowSize", property = "packedGitWindowSize")
+    private Integer packedGitWindowSize;
+
+    @Parameter(name = "packedGitLimit", property = "packedGitLimit")
+    private Long packedGitLimit;
+
+    @Parameter(name = "deltaBaseCacheLimit", property = "deltaBaseCacheLimit")
+    private Integer deltaBaseCacheLimit;
+
+    @Parameter(name = "streamFileThreshold", property = "streamFileThreshold")
+    private Integer streamFileThreshold;
+
+    /**
+     * Gets the templates to render with.
+     *
+     * @return the templates
+     */
+    protected TemplateSet getTemplates()
+    {
+        return templateDirectory == null
+            ? TemplateSet.bundled()
+            : TemplateSet.fromDirectory(templateDirectory);
+    }
+
+    /**
+     * Gets the settings for how JGit reads pack files, and installs them. Settings that differ from the ones installed by an earlier execution
+     * in the same JVM are ignored with a warning.
+     *
+     * @return the settings
+     */
+    protected WindowCacheSettings getWindowCacheSettings()
+    {
+        WindowCacheSettings settings = new WindowCacheSettings();
+        if (packedGitMMAP != null)
+        {
+            settings.packedGitMMAP(packedGitMMAP);
+        }
+        if (packedGitWindowSize != null)
+        {
+            settings.packedGitWindowSize(packedGitWindowSize);
+        }
+        if (packedGitLimit != null)
+        {
+            settings.packedGitLimit(packedGitLimit);
+        }
+        if (deltaBaseCacheLimit != null)
+        {
+            settings.deltaBaseCacheLimit(deltaBaseCacheLimit);
+        }
+        if (streamFileThreshold != null)
+        {
+            settings.streamFileThreshold(streamFileThreshold);
+        }
+        if (!settings.install())
+        {
+            getLog().warn("Ignoring JGit window cache settings " + settings + ", since an earlier execution installed "
+                + WindowCacheSettings.getInstalled().map(Object::toString).orElse("other settings"));
+        }
+        return settings;
+    }
+
+    /**
+     * Acquires a handle to the repository of the given directory. When the plugin is used as a build extension, the repository is shared by
+     * all executions within the current session. Otherwise, it is closed along with the handle.
+     *
+     * @param directory the directory of the repository
+     * @return the handle, which must be closed when no longer used
+     */
+    protected RepositoryHandle acquireRepository(File directory) throws IOException
+    {
+        Optional<RepositoryRegistry> shared = sessionRepositories.get();
+        if (shared.isPresent())
+        {
+            return shared.get().acquire(directory);
+        }
+
+        try (RepositoryRegistry registry = new RepositoryRegistry())
+        {
+            return registry.acquire(directory);
+        }
+    }
+}
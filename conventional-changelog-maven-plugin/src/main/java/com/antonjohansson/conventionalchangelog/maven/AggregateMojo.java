@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+
+import com.antonjohansson.conventionalcommits.core.git.ChangeSetCollector;
+import com.antonjohansson.conventionalcommits.core.git.ChangeSetFilter;
+import com.antonjohansson.conventionalcommits.core.git.RepositoryHandle;
+import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.writer.ChangeLogWriter;
+
+/**
+ * Maven goal for generating changelog files for all modules of a reactor. The repository is walked once, and each module gets a changelog
+ * that only contains the changes that touch its own directory. The changelogs are written in parallel.
+ */
+@Mojo(name = "aggregate", aggregator = true, threadSafe = true)
+public class AggregateMojo extends AbstractChangeLogMojo
+{
+    @Parameter(defaultValue = "${reactorProjects}", required = true, readonly = true)
+    private List<MavenProject> reactorProjects;
+
+    @Parameter(name = "threads", property = "threads", defaultValue = "0", required = true)
+    private int threads;
+
+    @Override
+    public void execute() throws MojoExecutionException
+    {
+        File root = project.getBasedir();
+        List<ChangeSet> changeSets;
+        Path workTree;
+        try (RepositoryHandle repository = acquireRepository(root))
+        {
+            changeSets = getChangeSets(repository, root);
+            workTree = repository.getRepository().getWorkTree().getAbsoluteFile().toPath();
+        }
+        catch (IOException e)
+        {
+            throw new MojoExecutionException("Could not open repository", e);
+        }
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(poolSize, reactorProjects.size())));
+        try
+        {
+            List<Future<?>> futures = new ArrayList<>();
+            for (MavenProject module : reactorProjects)
+            {
+                String path = workTree.relativize(module.getBasedir().toPath().toAbsolutePath()).toString().replace(File.separatorChar, '/');
+                futures.add(executor.submit(() ->
+                {
+                    write(module, ChangeSetFilter.byPath(changeSets, path), path);
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures)
+            {
+                future.get();
+            }
+        }
+        catch (ExecutionException e)
+        {
+            throw new MojoExecutionException("Could not write change log", e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException("Interrupted while writing change logs", e);
+        }
+        finally
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    private void write(MavenProject module, List<ChangeSet> changeSets, String path) throws Exception
+    {
+        try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
+        {
+            writer
+                    .projectDirectory(module.getBasedir())
+                    .fileName(fileName);
+
+            if (templateDirectory != null)
+            {
+                writer.templateDirectory(templateDirectory);
+            }
+            if (sectionCacheDirectory != null)
+            {
+                // Modules render different content for the same tags, so they cannot share cache entries
+                writer.sectionCache(new File(sectionCacheDirectory, path.isEmpty() ? "_root" : path));
+            }
+
+            writer.write();
+        }
+        getLog().info("Wrote change log for " + module.getArtifactId());
+    }
+
+    private List<ChangeSet> getChangeSets(RepositoryHandle repository, File root) throws MojoExecutionException
+    {
+        try
+        {
+            ChangeSetCollector collector = new ChangeSetCollector(repository, root)
+                    .numberOfVersions(numberOfVersions)
+                    .versionTagPrefix(versionTagPrefix)
+                    .windowCacheSettings(getWindowCacheSettings())
+                    .walkMode(walkMode)
+                    .collectPaths(true);
+            if (fromVersion != null)
+            {
+                collector.fromVersion(fromVersion);
+            }
+            if (toVersion != null)
+            {
+                collector.toVersion(toVersion);
+            }
+            return collector.collect();
+        }
+        catch (Exception e)
+        {
+            throw new MojoExecutionException("Could not collect change sets", e);
+        }
+    }
+}
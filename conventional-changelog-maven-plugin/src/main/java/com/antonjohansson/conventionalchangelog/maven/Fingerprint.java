@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.maven;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.eclipse.jgit.lib.Constants.HEAD;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.eclipse.jgit.lib.ObjectId;
+
+import com.antonjohansson.conventionalcommits.core.git.RepositoryHandle;
+import com.antonjohansson.conventionalcommits.core.utils.HashUtils;
+
+/**
+ * Describes everything that affects the generated changelog. If the fingerprint of a build equals the one stored by the previous build, the
+ * changelog does not need to be generated again.
+ * <p>
+ * The fingerprint is stored as plain text, so that it is easy to see why a changelog was regenerated.
+ * </p>
+ */
+class Fingerprint
+{
+    private final StringBuilder content = new StringBuilder();
+
+    /**
+     * Adds a value to the fingerprint.
+     *
+     * @param key the key of the value
+     * @param value the value
+     * @return the fingerprint itself, used for chaining
+     */
+    Fingerprint add(String key, Object value)
+    {
+        content.append(key).append('=').append(value).append('\n');
+        return this;
+    }
+
+    /**
+     * Adds the content hash of a file to the fingerprint.
+     *
+     * @param key the key of the file
+     * @param file the file
+     * @return the fingerprint itself, used for chaining
+     */
+    Fingerprint addFile(String key, File file) throws IOException
+    {
+        String hash = file.isFile()
+            ? HashUtils.toHex(HashUtils.newDigest().digest(Files.readAllBytes(file.toPath())))
+            : "none";
+        return add(key, hash);
+    }
+
+    /**
+     * Adds the commit of {@code HEAD} and all version tags of the repository to the fingerprint.
+     *
+     * @param repository the handle of the repository
+     * @param versionTagPrefix the prefix of version tags
+     * @return the fingerprint itself, used for chaining
+     */
+    Fingerprint addRepository(RepositoryHandle repository, String versionTagPrefix) throws IOException
+    {
+        ObjectId head = repository.getRepository().resolve(HEAD);
+        add("head", head == null ? "none" : head.getName());
+
+        Pattern pattern = Pattern.compile("^" + versionTagPrefix + "(\\d.*)$");
+        List<String> tags = new ArrayList<>();
+        for (Map.Entry<String, ObjectId> tag : repository.getTagIndex().getTags().entrySet())
+        {
+            if (pattern.matcher(tag.getKey()).matches())
+            {
+                tags.add(tag.getKey() + ":" + tag.getValue().getName());
+            }
+        }
+        return add("tags", String.join(",", tags));
+    }
+
+    /**
+     * Checks whether or not this fingerprint equals the one stored in the given file.
+     *
+     * @param file the file to compare with
+     * @return {@code true} if the fingerprints are equal
+     */
+    boolean matches(File file) throws IOException
+    {
+        return file.isFile() && new String(Files.readAllBytes(file.toPath()), UTF_8).equals(content.toString());
+    }
+
+    /**
+     * Stores this fingerprint in the given file.
+     *
+     * @param file the file to store the fingerprint in
+     */
+    void store(File file) throws IOException
+    {
+        Files.createDirectories(file.getParentFile().toPath());
+        Files.write(file.toPath(), content.toString().getBytes(UTF_8));
+    }
+}
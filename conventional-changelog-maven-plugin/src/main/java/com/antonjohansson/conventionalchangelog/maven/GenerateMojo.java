@@ -15,46 +15,289 @@
  */
 package com.antonjohansson.conventionalchangelog.maven;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.time.Duration;
 import java.util.List;
 
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.maven.project.MavenProject;
 
 import com.antonjohansson.conventionalcommits.core.git.ChangeSetCollector;
+import com.antonjohansson.conventionalcommits.core.git.RepositoryHandle;
 import com.antonjohansson.conventionalcommits.core.git.model.ChangeSet;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsListener.Phase;
+import com.antonjohansson.conventionalcommits.core.metrics.MetricsSummary;
+import com.antonjohansson.conventionalcommits.core.metrics.OutlierReport;
+import com.antonjohansson.conventionalcommits.core.metrics.ProgressListener;
+import com.antonjohansson.conventionalcommits.core.utils.TimeUtils;
 import com.antonjohansson.conventionalcommits.core.writer.ChangeLogWriter;
+import com.antonjohansson.conventionalcommits.core.writer.JsonSink;
+import com.antonjohansson.conventionalcommits.core.writer.SplitSink;
+import com.antonjohansson.conventionalcommits.core.writer.TemplateSet;
+import com.antonjohansson.conventionalcommits.core.writer.TemplateSink;
 
 /**
  * Maven goal for generating a changelog file from conventional commits.
  */
-@Mojo(name = "generate")
-public class GenerateMojo extends AbstractMojo
+@Mojo(name = "generate", threadSafe = true)
+public class GenerateMojo extends AbstractChangeLogMojo
 {
-    @Parameter(defaultValue = "${project}", required = true, readonly = true)
-    private MavenProject project;
+    @Parameter(defaultValue = "${plugin}", required = true, readonly = true)
+    private PluginDescriptor plugin;
+
+    @Parameter(name = "splitDirectory", property = "splitDirectory")
+    private File splitDirectory;
+
+    @Parameter(name = "splitBy", property = "splitBy", defaultValue = "VERSION", required = true)
+    private SplitSink.Mode splitBy;
+
+    @Parameter(name = "jsonFileName", property = "jsonFileName")
+    private String jsonFileName;
+
+    @Parameter(name = "htmlFileName", property = "htmlFileName")
+    private String htmlFileName;
+
+    @Parameter(name = "upToDateCheck", property = "upToDateCheck", defaultValue = "true", required = true)
+    private boolean upToDateCheck;
+
+    @Parameter(name = "fingerprintFile", property = "fingerprintFile", defaultValue = "${project.build.directory}/conventional-changelog/fingerprint", required = true)
+    private File fingerprintFile;
 
-    @Parameter(name = "numberOfVersions", property = "numberOfVersions", defaultValue = "1", required = true)
-    private int numberOfVersions;
+    @Parameter(name = "historyIndexFile", property = "historyIndexFile")
+    private File historyIndexFile;
 
-    @Parameter(name = "versionTagPrefix", property = "versionTagPrefix", defaultValue = "v", required = true)
-    private String versionTagPrefix;
+    @Parameter(name = "memoryBudget", property = "memoryBudget", defaultValue = "0", required = true)
+    private long memoryBudget;
 
-    @Parameter(name = "fileName", property = "fileName", defaultValue = "CHANGELOG.md", required = true)
-    private String fileName;
+    @Parameter(name = "stats", property = "changelog.stats", defaultValue = "false", required = true)
+    private boolean stats;
+
+    @Parameter(name = "metricsListener", property = "changelog.metricsListener")
+    private String metricsListener;
+
+    @Parameter(name = "outliers", property = "changelog.outliers", defaultValue = "0", required = true)
+    private int outliers;
+
+    @Parameter(name = "progressInterval", property = "changelog.progressInterval", defaultValue = "0", required = true)
+    private long progressInterval;
+
+    private MetricsListener metrics = new MetricsListener()
+    {
+    };
+    private OutlierReport outlierReport;
+    private ProgressListener progress;
 
     @Override
     public void execute() throws MojoExecutionException
     {
-        List<ChangeSet> changeSets = getChangeSets();
+        // A file of a major version is rewritten with the versions that are collected, so collecting fewer would remove the others
+        if (splitDirectory != null && splitBy == SplitSink.Mode.MAJOR_VERSION && (numberOfVersions != 0 || fromVersion != null || toVersion != null))
+        {
+            throw new MojoExecutionException("Splitting by major version requires numberOfVersions to be 0, without fromVersion or toVersion");
+        }
+
+        MetricsSummary summary = new MetricsSummary();
+        metrics = getMetricsListener(summary);
+        outlierReport = outliers > 0 ? new OutlierReport(outliers) : null;
+        progress = progressInterval > 0
+            ? ProgressListener.throttled(p -> getLog().info(p.format()), Duration.ofMillis(progressInterval))
+            : null;
+
+        long start = System.nanoTime();
+        try (RepositoryHandle repository = acquireRepository(project.getBasedir()))
+        {
+            metrics.phase(Phase.OPEN_REPOSITORY, System.nanoTime() - start);
+            execute(repository);
+        }
+        catch (IOException e)
+        {
+            throw new MojoExecutionException("Could not open repository", e);
+        }
+
+        if (stats)
+        {
+            log(summary.format());
+        }
+        if (outlierReport != null)
+        {
+            log(outlierReport.format());
+        }
+    }
+
+    private void log(String text)
+    {
+        for (String line : text.split("\\R"))
+        {
+            getLog().info(line);
+        }
+    }
+
+    private MetricsListener getMetricsListener(MetricsSummary summary) throws MojoExecutionException
+    {
+        if (metricsListener == null)
+        {
+            return summary;
+        }
+
+        try
+        {
+            MetricsListener listener = Class.forName(metricsListener, true, Thread.currentThread().getContextClassLoader())
+                    .asSubclass(MetricsListener.class)
+                    .getDeclaredConstructor()
+                    .newInstance();
+            return MetricsListener.all(summary, listener);
+        }
+        catch (ReflectiveOperationException | ClassCastException e)
+        {
+            throw new MojoExecutionException("Could not create metrics listener '" + metricsListener + "'", e);
+        }
+    }
+
+    private void execute(RepositoryHandle repository) throws MojoExecutionException
+    {
+        if (!upToDateCheck)
+        {
+            // An older fingerprint no longer describes the changelog, and must not match once the check is enabled again
+            if (fingerprintFile.isFile() && !fingerprintFile.delete())
+            {
+                getLog().warn("Could not delete fingerprint " + fingerprintFile);
+            }
+            generate(repository);
+            return;
+        }
+
+        Fingerprint fingerprint = getFingerprint(repository);
+        if (outputsExist() && isUpToDate(fingerprint))
+        {
+            getLog().info("Changelog is up to date");
+            return;
+        }
+
+        generate(repository);
+
+        try
+        {
+            fingerprint.store(fingerprintFile);
+        }
+        catch (IOException e)
+        {
+            getLog().warn("Could not store fingerprint: " + e.getMessage());
+        }
+    }
+
+    private Fingerprint getFingerprint(RepositoryHandle repository) throws MojoExecutionException
+    {
+        try
+        {
+            return new Fingerprint()
+                    .add("plugin", plugin.getVersion())
+                    .add("numberOfVersions", numberOfVersions)
+                    .add("versionTagPrefix", versionTagPrefix)
+                    .add("fileName", fileName)
+                    .add("splitDirectory", splitDirectory)
+                    .add("splitBy", splitBy)
+                    .add("fromVersion", fromVersion)
+                    .add("toVersion", toVersion)
+                    .add("walkMode", walkMode)
+                    .add("jsonFileName", jsonFileName)
+                    .add("htmlFileName", htmlFileName)
+                    .add("templateDirectory", templateDirectory)
+                    .add("templates", TemplateSet.fingerprint(templateDirectory))
+                    .add("sectionCacheDirectory", sectionCacheDirectory)
+                    .add("date", TimeUtils.now())
+                    .addFile("pom", new File(project.getBasedir(), "pom.xml"))
+                    .addRepository(repository, versionTagPrefix);
+        }
+        catch (IOException e)
+        {
+            throw new MojoExecutionException("Could not create fingerprint", e);
+        }
+    }
+
+    private boolean isUpToDate(Fingerprint fingerprint)
+    {
+        try
+        {
+            return fingerprint.matches(fingerprintFile);
+        }
+        catch (IOException e)
+        {
+            getLog().debug("Could not read fingerprint", e);
+            return false;
+        }
+    }
+
+    private boolean outputsExist()
+    {
+        File basedir = project.getBasedir();
+        boolean mainExists = splitDirectory != null
+            ? splitDirectory.isDirectory()
+            : new File(basedir, fileName).isFile();
+        return mainExists
+            && (jsonFileName == null || new File(basedir, jsonFileName).isFile())
+            && (htmlFileName == null || new File(basedir, htmlFileName).isFile());
+    }
+
+    private void generate(RepositoryHandle repository) throws MojoExecutionException
+    {
+        // The collector is kept open while writing, since closing it deletes the changes that were spilled to disk
+        try (ChangeSetCollector collector = newCollector(repository))
+        {
+            write(getChangeSets(collector));
+        }
+    }
+
+    private void write(List<ChangeSet> changeSets) throws MojoExecutionException
+    {
         try (ChangeLogWriter writer = new ChangeLogWriter(changeSets))
         {
             writer
                     .projectDirectory(project.getBasedir())
-                    .fileName(fileName)
-                    .write();
+                    .metrics(metrics);
+            if (progress != null)
+            {
+                writer.progress(progress);
+            }
+
+            if (splitDirectory != null)
+            {
+                SplitSink sink = new SplitSink(splitDirectory, getTemplates(), splitBy);
+                if (sectionCacheDirectory != null)
+                {
+                    sink.sectionCache(sectionCacheDirectory);
+                }
+                writer.sink(sink);
+            }
+            else
+            {
+                writer.fileName(fileName);
+            }
+            if (templateDirectory != null)
+            {
+                writer.templateDirectory(templateDirectory);
+            }
+            if (sectionCacheDirectory != null)
+            {
+                writer.sectionCache(sectionCacheDirectory);
+            }
+            if (jsonFileName != null)
+            {
+                writer.sink(new JsonSink(newWriter(jsonFileName)));
+            }
+            if (htmlFileName != null)
+            {
+                writer.sink(new TemplateSink(newWriter(htmlFileName), TemplateSet.bundledHtml()));
+            }
+
+            writer.write();
         }
         catch (Exception e)
         {
@@ -62,14 +305,48 @@ public class GenerateMojo extends AbstractMojo
         }
     }
 
-    private List<ChangeSet> getChangeSets() throws MojoExecutionException
+    private Writer newWriter(String fileName) throws IOException
+    {
+        return Files.newBufferedWriter(new File(project.getBasedir(), fileName).toPath(), UTF_8);
+    }
+
+    private ChangeSetCollector newCollector(RepositoryHandle repository)
+    {
+        ChangeSetCollector collector = new ChangeSetCollector(repository, project.getBasedir())
+                .numberOfVersions(numberOfVersions)
+                .versionTagPrefix(versionTagPrefix)
+                .windowCacheSettings(getWindowCacheSettings())
+                .walkMode(walkMode)
+                .memoryBudget(memoryBudget)
+                .metrics(metrics);
+        if (fromVersion != null)
+        {
+            collector.fromVersion(fromVersion);
+        }
+        if (toVersion != null)
+        {
+            collector.toVersion(toVersion);
+        }
+        if (historyIndexFile != null)
+        {
+            collector.historyIndex(historyIndexFile);
+        }
+        if (outlierReport != null)
+        {
+            collector.outliers(outlierReport);
+        }
+        if (progress != null)
+        {
+            collector.progress(progress);
+        }
+        return collector;
+    }
+
+    private List<ChangeSet> getChangeSets(ChangeSetCollector collector) throws MojoExecutionException
     {
         try
         {
-            return new ChangeSetCollector(project.getBasedir())
-                    .numberOfVersions(numberOfVersions)
-                    .versionTagPrefix(versionTagPrefix)
-                    .collect();
+            return collector.collect();
         }
         catch (Exception e)
         {
@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.maven;
+
+import java.util.Optional;
+
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.maven.AbstractMavenLifecycleParticipant;
+import org.apache.maven.execution.MavenSession;
+
+import com.antonjohansson.conventionalcommits.core.git.RepositoryRegistry;
+
+/**
+ * Keeps one {@link RepositoryRegistry} per Maven session, so that all executions of the plugin within a build share open repositories, tag
+ * indexes and parsed commits.
+ * <p>
+ * The registry is created when the projects have been read, and closed when the session ends. Maven only reports these to lifecycle
+ * participants of build extensions, so the registry only exists when the plugin is declared with {@code <extensions>true</extensions>}.
+ * </p>
+ */
+@Named("conventional-changelog")
+@Singleton
+public class SessionRepositories extends AbstractMavenLifecycleParticipant
+{
+    private RepositoryRegistry registry;
+
+    @Override
+    public void afterProjectsRead(MavenSession session)
+    {
+        RepositoryRegistry previous;
+        synchronized (this)
+        {
+            previous = registry;
+            registry = new RepositoryRegistry();
+        }
+        if (previous != null)
+        {
+            previous.close();
+        }
+    }
+
+    @Override
+    public void afterSessionEnd(MavenSession session)
+    {
+        RepositoryRegistry ended;
+        synchronized (this)
+        {
+            ended = registry;
+            registry = null;
+        }
+        if (ended != null)
+        {
+            ended.close();
+        }
+    }
+
+    /**
+     * Gets the registry of the current session.
+     *
+     * @return the registry, or an empty optional if the plugin is not used as a build extension
+     */
+    synchronized Optional<RepositoryRegistry> get()
+    {
+        return Optional.ofNullable(registry);
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.maven;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+import com.antonjohansson.conventionalcommits.core.git.ChangeSetCollector.WalkMode;
+import com.antonjohansson.conventionalcommits.core.watch.ChangeLogWatcher;
+
+/**
+ * Maven goal for keeping a changelog file up to date while the repository changes. Runs until the build is interrupted.
+ */
+@Mojo(name = "watch", threadSafe = true)
+public class WatchMojo extends AbstractChangeLogMojo
+{
+    @Parameter(name = "debounce", property = "debounce", defaultValue = "200", required = true)
+    private long debounce;
+
+    @Override
+    public void execute() throws MojoExecutionException
+    {
+        if (fromVersion != null || toVersion != null || walkMode != WalkMode.ALL)
+        {
+            throw new MojoExecutionException("The watch goal does not support fromVersion, toVersion or walkMode");
+        }
+
+        File outputFile = new File(project.getBasedir(), fileName);
+        ChangeLogWatcher watcher = new ChangeLogWatcher(project.getBasedir(), outputFile)
+                .numberOfVersions(numberOfVersions)
+                .versionTagPrefix(versionTagPrefix)
+                .debounce(Duration.ofMillis(debounce))
+                .listener(new ChangeLogWatcher.Listener()
+                {
+                    @Override
+                    public void updated(boolean incremental, long nanos)
+                    {
+                        getLog().info("Updated " + fileName + " in " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms" + (incremental ? " (incremental)" : ""));
+                    }
+
+                    @Override
+                    public void failed(Exception e)
+                    {
+                        getLog().warn("Could not update " + fileName, e);
+                    }
+                });
+        if (templateDirectory != null)
+        {
+            watcher.templateDirectory(templateDirectory);
+        }
+
+        try (ChangeLogWatcher closeable = watcher)
+        {
+            watcher.start();
+            getLog().info("Watching for changes, press Ctrl+C to stop");
+            new CountDownLatch(1).await();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+        catch (Exception e)
+        {
+            throw new MojoExecutionException("Could not watch change log", e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.maven;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.git.RepositoryHandle;
+import com.antonjohansson.conventionalcommits.core.git.RepositoryRegistry;
+
+/**
+ * Unit tests of {@link Fingerprint}.
+ */
+public class FingerprintTest extends Assertions
+{
+    private File directory;
+    private Git git;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        directory = Files.createTempDirectory("fingerprint").toFile();
+        git = Git.init().setDirectory(directory).call();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception
+    {
+        git.close();
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testStoreAndMatch() throws Exception
+    {
+        File file = new File(directory, "target/fingerprint");
+        assertFalse(new Fingerprint().add("key", "value").matches(file));
+
+        new Fingerprint().add("key", "value").store(file);
+
+        assertEquals("key=value\n", new String(Files.readAllBytes(file.toPath()), UTF_8));
+        assertTrue(new Fingerprint().add("key", "value").matches(file));
+        assertFalse(new Fingerprint().add("key", "other").matches(file));
+        assertFalse(new Fingerprint().add("key", "value").add("other", null).matches(file));
+    }
+
+    @Test
+    public void testAddFile() throws Exception
+    {
+        File pom = new File(directory, "pom.xml");
+        File file = new File(directory, "target/fingerprint");
+        new Fingerprint().addFile("pom", pom).store(file);
+        assertEquals("pom=none\n", new String(Files.readAllBytes(file.toPath()), UTF_8));
+
+        FileUtils.write(pom, "<project />", UTF_8);
+        assertFalse(new Fingerprint().addFile("pom", pom).matches(file));
+        new Fingerprint().addFile("pom", pom).store(file);
+        assertTrue(new Fingerprint().addFile("pom", pom).matches(file));
+
+        FileUtils.write(pom, "<project></project>", UTF_8);
+        assertFalse(new Fingerprint().addFile("pom", pom).matches(file));
+    }
+
+    @Test
+    public void testAddRepository() throws Exception
+    {
+        File file = new File(directory, "target/fingerprint");
+        commit("chore: Initial commit");
+        git.tag().setName("v1.0.0").call();
+        store(file);
+
+        assertTrue(matches(file));
+
+        git.tag().setName("other").call();
+        assertTrue(matches(file), "Tags that are not versions must not change the fingerprint");
+
+        git.tag().setName("v1.1.0").call();
+        assertFalse(matches(file));
+        store(file);
+
+        commit("feat: Add something");
+        assertFalse(matches(file));
+    }
+
+    private void commit(String message) throws Exception
+    {
+        git.commit().setAllowEmpty(true).setMessage(message).call();
+    }
+
+    private void store(File file) throws Exception
+    {
+        try (RepositoryRegistry registry = new RepositoryRegistry(); RepositoryHandle repository = registry.acquire(directory))
+        {
+            new Fingerprint().addRepository(repository, "v").store(file);
+        }
+    }
+
+    private boolean matches(File file) throws Exception
+    {
+        try (RepositoryRegistry registry = new RepositoryRegistry(); RepositoryHandle repository = registry.acquire(directory))
+        {
+            return new Fingerprint().addRepository(repository, "v").matches(file);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) Anton Johansson <hello@anton-johansson.com>
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.antonjohansson.conventionalchangelog.maven;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.descriptor.PluginDescriptor;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.antonjohansson.conventionalcommits.core.git.ChangeSetCollector.WalkMode;
+import com.antonjohansson.conventionalcommits.core.writer.SplitSink;
+
+/**
+ * Unit tests of {@link GenerateMojo}.
+ */
+public class GenerateMojoTest extends Assertions
+{
+    private static final String STALE = "stale\n";
+
+    private File directory;
+    private File changelog;
+    private File fingerprintFile;
+    private File templateDirectory;
+    private Git git;
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        directory = Files.createTempDirectory("generate-mojo").toFile();
+        changelog = new File(directory, "CHANGELOG.md");
+        fingerprintFile = new File(directory, "target/conventional-changelog/fingerprint");
+        templateDirectory = new File(directory, "templates");
+        templateDirectory.mkdirs();
+        FileUtils.write(new File(templateDirectory, "footer.hbs"), "\n", UTF_8);
+        FileUtils.write(new File(directory, "pom.xml"), "<project><version>1.1.0-SNAPSHOT</version></project>", UTF_8);
+
+        git = Git.init().setDirectory(directory).call();
+        git.commit().setAllowEmpty(true).setMessage("chore: Initial commit").call();
+        git.tag().setName("v1.0.0").call();
+        git.commit().setAllowEmpty(true).setMessage("feat: Add something").call();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception
+    {
+        git.close();
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testSkipsWhenUpToDate() throws Exception
+    {
+        newMojo(true).execute();
+        assertTrue(fingerprintFile.isFile());
+        markStale();
+
+        newMojo(true).execute();
+        assertEquals(STALE, read(changelog));
+    }
+
+    @Test
+    public void testRegeneratesAfterTag() throws Exception
+    {
+        newMojo(true).execute();
+        markStale();
+
+        git.tag().setName("v1.1.0").call();
+        newMojo(true).execute();
+        assertTrue(read(changelog).contains("# 1.1.0"), read(changelog));
+    }
+
+    @Test
+    public void testRegeneratesAfterTemplateChange() throws Exception
+    {
+        newMojo(true).execute();
+        markStale();
+
+        FileUtils.write(new File(templateDirectory, "footer.hbs"), "Generated\n", UTF_8);
+        newMojo(true).execute();
+        assertTrue(read(changelog).contains("Generated"), read(changelog));
+    }
+
+    @Test
+    public void testRegeneratesWhenOutputIsMissing() throws Exception
+    {
+        newMojo(true).execute();
+        String expected = read(changelog);
+        changelog.delete();
+
+        newMojo(true).execute();
+        assertEquals(expected, read(changelog));
+    }
+
+    @Test
+    public void testWithoutUpToDateCheck() throws Exception
+    {
+        newMojo(true).execute();
+        markStale();
+
+        newMojo(false).execute();
+        assertNotEquals(STALE, read(changelog));
+        assertFalse(fingerprintFile.exists());
+    }
+
+    @Test
+    public void testSplitByMajorVersionRequiresAllVersions() throws Exception
+    {
+        File splitDirectory = new File(directory, "changelog");
+        GenerateMojo mojo = newMojo(true);
+        set(mojo, "splitDirectory", splitDirectory);
+        set(mojo, "splitBy", SplitSink.Mode.MAJOR_VERSION);
+        assertThrows(MojoExecutionException.class, mojo::execute);
+        assertFalse(splitDirectory.exists());
+
+        set(mojo, "numberOfVersions", 0);
+        mojo.execute();
+        String page = read(new File(splitDirectory, "1.x.md"));
+        assertTrue(page.contains("Add something"), page);
+    }
+
+    private void markStale() throws Exception
+    {
+        FileUtils.write(changelog, STALE, UTF_8);
+    }
+
+    private String read(File file) throws Exception
+    {
+        return FileUtils.readFileToString(file, UTF_8);
+    }
+
+    private GenerateMojo newMojo(boolean upToDateCheck) throws Exception
+    {
+        MavenProject project = new MavenProject();
+        project.setFile(new File(directory, "pom.xml"));
+        PluginDescriptor plugin = new PluginDescriptor();
+        plugin.setVersion("1.0.0");
+
+        GenerateMojo mojo = new GenerateMojo();
+        set(mojo, "project", project);
+        set(mojo, "sessionRepositories", new SessionRepositories());
+        set(mojo, "plugin", plugin);
+        set(mojo, "numberOfVersions", 1);
+        set(mojo, "versionTagPrefix", "v");
+        set(mojo, "fileName", "CHANGELOG.md");
+        set(mojo, "templateDirectory", templateDirectory);
+        set(mojo, "walkMode", WalkMode.ALL);
+        set(mojo, "splitBy", SplitSink.Mode.VERSION);
+        set(mojo, "upToDateCheck", upToDateCheck);
+        set(mojo, "fingerprintFile", fingerprintFile);
+        return mojo;
+    }
+
+    private void set(Object object, String name, Object value) throws Exception
+    {
+        for (Class<?> type = object.getClass(); type != null; type = type.getSuperclass())
+        {
+            try
+            {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(object, value);
+                return;
+            }
+            catch (NoSuchFieldException e)
+            {
+                // Declared by a superclass
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+}